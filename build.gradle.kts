@@ -2,6 +2,7 @@ plugins {
     id("org.springframework.boot") version "3.3.3"
     id("io.spring.dependency-management") version "1.1.5"
     id("java")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.example"
@@ -18,13 +19,33 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-json")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
 
     implementation(platform("software.amazon.awssdk:bom:2.25.63"))
     implementation("software.amazon.awssdk:secretsmanager")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation("io.opentelemetry:opentelemetry-sdk-testing")
+    jmh("org.springframework:spring-test")
 }
 
 tasks.withType<Test>().configureEach {
     useJUnitPlatform()
 }
+
+// Benchmarks live in src/jmh/java; run them with `./gradlew jmh` (or `-PjmhIncludes=<regex>` for a subset).
+jmh {
+    jmhVersion.set("1.37")
+    includeTests.set(false)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
+// Keep the benchmarks compiling with every build even though they are only run on demand.
+tasks.named("check") {
+    dependsOn("jmhClasses")
+}
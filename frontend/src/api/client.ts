@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { PriceData } from './types';
+import type { PriceData, SymbolPriceHistory } from './types';
 
 const api = axios.create({
   baseURL: import.meta.env.VITE_API_BASE_URL ?? 'http://localhost:8080'
@@ -10,9 +10,39 @@ export async function fetchSymbols(): Promise<string[]> {
   return response.data;
 }
 
-export async function fetchPriceData(symbol: string): Promise<PriceData[]> {
+export interface PriceRange {
+  from?: string;
+  to?: string;
+}
+
+export type PriceInterval = 'daily' | 'weekly' | 'monthly';
+
+export interface PriceSampling {
+  interval?: PriceInterval;
+  // Server-side largest-triangle-three-buckets downsampling per symbol.
+  maxPoints?: number;
+}
+
+export async function fetchPriceData(symbol: string, range: PriceRange = {}): Promise<PriceData[]> {
   const response = await api.get<PriceData[]>('/getPriceData', {
-    params: { symbol }
+    params: { symbol, from: range.from, to: range.to }
+  });
+  return response.data;
+}
+
+export async function fetchPriceHistories(
+  symbols: string[],
+  range: PriceRange = {},
+  sampling: PriceSampling = {}
+): Promise<SymbolPriceHistory[]> {
+  const response = await api.get<SymbolPriceHistory[]>('/prices', {
+    params: {
+      symbols: symbols.join(','),
+      from: range.from,
+      to: range.to,
+      interval: sampling.interval,
+      maxPoints: sampling.maxPoints
+    }
   });
   return response.data;
 }
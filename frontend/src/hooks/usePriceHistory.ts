@@ -1,20 +1,20 @@
 import { useQuery } from '@tanstack/react-query';
-import { fetchPriceData } from '../api/client';
-import type { SymbolPriceHistory } from '../api/types';
+import { fetchPriceHistories } from '../api/client';
+import type { PriceRange, PriceSampling } from '../api/client';
 
-async function loadPriceHistory(symbols: string[]): Promise<SymbolPriceHistory[]> {
-  const requests = symbols.map(async (symbol) => ({
-    symbol,
-    prices: await fetchPriceData(symbol)
-  }));
-  return Promise.all(requests);
-}
-
-export function usePriceHistory(symbols: string[]) {
+export function usePriceHistory(symbols: string[], range: PriceRange = {}, sampling: PriceSampling = {}) {
   const normalizedSymbols = [...symbols].map((symbol) => symbol.toUpperCase()).sort();
   return useQuery({
-    queryKey: ['price-history', normalizedSymbols],
-    queryFn: () => loadPriceHistory(normalizedSymbols),
+    queryKey: [
+      'price-history',
+      normalizedSymbols,
+      range.from ?? null,
+      range.to ?? null,
+      sampling.interval ?? null,
+      sampling.maxPoints ?? null
+    ],
+    // One batched request returns every selected symbol.
+    queryFn: () => fetchPriceHistories(normalizedSymbols, range, sampling),
     enabled: normalizedSymbols.length > 0,
     retry: 1
   });
@@ -14,6 +14,7 @@ import {
   Typography
 } from '@mui/material';
 import { usePriceHistory } from '../hooks/usePriceHistory';
+import type { PriceInterval } from '../api/client';
 import type { PriceData } from '../api/types';
 
 interface ChartPoint {
@@ -44,6 +45,12 @@ interface TooltipContext {
 
 const coerceNumber = (value: number | string) => (typeof value === 'number' ? value : Number(value));
 
+// More points than this are indistinguishable at the chart's width.
+const CHART_MAX_POINTS = 1000;
+
+const parseInterval = (value: string | null): PriceInterval | undefined =>
+  value === 'daily' || value === 'weekly' || value === 'monthly' ? value : undefined;
+
 function PriceChartPage(): JSX.Element {
   const navigate = useNavigate();
   const [params] = useSearchParams();
@@ -60,26 +67,23 @@ function PriceChartPage(): JSX.Element {
   const startDate = params.get('start') ?? undefined;
   const endDate = params.get('end') ?? undefined;
 
-  const { data, isLoading, isError, error } = usePriceHistory(symbols);
+  const interval = parseInterval(params.get('interval'));
+
+  // The backend slices the requested window, aggregates it to the requested interval and returns it sorted by date.
+  // Downsampling picks different dates per symbol, so it is only requested when a single series is charted; weekly
+  // and monthly bars are dated by period start and line up across symbols.
+  const { data, isLoading, isError, error } = usePriceHistory(
+    symbols,
+    { from: startDate, to: endDate },
+    { interval, maxPoints: symbols.length === 1 ? CHART_MAX_POINTS : undefined }
+  );
 
   const filteredData = useMemo(() => {
     if (!data) {
       return [] as { symbol: string; prices: PriceData[] }[];
     }
-
-    const startMs = startDate ? new Date(startDate).getTime() : Number.NEGATIVE_INFINITY;
-    const endMs = endDate ? new Date(endDate).getTime() : Number.POSITIVE_INFINITY;
-
-    return data.map(({ symbol, prices }) => ({
-      symbol,
-      prices: prices
-        .filter((price) => {
-          const priceTime = new Date(price.date).getTime();
-          return priceTime >= startMs && priceTime <= endMs;
-        })
-        .sort((a, b) => new Date(a.date).getTime() - new Date(b.date).getTime())
-    }));
-  }, [data, startDate, endDate]);
+    return data;
+  }, [data]);
 
   const uniqueDates = useMemo<string[]>(() => {
     const dateSet = new Set<string>();
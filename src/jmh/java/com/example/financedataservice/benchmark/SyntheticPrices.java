@@ -0,0 +1,194 @@
+package com.example.financedataservice.benchmark;
+
+import com.example.financedataservice.config.StockConfig;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Deterministic synthetic market data for the benchmarks: {@code N} symbols with {@code M} years of weekday bars
+ * following a geometric random walk, plus the same bars rendered as Twelve Data and AlphaVantage payloads.
+ */
+public final class SyntheticPrices {
+
+    public static final int BARS_PER_YEAR = 252;
+    public static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+    private SyntheticPrices() {
+    }
+
+    public static List<String> symbols(int count) {
+        List<String> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbols.add(String.format("SYM%03d", i));
+        }
+        return symbols;
+    }
+
+    /**
+     * {@code years} years of weekday bars ending on {@link #LAST_DATE}, oldest first. The same symbol always yields
+     * the same bars.
+     */
+    public static List<PriceData> dailyBars(String symbol, int years) {
+        return bars(symbol, years * BARS_PER_YEAR, LAST_DATE, PriceDataSource.TWELVE_DATA);
+    }
+
+    public static List<PriceData> bars(String symbol, int count, LocalDate lastDate, PriceDataSource source) {
+        List<LocalDate> dates = new ArrayList<>(count);
+        LocalDate date = lastDate;
+        while (dates.size() < count) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dates.add(date);
+            }
+            date = date.minusDays(1);
+        }
+        Collections.reverse(dates);
+
+        Random random = new Random(symbol.hashCode());
+        double close = 20 + random.nextDouble() * 480;
+        List<PriceData> bars = new ArrayList<>(count);
+        for (LocalDate day : dates) {
+            double open = close * Math.exp(random.nextGaussian() * 0.005);
+            close = open * Math.exp(random.nextGaussian() * 0.015);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            Long volume = source == PriceDataSource.GOLD ? null : 100_000L + random.nextInt(50_000_000);
+            bars.add(new PriceData(symbol, day, price(open), price(high), price(low), price(close), volume, source));
+        }
+        return bars;
+    }
+
+    /**
+     * A copy of {@code bars} whose last close is moved by {@code cents}, as a provider revising the latest bar.
+     */
+    public static List<PriceData> reviseLast(List<PriceData> bars, int cents) {
+        List<PriceData> revised = new ArrayList<>(bars);
+        PriceData last = revised.get(revised.size() - 1);
+        revised.set(revised.size() - 1, new PriceData(last.getSymbol(), last.getDate(), last.getOpen(),
+            last.getHigh(), last.getLow(), last.getClose().add(BigDecimal.valueOf(cents, 2)), last.getVolume(),
+            last.getSource()));
+        return revised;
+    }
+
+    /**
+     * Single-symbol {@code /time_series} response, newest bar first like the real API.
+     */
+    public static byte[] twelveDataPayload(List<PriceData> bars) {
+        StringBuilder json = new StringBuilder(bars.size() * 140);
+        appendTwelveDataSeries(json, bars);
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Multi-symbol {@code /time_series} response keyed by symbol.
+     */
+    public static byte[] twelveDataBatchPayload(Map<String, List<PriceData>> barsBySymbol) {
+        StringBuilder json = new StringBuilder().append('{');
+        barsBySymbol.forEach((symbol, bars) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(symbol).append("\":");
+            appendTwelveDataSeries(json, bars);
+        });
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code TIME_SERIES_DAILY} response for gold, newest entry first like the real API.
+     */
+    public static byte[] alphaVantagePayload(List<PriceData> bars) {
+        StringBuilder json = new StringBuilder(bars.size() * 160)
+            .append("{\"Meta Data\":{\"1. Information\":\"Daily Prices\",\"2. Symbol\":\"XAUUSD\"},")
+            .append("\"Time Series (Daily)\":{");
+        for (int i = bars.size() - 1; i >= 0; i--) {
+            PriceData bar = bars.get(i);
+            json.append('"').append(bar.getDate()).append("\":{")
+                .append("\"1. open\":\"").append(bar.getOpen().toPlainString()).append("\",")
+                .append("\"2. high\":\"").append(bar.getHigh().toPlainString()).append("\",")
+                .append("\"3. low\":\"").append(bar.getLow().toPlainString()).append("\",")
+                .append("\"4. close\":\"").append(bar.getClose().toPlainString()).append("\",")
+                .append("\"5. volume\":\"0\"}");
+            if (i > 0) {
+                json.append(',');
+            }
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A {@link RestTemplate} that answers every request in memory with the JSON body {@code responder} returns for the
+     * request's {@code symbol} query parameter, so client benchmarks measure parsing rather than the network.
+     */
+    public static RestTemplate cannedRestTemplate(Function<String, byte[]> responder) {
+        return new RestTemplate((uri, method) -> {
+            String symbol = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("symbol");
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(responder.apply(symbol), HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            request.setResponse(response);
+            return request;
+        });
+    }
+
+    public static StockConfig stockConfig(ObjectMapper objectMapper, List<String> symbols, int days, int goldDays) {
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("symbols", symbols);
+        configuration.put("days", days);
+        configuration.put("goldDays", goldDays);
+        try {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            objectMapper.writeValue(json, configuration);
+            return new StockConfig(objectMapper, new ByteArrayResource(json.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendTwelveDataSeries(StringBuilder json, List<PriceData> bars) {
+        String symbol = bars.isEmpty() ? "" : bars.get(0).getSymbol();
+        json.append("{\"meta\":{\"symbol\":\"").append(symbol).append("\",\"interval\":\"1day\",")
+            .append("\"currency\":\"USD\",\"exchange_timezone\":\"America/New_York\",\"type\":\"Common Stock\"},")
+            .append("\"values\":[");
+        for (int i = bars.size() - 1; i >= 0; i--) {
+            PriceData bar = bars.get(i);
+            json.append("{\"datetime\":\"").append(bar.getDate()).append("\",")
+                .append("\"open\":\"").append(bar.getOpen().toPlainString()).append("\",")
+                .append("\"high\":\"").append(bar.getHigh().toPlainString()).append("\",")
+                .append("\"low\":\"").append(bar.getLow().toPlainString()).append("\",")
+                .append("\"close\":\"").append(bar.getClose().toPlainString()).append("\",")
+                .append("\"volume\":\"").append(bar.getVolume()).append("\"}");
+            if (i > 0) {
+                json.append(',');
+            }
+        }
+        json.append("],\"status\":\"ok\"}");
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(5, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.financedataservice.client;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.util.function.Function;
+
+/**
+ * Provider clients backed by {@link SyntheticPrices#cannedRestTemplate}, for benchmarks outside this package.
+ */
+public final class CannedClients {
+
+    private CannedClients() {
+    }
+
+    /**
+     * @param responder returns the response body for the requested {@code symbol} parameter, which is a
+     *                  comma-separated list for batch requests
+     */
+    public static TwelveDataClient twelveData(ObjectMapper objectMapper, Function<String, byte[]> responder) {
+        return new TwelveDataClient(SyntheticPrices.cannedRestTemplate(responder), objectMapper, Clock.systemUTC(),
+            "benchmark", "1day");
+    }
+
+    public static AlphaVantageClient alphaVantage(ObjectMapper objectMapper, byte[] payload) {
+        return new AlphaVantageClient(SyntheticPrices.cannedRestTemplate(symbol -> payload), objectMapper,
+            "benchmark");
+    }
+}
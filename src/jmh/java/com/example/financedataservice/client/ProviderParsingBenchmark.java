@@ -0,0 +1,78 @@
+package com.example.financedataservice.client;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses provider payloads through the real clients, with the HTTP exchange answered in memory. Covers the streaming
+ * {@code JsonParser} paths of both providers and the multi-symbol Twelve Data response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderParsingBenchmark {
+
+    private static final int BATCH_SIZE = 8;
+
+    @Param({"1", "10"})
+    int years;
+
+    private int days;
+    private List<String> batchSymbols;
+    private TwelveDataClient singleSymbolClient;
+    private TwelveDataClient batchClient;
+    private AlphaVantageClient alphaVantageClient;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        days = years * SyntheticPrices.BARS_PER_YEAR;
+        batchSymbols = SyntheticPrices.symbols(BATCH_SIZE);
+
+        byte[] single = SyntheticPrices.twelveDataPayload(SyntheticPrices.dailyBars("AAPL", years));
+        singleSymbolClient = CannedClients.twelveData(objectMapper, symbol -> single);
+
+        Map<String, List<PriceData>> batch = new LinkedHashMap<>();
+        batchSymbols.forEach(symbol -> batch.put(symbol, SyntheticPrices.dailyBars(symbol, years)));
+        byte[] batchPayload = SyntheticPrices.twelveDataBatchPayload(batch);
+        batchClient = CannedClients.twelveData(objectMapper, symbol -> batchPayload);
+
+        List<PriceData> gold = SyntheticPrices.bars("XAUUSD", days, SyntheticPrices.LAST_DATE, PriceDataSource.GOLD);
+        alphaVantageClient = CannedClients.alphaVantage(objectMapper, SyntheticPrices.alphaVantagePayload(gold));
+    }
+
+    @Benchmark
+    public List<PriceData> twelveDataSingleSymbol() {
+        return singleSymbolClient.fetchHistoricalPrices("AAPL", days);
+    }
+
+    @Benchmark
+    public Map<String, List<PriceData>> twelveDataBatch() {
+        return batchClient.fetchHistoricalPrices(batchSymbols, days, null);
+    }
+
+    @Benchmark
+    public List<PriceData> alphaVantageGold() {
+        return alphaVantageClient.fetchGoldPriceHistory(days);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.financedataservice.controller;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.example.financedataservice.service.BenchmarkFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Response rendering of the price endpoints with a warm cache: the pre-serialized full history (plain and gzip), a
+ * date range written through the {@link ObjectMapper} like the JSON message converter does, and the streamed
+ * multi-symbol {@code /prices} response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceDataControllerBenchmark {
+
+    private static final int SYMBOLS = 10;
+
+    @Param({"1", "10"})
+    int years;
+
+    private BenchmarkFixture fixture;
+    private PriceDataController controller;
+    private ObjectMapper objectMapper;
+    private List<String> symbols;
+    private LocalDate rangeStart;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = new BenchmarkFixture(SYMBOLS, years, false, 8, symbol -> {
+            throw new IllegalStateException("Controller benchmarks do not refresh");
+        });
+        objectMapper = fixture.objectMapper();
+        controller = new PriceDataController(fixture.service(), objectMapper);
+        symbols = fixture.symbols();
+        rangeStart = SyntheticPrices.LAST_DATE.minusYears(1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> fullHistory() {
+        return controller.getPriceData(symbols.get(0), null, null, null, null, null, null, webRequest());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> fullHistoryGzip() {
+        return controller.getPriceData(symbols.get(0), null, null, null, null, null, "gzip", webRequest());
+    }
+
+    @Benchmark
+    public byte[] rangeSerialized() throws IOException {
+        ResponseEntity<?> response = controller.getPriceData(symbols.get(0), rangeStart, SyntheticPrices.LAST_DATE,
+            null, null, null, null, webRequest());
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] weeklyBarsSerialized() throws IOException {
+        ResponseEntity<?> response = controller.getPriceData(symbols.get(0), null, null, null, "weekly", null, null,
+            webRequest());
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] pricesStreamed() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getPrices(symbols, rangeStart, SyntheticPrices.LAST_DATE, null, null,
+            new ServletWebRequest(new MockHttpServletRequest(), response), response);
+        return response.getContentAsByteArray();
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.financedataservice.model;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merges provider results into a cached {@link PriceSeries} the way {@code FinanceDataService.mergeAndPersist} does:
+ * appending the next bar, revising the latest bars, re-fetching bars that did not change, and building a series from
+ * a full provider history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceSeriesMergeBenchmark {
+
+    @Param({"1", "10", "30"})
+    int years;
+
+    private List<PriceData> history;
+    private PriceSeries cached;
+    private List<PriceData> nextBar;
+    private List<PriceData> revisedTail;
+    private List<PriceData> unchangedTail;
+
+    @Setup
+    public void setUp() {
+        history = SyntheticPrices.dailyBars("AAPL", years);
+        cached = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, history);
+        nextBar = SyntheticPrices.bars("AAPL", 1, SyntheticPrices.LAST_DATE.plusDays(1), PriceDataSource.TWELVE_DATA);
+        unchangedTail = history.subList(history.size() - 30, history.size());
+        revisedTail = SyntheticPrices.reviseLast(unchangedTail, 7);
+    }
+
+    @Benchmark
+    public PriceSeries.Merge appendNextBar() {
+        return cached.merge(nextBar);
+    }
+
+    @Benchmark
+    public PriceSeries.Merge reviseLatestBar() {
+        return cached.merge(revisedTail);
+    }
+
+    @Benchmark
+    public PriceSeries.Merge refetchUnchangedBars() {
+        return cached.merge(unchangedTail);
+    }
+
+    @Benchmark
+    public PriceSeries buildFromFullHistory() {
+        return PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, history);
+    }
+}
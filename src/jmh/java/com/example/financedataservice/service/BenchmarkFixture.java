@@ -0,0 +1,96 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.example.financedataservice.client.CannedClients;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import com.example.financedataservice.store.BinaryPriceStore;
+import com.example.financedataservice.store.JsonPriceStore;
+import com.example.financedataservice.store.MappedPriceReader;
+import com.example.financedataservice.store.PriceStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * A {@link FinanceDataService} over a temporary directory of binary price files, wired like the application but
+ * with in-memory provider clients. With {@code coldCache} the price cache cannot hold any series, so every read goes
+ * to disk.
+ */
+public final class BenchmarkFixture implements AutoCloseable {
+
+    private final Path directory;
+    private final List<String> symbols;
+    private final ObjectMapper objectMapper;
+    private final RefreshPipeline refreshPipeline;
+    private final FinanceDataService service;
+
+    /**
+     * @param twelveDataResponder body returned for a Twelve Data request, keyed by its {@code symbol} parameter
+     */
+    public BenchmarkFixture(int symbolCount, int years, boolean coldCache, int twelveDataBatchSize,
+                            Function<String, byte[]> twelveDataResponder) throws IOException {
+        directory = Files.createTempDirectory("finance-benchmark");
+        symbols = SyntheticPrices.symbols(symbolCount);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        PriceStore priceStore = new BinaryPriceStore(directory, new JsonPriceStore(directory, objectMapper), false);
+        for (String symbol : symbols) {
+            priceStore.write(PriceSeries.of(symbol, PriceDataSource.TWELVE_DATA,
+                SyntheticPrices.dailyBars(symbol, years)));
+        }
+
+        int days = years * SyntheticPrices.BARS_PER_YEAR;
+        PriceCache priceCache = coldCache
+            ? new PriceCache(1L, Duration.ofMinutes(10), 10_000, Ticker.systemTicker())
+            : PriceCache.withDefaults();
+        refreshPipeline = new RefreshPipeline(twelveDataBatchSize);
+        service = new FinanceDataService(
+            CannedClients.alphaVantage(objectMapper, SyntheticPrices.alphaVantagePayload(List.of())),
+            CannedClients.twelveData(objectMapper, twelveDataResponder),
+            SyntheticPrices.stockConfig(objectMapper, symbols, days, days),
+            priceStore,
+            directory.toString(),
+            refreshPipeline,
+            true,
+            (MappedPriceReader) null,
+            priceCache,
+            new SerializedPriceCache(objectMapper, 67_108_864L, true),
+            new IndicatorCache(33_554_432L),
+            new ResampledPriceCache(33_554_432L),
+            new SimpleMeterRegistry(),
+            Tracer.NOOP);
+    }
+
+    public FinanceDataService service() {
+        return service;
+    }
+
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    public void close() throws IOException {
+        refreshPipeline.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
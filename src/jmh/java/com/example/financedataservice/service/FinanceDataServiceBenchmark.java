@@ -0,0 +1,114 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.SerializedPriceHistory;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Query and refresh paths of {@link FinanceDataService} against files on disk. Queries rotate through the symbols so
+ * a cold cache really reads every series back; the refresh fetches the latest bars of every symbol with the closing
+ * price of the last bar alternating between two revisions, so each run merges and persists a change per symbol.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FinanceDataServiceBenchmark {
+
+    private static final int SYMBOLS = 50;
+    private static final int REFRESHED_BARS = 5;
+
+    @Param({"1", "10"})
+    int years;
+
+    @Param({"warm", "cold"})
+    String cache;
+
+    private final Map<String, byte[]> refreshPayloads = new ConcurrentHashMap<>();
+    private BenchmarkFixture fixture;
+    private FinanceDataService service;
+    private List<String> symbols;
+    private LocalDate rangeStart;
+    private volatile int revision;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = new BenchmarkFixture(SYMBOLS, years, "cold".equals(cache), 8,
+            symbolParam -> refreshPayloads.computeIfAbsent(revision + ":" + symbolParam,
+                key -> revisedPayload(symbolParam)));
+        service = fixture.service();
+        symbols = fixture.symbols();
+        rangeStart = SyntheticPrices.LAST_DATE.minusDays(90);
+        symbols.forEach(service::getPriceDataForSymbol);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<PriceData> rangeQuery() {
+        return service.getPriceDataForSymbol(nextSymbol(), rangeStart, SyntheticPrices.LAST_DATE, null);
+    }
+
+    @Benchmark
+    public List<PriceData> fullHistoryQuery() {
+        return service.getPriceDataForSymbol(nextSymbol());
+    }
+
+    @Benchmark
+    public SerializedPriceHistory serializedHistory() {
+        return service.getSerializedHistory(nextSymbol());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RefreshResult refreshRevisesLatestBars() {
+        revision = revision == 1 ? 2 : 1;
+        return service.refreshProviders(Set.of(DataProvider.TWELVE_DATA));
+    }
+
+    private String nextSymbol() {
+        String symbol = symbols.get(next);
+        next = next + 1 == symbols.size() ? 0 : next + 1;
+        return symbol;
+    }
+
+    private byte[] revisedPayload(String symbolParam) {
+        Map<String, List<PriceData>> barsBySymbol = new LinkedHashMap<>();
+        for (String symbol : symbolParam.split(",")) {
+            List<PriceData> bars = SyntheticPrices.dailyBars(symbol, years);
+            barsBySymbol.put(symbol,
+                SyntheticPrices.reviseLast(bars.subList(bars.size() - REFRESHED_BARS, bars.size()), revision));
+        }
+        return barsBySymbol.size() == 1
+            ? SyntheticPrices.twelveDataPayload(barsBySymbol.values().iterator().next())
+            : SyntheticPrices.twelveDataBatchPayload(barsBySymbol);
+    }
+}
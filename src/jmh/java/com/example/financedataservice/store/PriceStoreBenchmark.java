@@ -0,0 +1,93 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.benchmark.SyntheticPrices;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Disk round trips of one symbol through each {@link PriceStore}: the cold load behind a cache miss, the tail update
+ * after a refresh revised the latest bar, and a full rewrite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceStoreBenchmark {
+
+    @Param({"binary", "json"})
+    String store;
+
+    @Param({"1", "10"})
+    int years;
+
+    private Path directory;
+    private PriceStore priceStore;
+    private PriceSeries series;
+    private PriceSeries[] revisions;
+    private int revision;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("price-store-benchmark");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        JsonPriceStore jsonStore = new JsonPriceStore(directory, objectMapper);
+        priceStore = "json".equals(store) ? jsonStore : new BinaryPriceStore(directory, jsonStore, false);
+
+        List<PriceData> history = SyntheticPrices.dailyBars("AAPL", years);
+        series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, history);
+        revisions = new PriceSeries[] {
+            series.merge(SyntheticPrices.reviseLast(history.subList(history.size() - 1, history.size()), 3)).series(),
+            series.merge(SyntheticPrices.reviseLast(history.subList(history.size() - 1, history.size()), 5)).series()
+        };
+        priceStore.write(series);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public PriceSeries load() throws IOException {
+        return priceStore.load("AAPL");
+    }
+
+    @Benchmark
+    public void updateLatestBar() throws IOException {
+        PriceSeries revised = revisions[revision++ & 1];
+        priceStore.update(revised, revised.size() - 1);
+    }
+
+    @Benchmark
+    public void writeFullHistory() throws IOException {
+        priceStore.write(series);
+    }
+}
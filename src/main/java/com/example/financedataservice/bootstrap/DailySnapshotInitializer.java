@@ -1,31 +1,100 @@
 package com.example.financedataservice.bootstrap;
 
-import com.example.financedataservice.service.FinanceDataService;
-import java.nio.file.Path;
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.config.ExecutorMode;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.scheduler.RefreshScheduler;
+import com.example.financedataservice.service.PriceCacheWarmer;
+import java.util.Locale;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
+/**
+ * Runs the startup refresh. With scheduled refreshes enabled only providers that missed a scheduled run while the
+ * service was down are refreshed; the scheduler keeps the data current afterwards.
+ * <p>
+ * The price cache is first pre-loaded from disk by {@link PriceCacheWarmer}, before the application accepts traffic.
+ * In {@code async} startup mode ({@code finance.startup.mode}) the network refresh then moves to a background thread
+ * so the application reports ready right away and serves the persisted data meanwhile; {@code sync} keeps the
+ * refresh on the startup path. Progress is reported by {@link StartupRefreshHealthIndicator}.
+ */
 @Component
 public class DailySnapshotInitializer implements ApplicationRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DailySnapshotInitializer.class);
 
-    private final FinanceDataService financeDataService;
+    public enum StartupMode {
+        SYNC,
+        ASYNC
+    }
+
+    private final RefreshScheduler refreshScheduler;
+    private final PriceCacheWarmer cacheWarmer;
+    private final StartupRefreshHealthIndicator progress;
+    private final StartupMode startupMode;
 
-    public DailySnapshotInitializer(FinanceDataService financeDataService) {
-        this.financeDataService = financeDataService;
+    public DailySnapshotInitializer(RefreshScheduler refreshScheduler,
+                                    PriceCacheWarmer cacheWarmer,
+                                    StartupRefreshHealthIndicator progress,
+                                    @Value("${finance.startup.mode:async}") String startupMode) {
+        this.refreshScheduler = refreshScheduler;
+        this.cacheWarmer = cacheWarmer;
+        this.progress = progress;
+        this.startupMode = parseMode(startupMode);
     }
 
     @Override
     public void run(ApplicationArguments args) {
+        if (cacheWarmer.isEnabled()) {
+            try {
+                progress.warmedUp(cacheWarmer.warm());
+            } catch (Exception ex) {
+                log.warn("Failed to pre-load the price cache; symbols load on first request", ex);
+            }
+        }
+        if (startupMode == StartupMode.SYNC) {
+            refresh();
+            return;
+        }
+        Thread refreshThread = ExecutorMode.daemonThreads("startup-refresh").newThread(this::refresh);
+        refreshThread.start();
+        log.info("Startup refresh continues in the background; serving persisted data meanwhile");
+    }
+
+    void refresh() {
         try {
-            Path datasetPath = financeDataService.refreshDailyData();
-            log.info("Price data cache initialized. Persisted data stored under {}", datasetPath);
+            Set<DataProvider> due = refreshScheduler.providersDueAtStartup();
+            if (due.isEmpty()) {
+                log.info("Persisted price data is up to date with the refresh schedule; skipping startup refresh");
+                progress.skipped();
+                return;
+            }
+            progress.started(due);
+            RefreshResult result = refreshScheduler.refreshNow(due);
+            progress.completed(result);
+            if (result != null) {
+                log.info("Price data cache initialized. Persisted data stored under {}; {} of {} symbols failed",
+                    result.directory(), result.failed(), result.symbols().size());
+            }
         } catch (Exception ex) {
+            progress.failed(ex);
             log.error("Failed to initialize price data cache", ex);
         }
     }
+
+    private static StartupMode parseMode(String value) {
+        if (value == null || value.isBlank()) {
+            return StartupMode.ASYNC;
+        }
+        try {
+            return StartupMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported startup mode: " + value, e);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package com.example.financedataservice.bootstrap;
+
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.model.CacheWarmupReport;
+import com.example.financedataservice.model.RefreshResult;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the progress of the startup refresh under {@code /actuator/health} as {@code startupRefresh}. The indicator
+ * stays {@code UP} while the refresh runs or after it fails, because cached data is served either way; the state and
+ * error are in the details. A completed refresh also lists how many symbols were refreshed and which ones failed.
+ */
+@Component
+public class StartupRefreshHealthIndicator implements HealthIndicator {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        SKIPPED,
+        FAILED
+    }
+
+    private final Clock clock;
+    private volatile State state = State.PENDING;
+    private volatile Set<DataProvider> providers = Set.of();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile RefreshResult result;
+    private volatile CacheWarmupReport warmup;
+
+    @Autowired
+    public StartupRefreshHealthIndicator() {
+        this(Clock.systemUTC());
+    }
+
+    StartupRefreshHealthIndicator(Clock clock) {
+        this.clock = clock;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    void warmedUp(CacheWarmupReport report) {
+        this.warmup = report;
+    }
+
+    void started(Set<DataProvider> refreshedProviders) {
+        this.providers = Set.copyOf(refreshedProviders);
+        this.startedAt = clock.instant();
+        this.state = State.RUNNING;
+    }
+
+    void completed(RefreshResult refreshResult) {
+        this.result = refreshResult;
+        this.finishedAt = clock.instant();
+        this.state = State.COMPLETED;
+    }
+
+    void skipped() {
+        this.finishedAt = clock.instant();
+        this.state = State.SKIPPED;
+    }
+
+    void failed(Exception exception) {
+        this.finishedAt = clock.instant();
+        this.error = exception.getMessage();
+        this.state = State.FAILED;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("state", state);
+        if (!providers.isEmpty()) {
+            details.put("providers", providers.stream().map(DataProvider::getId).sorted().collect(Collectors.toList()));
+        }
+        if (startedAt != null) {
+            details.put("startedAt", startedAt.toString());
+        }
+        if (finishedAt != null) {
+            details.put("finishedAt", finishedAt.toString());
+        }
+        if (error != null) {
+            details.put("error", error);
+        }
+        if (result != null) {
+            details.put("refreshedSymbols", result.succeeded());
+            details.put("failedSymbols", result.failures().stream().map(RefreshResult.SymbolRefresh::symbol).toList());
+        }
+        if (warmup != null) {
+            details.put("warmup", warmup);
+        }
+        return Health.up().withDetails(details).build();
+    }
+}
@@ -2,23 +2,38 @@ package com.example.financedataservice.client;
 
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.financedataservice.config.ApiKeyProvider;
+import com.example.financedataservice.config.ProviderHttpSettings;
+import com.example.financedataservice.config.ProviderHttpTransport;
+import com.example.financedataservice.config.Spans;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -28,75 +43,137 @@ public class AlphaVantageClient {
 
     private static final Logger log = LoggerFactory.getLogger(AlphaVantageClient.class);
 
+    /**
+     * {@code outputsize=compact} returns the latest 100 trading days; a window of up to 100 calendar days always fits.
+     */
+    static final int COMPACT_WINDOW_DAYS = 100;
+    private static final String TIME_SERIES_FIELD = "Time Series (Daily)";
+    private static final String GOLD_SYMBOL = "XAUUSD";
+    private static final List<String> RATE_LIMIT_FIELDS = List.of("Note", "Information");
+
     private final RestTemplate restTemplate;
     private final String apiKey;
     private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final ProviderMetrics metrics;
+    private final Tracer tracer;
+    private final ProviderGuard guard;
 
     @Autowired
     public AlphaVantageClient(RestTemplateBuilder restTemplateBuilder,
                               ObjectMapper objectMapper,
                               @Value("${alpha-vantage.base-url}") String baseUrl,
-                              ApiKeyProvider apiKeyProvider) {
-        this(restTemplateBuilder.rootUri(baseUrl).build(), objectMapper, apiKeyProvider.getAlphaVantageApiKey());
+                              ApiKeyProvider apiKeyProvider,
+                              ProviderHttpTransport httpTransport,
+                              @Value("${alpha-vantage.connect-timeout-ms:5000}") long connectTimeoutMs,
+                              @Value("${alpha-vantage.read-timeout-ms:20000}") long readTimeoutMs,
+                              @Value("${alpha-vantage.total-timeout-ms:60000}") long totalTimeoutMs,
+                              MeterRegistry meterRegistry,
+                              ObjectProvider<Tracer> tracer,
+                              ProviderResilience resilience) {
+        this(httpTransport.configure(restTemplateBuilder,
+                ProviderHttpSettings.ofMillis(connectTimeoutMs, readTimeoutMs, totalTimeoutMs))
+                .rootUri(baseUrl)
+                .build(),
+            objectMapper, apiKeyProvider.getAlphaVantageApiKey(), Clock.systemUTC(), meterRegistry,
+            tracer.getIfAvailable(() -> Tracer.NOOP), resilience.guard(DataProvider.ALPHA_VANTAGE));
     }
 
     AlphaVantageClient(RestTemplate restTemplate, ObjectMapper objectMapper, String apiKey) {
+        this(restTemplate, objectMapper, apiKey, Clock.systemUTC());
+    }
+
+    AlphaVantageClient(RestTemplate restTemplate, ObjectMapper objectMapper, String apiKey, Clock clock) {
+        this(restTemplate, objectMapper, apiKey, clock, new SimpleMeterRegistry(), Tracer.NOOP,
+            ProviderGuard.unlimited(DataProvider.ALPHA_VANTAGE, clock));
+    }
+
+    AlphaVantageClient(RestTemplate restTemplate, ObjectMapper objectMapper, String apiKey, Clock clock,
+                       MeterRegistry meterRegistry, Tracer tracer, ProviderGuard guard) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.apiKey = apiKey;
+        this.clock = clock;
+        this.metrics = new ProviderMetrics(meterRegistry, DataProvider.ALPHA_VANTAGE);
+        this.tracer = tracer;
+        this.guard = guard;
     }
 
     public List<PriceData> fetchGoldPriceHistory(int days) {
+        return fetchGoldPriceHistory(days, null);
+    }
+
+    /**
+     * Fetches at most the latest {@code days} entries, dropping anything before {@code since} when it is set. The
+     * smaller {@code compact} output is requested whenever the needed window fits into it.
+     */
+    public List<PriceData> fetchGoldPriceHistory(int days, LocalDate since) {
         if (days <= 0) {
             throw new IllegalArgumentException("Days parameter must be greater than zero");
         }
 
         String uri = UriComponentsBuilder.fromPath("/query")
             .queryParam("function", "TIME_SERIES_DAILY")
-            .queryParam("symbol", "XAUUSD")
-            .queryParam("outputsize", "full")
+            .queryParam("symbol", GOLD_SYMBOL)
+            .queryParam("outputsize", resolveOutputSize(days, since))
             .queryParam("datatype", "json")
             .queryParam("apikey", apiKey)
             .build(true)
             .toUriString();
 
-        ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-            throw new FinanceDataClientException("Failed to fetch gold price from AlphaVantage");
-        }
-
-        try {
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode series = root.path("Time Series (Daily)");
-            if (series.isMissingNode()) {
-                log.error("AlphaVantage response missing time series data. Payload: {}", root.toPrettyString());
-                throw new FinanceDataClientException("AlphaVantage response missing time series data");
+        List<PriceData> prices = Spans.trace(tracer, "alpha-vantage.fetch", span -> {
+            span.tag("symbol", GOLD_SYMBOL);
+            Timer.Sample sample = metrics.start();
+            String status = ProviderMetrics.ERROR;
+            int[] retries = {0};
+            try {
+                List<PriceData> fetched = guard.execute(GOLD_SYMBOL,
+                    () -> restTemplate.execute(uri, HttpMethod.GET, null, response -> {
+                        if (!response.getStatusCode().is2xxSuccessful()) {
+                            throw new FinanceDataClientException("Failed to fetch gold price from AlphaVantage");
+                        }
+                        try {
+                            return Spans.trace(tracer, "alpha-vantage.parse",
+                                parseSpan -> readTimeSeries(response.getBody(), days, since));
+                        } catch (JsonProcessingException e) {
+                            log.error("Failed to parse AlphaVantage response", e);
+                            throw new FinanceDataClientException("Failed to parse AlphaVantage response", e);
+                        }
+                    }),
+                    (retry, failure, delay) -> {
+                        retries[0] = retry;
+                        span.event(failure instanceof RateLimitedException ? "rate-limited" : "retry");
+                        log.warn("AlphaVantage request failed: {}. Retrying in {} ms (retry {})",
+                            failure.getMessage(), delay.toMillis(), retry);
+                    });
+                status = ProviderMetrics.OK;
+                return fetched;
+            } catch (RateLimitedException rateLimited) {
+                span.event("rate-limited");
+                status = ProviderMetrics.RATE_LIMITED;
+                throw rateLimited;
+            } catch (ProviderUnavailableException unavailable) {
+                status = ProviderMetrics.CIRCUIT_OPEN;
+                throw unavailable;
+            } finally {
+                metrics.record(sample, GOLD_SYMBOL, status, retries[0]);
+                span.tag("status", status).tag("retries", retries[0]);
             }
+        });
 
-            Iterator<Map.Entry<String, JsonNode>> iterator = series.fields();
-            List<PriceData> prices = new ArrayList<>();
-            while (iterator.hasNext()) {
-                Map.Entry<String, JsonNode> entry = iterator.next();
-                LocalDate date = LocalDate.parse(entry.getKey());
-                JsonNode values = entry.getValue();
-
-                PriceData priceData = toPriceData(date, values);
-                prices.add(priceData);
+        if (prices == null || prices.isEmpty()) {
+            if (since != null) {
+                log.debug("AlphaVantage returned no gold prices on or after {}", since);
+                return List.of();
             }
-
-            if (prices.isEmpty()) {
-                throw new FinanceDataClientException("AlphaVantage response did not contain date entries");
-            }
-
-            return prices.stream()
-                .sorted(Comparator.comparing(PriceData::getDate).reversed())
-                .limit(days)
-                .sorted(Comparator.comparing(PriceData::getDate))
-                .toList();
-        } catch (IOException e) {
-            log.error("Failed to parse AlphaVantage response", e);
-            throw new FinanceDataClientException("Failed to parse AlphaVantage response", e);
+            throw new FinanceDataClientException("AlphaVantage response did not contain date entries");
         }
+
+        return prices.stream()
+            .sorted(Comparator.comparing(PriceData::getDate).reversed())
+            .limit(days)
+            .sorted(Comparator.comparing(PriceData::getDate))
+            .toList();
     }
 
     public PriceData fetchLatestGoldPrice() {
@@ -105,20 +182,117 @@ public class AlphaVantageClient {
             .orElseThrow(() -> new FinanceDataClientException("AlphaVantage response did not contain date entries"));
     }
 
-    private BigDecimal readDecimal(JsonNode node, String fieldName) {
-        JsonNode valueNode = node.get(fieldName);
-        if (valueNode == null || valueNode.isNull()) {
-            throw new FinanceDataClientException("AlphaVantage response missing field: " + fieldName);
+    private String resolveOutputSize(int days, LocalDate since) {
+        long neededDays = days;
+        if (since != null) {
+            neededDays = Math.min(neededDays, ChronoUnit.DAYS.between(since, LocalDate.now(clock)) + 1);
+        }
+        return neededDays <= COMPACT_WINDOW_DAYS ? "compact" : "full";
+    }
+
+    /**
+     * Streams the response body token by token instead of building a tree of the whole payload. Top-level scalar
+     * fields (such as the {@code Note} or {@code Error Message} AlphaVantage sends instead of data) are kept for the
+     * error log; every other top-level value except the time series is skipped. AlphaVantage reports its rate limit with
+     * a {@code Note} or {@code Information} message in a 200 response, which is thrown as {@link RateLimitedException}.
+     */
+    private List<PriceData> readTimeSeries(InputStream body, int days, LocalDate since) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new FinanceDataClientException("AlphaVantage response is not a JSON object");
+            }
+            Map<String, String> messages = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (TIME_SERIES_FIELD.equals(field) && value == JsonToken.START_OBJECT) {
+                    return readEntries(parser, days, since);
+                }
+                if (value.isScalarValue()) {
+                    messages.put(field, parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            String rateLimitMessage = rateLimitMessage(messages);
+            if (rateLimitMessage != null) {
+                throw new RateLimitedException("AlphaVantage rate limit reached: " + rateLimitMessage, null);
+            }
+            log.error("AlphaVantage response missing time series data. Payload: {}", messages);
+            throw new FinanceDataClientException("AlphaVantage response missing time series data");
+        }
+    }
+
+    private static String rateLimitMessage(Map<String, String> messages) {
+        for (String field : RATE_LIMIT_FIELDS) {
+            String message = messages.get(field);
+            if (message != null) {
+                String normalized = message.toLowerCase(Locale.ROOT);
+                if (normalized.contains("rate limit") || normalized.contains("call frequency")) {
+                    return message;
+                }
+            }
         }
-        return new BigDecimal(valueNode.asText());
+        return null;
     }
 
-    private PriceData toPriceData(LocalDate date, JsonNode values) {
-        BigDecimal open = readDecimal(values, "1. open");
-        BigDecimal high = readDecimal(values, "2. high");
-        BigDecimal low = readDecimal(values, "3. low");
-        BigDecimal close = readDecimal(values, "4. close");
+    /**
+     * Reads the date-keyed entries of the time series. AlphaVantage lists them newest first; once the first two dates
+     * confirm that order, reading stops as soon as {@code days} entries are collected or a date before {@code since}
+     * appears, leaving the rest of the payload unread. Any other order is read in full and trimmed by the caller.
+     */
+    private List<PriceData> readEntries(JsonParser parser, int days, LocalDate since) throws IOException {
+        List<PriceData> prices = new ArrayList<>(Math.min(days, COMPACT_WINDOW_DAYS));
+        LocalDate previous = null;
+        Boolean newestFirst = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            LocalDate date = LocalDate.parse(parser.currentName());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            if (previous != null) {
+                newestFirst = date.isBefore(previous) && !Boolean.FALSE.equals(newestFirst);
+            }
+            previous = date;
 
-        return new PriceData("XAUUSD", date, open, high, low, close, null, PriceDataSource.GOLD);
+            boolean beforeSince = since != null && date.isBefore(since);
+            if (Boolean.TRUE.equals(newestFirst) && (beforeSince || prices.size() >= days)) {
+                break;
+            }
+            if (beforeSince) {
+                parser.skipChildren();
+                continue;
+            }
+            prices.add(readEntry(parser, date));
+        }
+        return prices;
+    }
+
+    private PriceData readEntry(JsonParser parser, LocalDate date) throws IOException {
+        Map<String, String> values = new HashMap<>(8);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken().isScalarValue()) {
+                values.put(field, parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new PriceData(GOLD_SYMBOL, date,
+            readDecimal(values, "1. open"),
+            readDecimal(values, "2. high"),
+            readDecimal(values, "3. low"),
+            readDecimal(values, "4. close"),
+            null,
+            PriceDataSource.GOLD);
+    }
+
+    private BigDecimal readDecimal(Map<String, String> values, String fieldName) {
+        String value = values.get(fieldName);
+        if (value == null) {
+            throw new FinanceDataClientException("AlphaVantage response missing field: " + fieldName);
+        }
+        return new BigDecimal(value);
     }
 }
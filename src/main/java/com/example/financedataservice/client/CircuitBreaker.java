@@ -0,0 +1,96 @@
+package com.example.financedataservice.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for one provider. After {@code failureThreshold} failed calls in a row the
+ * circuit opens and calls fail fast with {@link ProviderUnavailableException} for {@code openDuration}. The first call
+ * after that is let through as a probe (half-open): its success closes the circuit, its failure opens it again. A
+ * threshold of zero or less disables the breaker.
+ * <p>
+ * Only failures that say something about the provider as a whole (connection errors, timeouts, 5xx responses) should be
+ * reported through {@link #onFailure()}; a rate limited call is {@link #onNeutral() neutral}.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration == null || openDuration.isNegative() ? 0 : openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public static CircuitBreaker disabled(String name) {
+        return new CircuitBreaker(name, 0, Duration.ZERO);
+    }
+
+    /**
+     * Lets a call through or throws {@link ProviderUnavailableException} while the circuit is open or a half-open probe
+     * is still running.
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long remainingNanos = openedAtNanos + openNanos - nanoClock.getAsLong();
+            if (remainingNanos > 0) {
+                throw new ProviderUnavailableException(name + " circuit is open after " + consecutiveFailures
+                    + " consecutive failures; next attempt in " + Duration.ofNanos(remainingNanos).toMillis() + " ms");
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw new ProviderUnavailableException(name + " circuit is half-open and a probe request is running");
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * The call ended without telling whether the provider is healthy; a half-open circuit lets the next probe through.
+     */
+    public synchronized void onNeutral() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.financedataservice.client;
+
+public enum DataProvider {
+    ALPHA_VANTAGE("alpha-vantage"),
+    TWELVE_DATA("twelve-data");
+
+    private final String id;
+
+    DataProvider(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
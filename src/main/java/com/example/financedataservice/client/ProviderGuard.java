@@ -0,0 +1,168 @@
+package com.example.financedataservice.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Resilience policy for the calls to one provider. Every attempt first passes the provider's {@link CircuitBreaker}
+ * and then takes a permit from its {@link TokenBucketRateLimiter}, so retries are paced like first attempts.
+ * <ul>
+ *     <li>A 429 response or {@link RateLimitedException} pauses the rate limiter for the {@code Retry-After} delay (at
+ *     least the backoff delay) and is retried once the pause is over.</li>
+ *     <li>Connection failures, timeouts and 5xx responses count towards the circuit breaker and are retried after a
+ *     jittered exponential backoff.</li>
+ *     <li>Any other failure, e.g. a 4xx response or an error reported for a single symbol, shows that the provider is
+ *     reachable and is thrown right away.</li>
+ * </ul>
+ */
+public class ProviderGuard {
+
+    private final DataProvider provider;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBackoff backoff;
+    private final int maxAttempts;
+    private final Clock clock;
+
+    ProviderGuard(DataProvider provider,
+                  TokenBucketRateLimiter rateLimiter,
+                  CircuitBreaker circuitBreaker,
+                  RetryBackoff backoff,
+                  int maxAttempts,
+                  Clock clock) {
+        this.provider = provider;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.backoff = backoff;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Guard without pacing or circuit breaker that retries up to three times after short backoffs.
+     */
+    static ProviderGuard unlimited(DataProvider provider, Clock clock) {
+        return new ProviderGuard(provider, TokenBucketRateLimiter.unlimited(), CircuitBreaker.disabled(provider.getId()),
+            new RetryBackoff(Duration.ofMillis(100), Duration.ofSeconds(1)), 3, clock);
+    }
+
+    public TokenBucketRateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Runs {@code call} until it succeeds, fails permanently or {@code maxAttempts} attempts are used up; the failure of
+     * the last attempt is thrown. {@code label} names the requested symbols in error messages.
+     */
+    public <T> T execute(String label, Supplier<T> call, RetryListener listener) {
+        return execute(label, 1, call, listener);
+    }
+
+    /**
+     * Like {@link #execute(String, Supplier, RetryListener)} for a call the provider bills as {@code permits} requests;
+     * every attempt takes that many rate limiter permits.
+     */
+    public <T> T execute(String label, int permits, Supplier<T> call, RetryListener listener) {
+        for (int attempt = 1; ; attempt++) {
+            circuitBreaker.acquirePermission();
+            try {
+                rateLimiter.acquire(permits);
+            } catch (RuntimeException interrupted) {
+                // the call never went out; a half-open circuit must let the next probe through
+                circuitBreaker.onNeutral();
+                throw interrupted;
+            }
+            RuntimeException failure;
+            Duration delay;
+            boolean rateLimited;
+            try {
+                T result = call.get();
+                circuitBreaker.onSuccess();
+                rateLimiter.recordSuccess();
+                return result;
+            } catch (HttpClientErrorException.TooManyRequests | RateLimitedException rejected) {
+                circuitBreaker.onNeutral();
+                failure = rejected instanceof RateLimitedException
+                    ? rejected
+                    : new RateLimitedException(provider.getId() + " rate limit exceeded for " + label,
+                        retryAfter(((HttpClientErrorException) rejected).getResponseHeaders()), rejected);
+                Duration retryAfter = ((RateLimitedException) failure).getRetryAfter();
+                delay = backoff.delay(attempt);
+                if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+                    delay = retryAfter;
+                }
+                rateLimiter.recordRateLimited(delay);
+                rateLimited = true;
+            } catch (ResourceAccessException | HttpServerErrorException transientFailure) {
+                circuitBreaker.onFailure();
+                failure = transientFailure;
+                delay = backoff.delay(attempt);
+                rateLimited = false;
+            } catch (RuntimeException permanentFailure) {
+                circuitBreaker.onSuccess();
+                throw permanentFailure;
+            }
+            if (attempt >= maxAttempts) {
+                throw failure;
+            }
+            listener.onRetry(attempt, failure, delay);
+            if (!rateLimited) {
+                sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given in seconds or as an HTTP date; {@code null} when it is missing or
+     * unreadable.
+     */
+    Duration retryAfter(HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(retryAfter.trim()), 0));
+        } catch (NumberFormatException numberFormatException) {
+            try {
+                ZonedDateTime retryDate = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration duration = Duration.between(Instant.now(clock), retryDate.toInstant());
+                return duration.isNegative() ? Duration.ZERO : duration;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new FinanceDataClientException("Interrupted while waiting to retry " + provider.getId() + " request",
+                interruptedException);
+        }
+    }
+
+    /**
+     * Notified before each retry with the failure of the previous attempt and the delay before the next one.
+     */
+    @FunctionalInterface
+    public interface RetryListener {
+
+        void onRetry(int retry, RuntimeException failure, Duration delay);
+    }
+}
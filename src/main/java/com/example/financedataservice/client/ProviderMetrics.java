@@ -0,0 +1,48 @@
+package com.example.financedataservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+
+/**
+ * Times provider calls as {@code finance.provider.request}, one sample per call with its retries included. Samples are
+ * tagged with the provider, the symbol, the outcome ({@code ok}, {@code rate_limited}, {@code error}, or
+ * {@code circuit_open} when the circuit breaker refused the call) and the number of retries. Multi-symbol requests are
+ * tagged with the symbol {@code batch}, so the tag only takes the configured symbols as values.
+ */
+final class ProviderMetrics {
+
+    static final String REQUEST_TIMER = "finance.provider.request";
+    static final String BATCH_SYMBOL = "batch";
+
+    static final String OK = "ok";
+    static final String RATE_LIMITED = "rate_limited";
+    static final String ERROR = "error";
+    static final String CIRCUIT_OPEN = "circuit_open";
+
+    private final MeterRegistry registry;
+    private final DataProvider provider;
+
+    ProviderMetrics(MeterRegistry registry, DataProvider provider) {
+        this.registry = registry;
+        this.provider = provider;
+    }
+
+    Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    void record(Timer.Sample sample, String symbol, String status, int retries) {
+        sample.stop(Timer.builder(REQUEST_TIMER)
+            .description("Provider requests, retries included")
+            .tag("provider", provider.getId())
+            .tag("symbol", symbolTag(symbol))
+            .tag("status", status)
+            .tag("retries", Integer.toString(retries))
+            .register(registry));
+    }
+
+    private static String symbolTag(String symbol) {
+        return symbol.indexOf(',') >= 0 ? BATCH_SYMBOL : symbol.toUpperCase(Locale.ROOT);
+    }
+}
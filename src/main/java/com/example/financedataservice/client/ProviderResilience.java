@@ -0,0 +1,79 @@
+package com.example.financedataservice.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the {@link ProviderGuard} of each provider from its request pacing, retry and circuit breaker settings, and
+ * publishes the adaptive state as gauges: {@code finance.provider.circuit.state} (0 closed, 1 half-open, 2 open) and
+ * {@code finance.provider.request.interval}, the current spacing between requests.
+ */
+@Component
+public class ProviderResilience {
+
+    static final String CIRCUIT_STATE_GAUGE = "finance.provider.circuit.state";
+    static final String REQUEST_INTERVAL_GAUGE = "finance.provider.request.interval";
+
+    private final Map<DataProvider, ProviderGuard> guards = new EnumMap<>(DataProvider.class);
+
+    public ProviderResilience(@Value("${twelve-data.request-delay-ms:500}") long twelveDataRequestDelayMs,
+                              @Value("${twelve-data.rate-limit-burst:1}") int twelveDataBurst,
+                              @Value("${twelve-data.retry.max-attempts:3}") int twelveDataMaxAttempts,
+                              @Value("${twelve-data.retry.initial-backoff-ms:1000}") long twelveDataInitialBackoffMs,
+                              @Value("${twelve-data.retry.max-backoff-ms:30000}") long twelveDataMaxBackoffMs,
+                              @Value("${twelve-data.circuit-breaker.failure-threshold:5}") int twelveDataFailureThreshold,
+                              @Value("${twelve-data.circuit-breaker.open-ms:60000}") long twelveDataOpenMs,
+                              @Value("${alpha-vantage.request-delay-ms:12000}") long alphaVantageRequestDelayMs,
+                              @Value("${alpha-vantage.rate-limit-burst:1}") int alphaVantageBurst,
+                              @Value("${alpha-vantage.retry.max-attempts:3}") int alphaVantageMaxAttempts,
+                              @Value("${alpha-vantage.retry.initial-backoff-ms:12000}") long alphaVantageInitialBackoffMs,
+                              @Value("${alpha-vantage.retry.max-backoff-ms:60000}") long alphaVantageMaxBackoffMs,
+                              @Value("${alpha-vantage.circuit-breaker.failure-threshold:3}") int alphaVantageFailureThreshold,
+                              @Value("${alpha-vantage.circuit-breaker.open-ms:300000}") long alphaVantageOpenMs,
+                              MeterRegistry meterRegistry) {
+        register(DataProvider.TWELVE_DATA, twelveDataRequestDelayMs, twelveDataBurst, twelveDataMaxAttempts,
+            twelveDataInitialBackoffMs, twelveDataMaxBackoffMs, twelveDataFailureThreshold, twelveDataOpenMs,
+            meterRegistry);
+        register(DataProvider.ALPHA_VANTAGE, alphaVantageRequestDelayMs, alphaVantageBurst, alphaVantageMaxAttempts,
+            alphaVantageInitialBackoffMs, alphaVantageMaxBackoffMs, alphaVantageFailureThreshold, alphaVantageOpenMs,
+            meterRegistry);
+    }
+
+    public ProviderGuard guard(DataProvider provider) {
+        return guards.get(provider);
+    }
+
+    private void register(DataProvider provider,
+                          long requestDelayMs,
+                          int burst,
+                          int maxAttempts,
+                          long initialBackoffMs,
+                          long maxBackoffMs,
+                          int failureThreshold,
+                          long openMs,
+                          MeterRegistry meterRegistry) {
+        ProviderGuard guard = new ProviderGuard(provider,
+            new TokenBucketRateLimiter(Math.max(burst, 1), Duration.ofMillis(Math.max(requestDelayMs, 0))),
+            new CircuitBreaker(provider.getId(), failureThreshold, Duration.ofMillis(Math.max(openMs, 0))),
+            new RetryBackoff(Duration.ofMillis(Math.max(initialBackoffMs, 0)), Duration.ofMillis(Math.max(maxBackoffMs, 0))),
+            maxAttempts,
+            Clock.systemUTC());
+        guards.put(provider, guard);
+        Gauge.builder(CIRCUIT_STATE_GAUGE, guard.circuitBreaker(), breaker -> breaker.state().ordinal())
+            .description("Provider circuit breaker state: 0 closed, 1 half-open, 2 open")
+            .tag("provider", provider.getId())
+            .register(meterRegistry);
+        Gauge.builder(REQUEST_INTERVAL_GAUGE, guard.rateLimiter(),
+                limiter -> limiter.currentInterval().toNanos() / 1e9)
+            .description("Current spacing between provider requests, adapted to rate limits and quotas")
+            .baseUnit("seconds")
+            .tag("provider", provider.getId())
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.financedataservice.client;
+
+/**
+ * Thrown without calling the provider while its circuit breaker is open.
+ */
+public class ProviderUnavailableException extends FinanceDataClientException {
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+}
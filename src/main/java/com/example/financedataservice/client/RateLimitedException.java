@@ -0,0 +1,26 @@
+package com.example.financedataservice.client;
+
+import java.time.Duration;
+
+/**
+ * The provider refused a request because of its rate limit or quota. {@code retryAfter} is the delay the provider
+ * asked for, {@code null} when it did not say.
+ */
+public class RateLimitedException extends FinanceDataClientException {
+
+    private final transient Duration retryAfter;
+
+    public RateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public RateLimitedException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.financedataservice.client;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Exponential backoff with "equal jitter": the n-th retry waits between half and all of
+ * {@code min(maxDelay, initialDelay * 2^(n-1))}, so retries of concurrent callers spread out while still backing off.
+ */
+final class RetryBackoff {
+
+    private final long initialNanos;
+    private final long maxNanos;
+    private final DoubleSupplier random;
+
+    RetryBackoff(Duration initialDelay, Duration maxDelay) {
+        this(initialDelay, maxDelay, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryBackoff(Duration initialDelay, Duration maxDelay, DoubleSupplier random) {
+        this.initialNanos = initialDelay == null || initialDelay.isNegative() ? 0 : initialDelay.toNanos();
+        this.maxNanos = maxDelay == null ? initialNanos : Math.max(initialNanos, maxDelay.toNanos());
+        this.random = random;
+    }
+
+    Duration delay(int retry) {
+        long ceiling = initialNanos;
+        for (int i = 1; i < retry && ceiling < maxNanos; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxNanos);
+        return Duration.ofNanos(ceiling / 2 + (long) (random.getAsDouble() * (ceiling - ceiling / 2)));
+    }
+}
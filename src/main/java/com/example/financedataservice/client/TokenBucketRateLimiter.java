@@ -0,0 +1,167 @@
+package com.example.financedataservice.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that hands out one permit per {@code refillInterval}, allowing bursts of up to {@code capacity}
+ * permits. Callers that find the bucket empty reserve a future permit and wait for it, so concurrent callers are
+ * spaced out instead of all waking up at once.
+ * <p>
+ * The interval adapts to what the provider reports. A rate limited response pauses the bucket for the requested
+ * delay and doubles the interval (at least {@link #MIN_PENALTY_INTERVAL}, at most {@link #MAX_INTERVAL}); every
+ * successful request then shrinks that penalty by a quarter until the configured interval is reached again. Quota
+ * headers spread the remaining requests evenly over the time left until the quota resets, and an exhausted quota pauses
+ * the bucket until then.
+ */
+public class TokenBucketRateLimiter {
+
+    static final Duration MIN_PENALTY_INTERVAL = Duration.ofSeconds(1);
+    static final Duration MAX_INTERVAL = Duration.ofMinutes(1);
+
+    private final double capacity;
+    private final long baseIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long penaltyIntervalNanos;
+    private long quotaIntervalNanos;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillInterval) {
+        this(capacity, refillInterval, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillInterval, LongSupplier nanoClock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Rate limiter capacity must be greater than zero");
+        }
+        this.capacity = capacity;
+        this.baseIntervalNanos = refillInterval == null || refillInterval.isNegative() ? 0 : refillInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.availableTokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    public static TokenBucketRateLimiter unlimited() {
+        return new TokenBucketRateLimiter(1, Duration.ZERO);
+    }
+
+    public synchronized boolean isUnlimited() {
+        return intervalNanos() == 0 && lastRefillNanos <= nanoClock.getAsLong();
+    }
+
+    /**
+     * Current spacing between permits, including any penalty or quota adjustment.
+     */
+    public synchronized Duration currentInterval() {
+        return Duration.ofNanos(intervalNanos());
+    }
+
+    /**
+     * Blocks until a permit is available. A permit reserved before the bucket was paused is only used once the pause
+     * is over.
+     */
+    public void acquire() {
+        acquire(1);
+    }
+
+    /**
+     * Blocks until {@code permits} permits are available, for a request the provider bills as several calls (e.g. a
+     * batch request that costs one credit per symbol).
+     */
+    public void acquire(int permits) {
+        long waitNanos = reservePermits(permits);
+        while (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new FinanceDataClientException("Interrupted while waiting for a provider rate limit permit",
+                    interruptedException);
+            }
+            waitNanos = remainingPauseNanos();
+        }
+    }
+
+    synchronized long reservePermit() {
+        return reservePermits(1);
+    }
+
+    /**
+     * Takes {@code permits} permits, going into debt when the bucket runs empty, and returns how long the caller has to
+     * wait before using them.
+     */
+    synchronized long reservePermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Number of permits must be greater than zero");
+        }
+        long now = nanoClock.getAsLong();
+        long interval = intervalNanos();
+        if (now > lastRefillNanos) {
+            availableTokens = interval == 0
+                ? capacity
+                : Math.min(capacity, availableTokens + (double) (now - lastRefillNanos) / interval);
+            lastRefillNanos = now;
+        }
+        availableTokens -= permits;
+        long pauseNanos = lastRefillNanos - now;
+        if (availableTokens >= 0) {
+            return pauseNanos;
+        }
+        return pauseNanos + (long) Math.ceil(-availableTokens * interval);
+    }
+
+    /**
+     * The provider rejected a request as rate limited: no permit is handed out for {@code retryAfter}, the permit of the
+     * rejected request is returned, and the interval is doubled.
+     */
+    public synchronized void recordRateLimited(Duration retryAfter) {
+        pauseFor(retryAfter);
+        availableTokens = Math.min(availableTokens + 1, 1);
+        penaltyIntervalNanos = Math.min(maxIntervalNanos(),
+            Math.max(intervalNanos() * 2, MIN_PENALTY_INTERVAL.toNanos()));
+    }
+
+    public synchronized void recordSuccess() {
+        penaltyIntervalNanos = penaltyIntervalNanos * 3 / 4;
+        if (penaltyIntervalNanos <= Math.max(baseIntervalNanos, MIN_PENALTY_INTERVAL.toNanos() / 2)) {
+            penaltyIntervalNanos = 0;
+        }
+    }
+
+    /**
+     * Applies the quota the provider reported: {@code remaining} requests until it resets in {@code resetIn}.
+     */
+    public synchronized void recordQuota(long remaining, Duration resetIn) {
+        if (resetIn == null || resetIn.isNegative()) {
+            return;
+        }
+        if (remaining <= 0) {
+            pauseFor(resetIn);
+            quotaIntervalNanos = 0;
+            return;
+        }
+        quotaIntervalNanos = Math.min(maxIntervalNanos(), resetIn.toNanos() / remaining);
+    }
+
+    synchronized long remainingPauseNanos() {
+        return Math.max(0, lastRefillNanos - nanoClock.getAsLong());
+    }
+
+    private void pauseFor(Duration delay) {
+        if (delay == null || delay.isNegative() || delay.isZero()) {
+            return;
+        }
+        lastRefillNanos = Math.max(lastRefillNanos, nanoClock.getAsLong() + delay.toNanos());
+    }
+
+    private long intervalNanos() {
+        return Math.max(baseIntervalNanos, Math.max(penaltyIntervalNanos, quotaIntervalNanos));
+    }
+
+    private long maxIntervalNanos() {
+        return Math.max(baseIntervalNanos, MAX_INTERVAL.toNanos());
+    }
+}
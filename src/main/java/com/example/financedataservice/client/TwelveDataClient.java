@@ -1,30 +1,46 @@
 package com.example.financedataservice.client;
 
 import com.example.financedataservice.config.ApiKeyProvider;
+import com.example.financedataservice.config.ProviderHttpSettings;
+import com.example.financedataservice.config.ProviderHttpTransport;
+import com.example.financedataservice.config.Spans;
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -32,8 +48,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class TwelveDataClient {
 
     private static final Logger log = LoggerFactory.getLogger(TwelveDataClient.class);
-    private static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(2);
-    private static final int MAX_RETRIES = 3;
+    /**
+     * Response header carrying the API credits left in the current minute.
+     */
+    static final String CREDITS_LEFT_HEADER = "api-credits-left";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
     private final RestTemplate restTemplate;
@@ -41,15 +59,29 @@ public class TwelveDataClient {
     private final Clock clock;
     private final String apiKey;
     private final String interval;
+    private final ProviderMetrics metrics;
+    private final Tracer tracer;
+    private final ProviderGuard guard;
 
     @Autowired
     public TwelveDataClient(RestTemplateBuilder restTemplateBuilder,
                             ObjectMapper objectMapper,
                             @Value("${twelve-data.base-url}") String baseUrl,
                             ApiKeyProvider apiKeyProvider,
-                            @Value("${twelve-data.interval:1day}") String interval) {
-        this(restTemplateBuilder.rootUri(baseUrl).build(), objectMapper, Clock.systemUTC(),
-            apiKeyProvider.getTwelveDataApiKey(), interval);
+                            @Value("${twelve-data.interval:1day}") String interval,
+                            ProviderHttpTransport httpTransport,
+                            @Value("${twelve-data.connect-timeout-ms:5000}") long connectTimeoutMs,
+                            @Value("${twelve-data.read-timeout-ms:10000}") long readTimeoutMs,
+                            @Value("${twelve-data.total-timeout-ms:30000}") long totalTimeoutMs,
+                            MeterRegistry meterRegistry,
+                            ObjectProvider<Tracer> tracer,
+                            ProviderResilience resilience) {
+        this(httpTransport.configure(restTemplateBuilder,
+                ProviderHttpSettings.ofMillis(connectTimeoutMs, readTimeoutMs, totalTimeoutMs))
+                .rootUri(baseUrl)
+                .build(),
+            objectMapper, Clock.systemUTC(), apiKeyProvider.getTwelveDataApiKey(), interval, meterRegistry,
+            tracer.getIfAvailable(() -> Tracer.NOOP), resilience.guard(DataProvider.TWELVE_DATA));
     }
 
     TwelveDataClient(RestTemplate restTemplate,
@@ -57,6 +89,28 @@ public class TwelveDataClient {
                      Clock clock,
                      String apiKey,
                      String interval) {
+        this(restTemplate, objectMapper, clock, apiKey, interval, new SimpleMeterRegistry(), Tracer.NOOP);
+    }
+
+    TwelveDataClient(RestTemplate restTemplate,
+                     ObjectMapper objectMapper,
+                     Clock clock,
+                     String apiKey,
+                     String interval,
+                     MeterRegistry meterRegistry,
+                     Tracer tracer) {
+        this(restTemplate, objectMapper, clock, apiKey, interval, meterRegistry, tracer,
+            ProviderGuard.unlimited(DataProvider.TWELVE_DATA, clock));
+    }
+
+    TwelveDataClient(RestTemplate restTemplate,
+                     ObjectMapper objectMapper,
+                     Clock clock,
+                     String apiKey,
+                     String interval,
+                     MeterRegistry meterRegistry,
+                     Tracer tracer,
+                     ProviderGuard guard) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.clock = clock;
@@ -65,9 +119,21 @@ public class TwelveDataClient {
         }
         this.apiKey = apiKey;
         this.interval = (interval == null || interval.isBlank()) ? "1day" : interval;
+        this.metrics = new ProviderMetrics(meterRegistry, DataProvider.TWELVE_DATA);
+        this.tracer = tracer;
+        this.guard = guard;
     }
 
     public List<PriceData> fetchHistoricalPrices(String symbol, int days) {
+        return fetchHistoricalPrices(symbol, days, null);
+    }
+
+    /**
+     * Fetches at most the last {@code days} days, starting no earlier than {@code since} when it is set. Passing the
+     * latest locally stored date limits the request to the dates that are missing (plus that date, so a revised last
+     * bar is picked up).
+     */
+    public List<PriceData> fetchHistoricalPrices(String symbol, int days, LocalDate since) {
         if (symbol == null || symbol.isBlank()) {
             throw new IllegalArgumentException("Symbol must be provided");
         }
@@ -75,65 +141,225 @@ public class TwelveDataClient {
             throw new IllegalArgumentException("Days parameter must be greater than zero");
         }
 
+        String uri = timeSeriesUri(symbol, days, since);
+        return fetchWithRetry(symbol, 1, uri, response -> readResponse(symbol, response, this::parseResponse));
+    }
+
+    /**
+     * Fetches several symbols with one comma-separated {@code /time_series} request and returns the series per
+     * upper-cased symbol. Symbols the batch response reports an error for are left out of the result so the caller
+     * can retry them individually; a failure of the request as a whole is thrown, as {@link RateLimitedException} when
+     * Twelve Data rejected it for lack of API credits. Twelve Data bills one credit per symbol, so the request takes one
+     * rate limiter permit per symbol.
+     */
+    public Map<String, List<PriceData>> fetchHistoricalPrices(Collection<String> symbols, int days, LocalDate since) {
+        List<String> requested = symbols == null ? List.of() : symbols.stream()
+            .filter(symbol -> symbol != null && !symbol.isBlank())
+            .distinct()
+            .toList();
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol must be provided");
+        }
+        if (days <= 0) {
+            throw new IllegalArgumentException("Days parameter must be greater than zero");
+        }
+        if (requested.size() == 1) {
+            String symbol = requested.get(0);
+            return Map.of(symbol.toUpperCase(), fetchHistoricalPrices(symbol, days, since));
+        }
+
+        String label = String.join(",", requested);
+        String uri = timeSeriesUri(label, days, since);
+        return fetchWithRetry(label, requested.size(), uri,
+            response -> readResponse(label, response, (ignored, body) -> parseBatchResponse(requested, body)));
+    }
+
+    private String timeSeriesUri(String symbols, int days, LocalDate since) {
         LocalDate endDate = LocalDate.now(clock);
         LocalDate startDate = endDate.minusDays(days);
+        if (since != null && since.isAfter(startDate)) {
+            startDate = since.isAfter(endDate) ? endDate : since;
+        }
 
-        String uri = UriComponentsBuilder.fromPath("/time_series")
-            .queryParam("symbol", symbol)
+        return UriComponentsBuilder.fromPath("/time_series")
+            .queryParam("symbol", symbols)
             .queryParam("interval", interval)
             .queryParam("start_date", DATE_FORMATTER.format(startDate))
             .queryParam("end_date", DATE_FORMATTER.format(endDate))
             .queryParam("apikey", apiKey)
             .build(true)
             .toUriString();
+    }
 
+    private <T> T readResponse(String symbol, ClientHttpResponse response, ResponseParser<T> parser) throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new FinanceDataClientException("Failed to fetch stock prices for " + symbol);
+        }
+        recordQuota(response.getHeaders());
         try {
-            String body = fetchWithRetry(symbol, uri);
-            return parseResponse(symbol, body);
-        } catch (IOException e) {
+            return Spans.trace(tracer, "twelve-data.parse", span -> parser.parse(symbol, response.getBody()));
+        } catch (JsonProcessingException e) {
             log.error("Failed to parse Twelve Data response for symbol {}", symbol, e);
             throw new FinanceDataClientException("Failed to parse Twelve Data response", e);
         }
     }
 
-    private List<PriceData> parseResponse(String symbol, String body) throws IOException {
-        JsonNode root = objectMapper.readTree(body);
-        String status = root.path("status").asText();
-        if (!"ok".equalsIgnoreCase(status)) {
-            String message = root.path("message").asText("Unknown Twelve Data error");
-            throw new FinanceDataClientException("Twelve Data reported error: " + message);
+    private List<PriceData> parseResponse(String symbol, InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new FinanceDataClientException("Twelve Data response is not a JSON object");
+            }
+            return readSeries(symbol, parser).values();
+        }
+    }
+
+    /**
+     * Parses the batch shape {@code {"AAPL": {...series...}, "MSFT": {...series...}}}, where each symbol object has
+     * the single-symbol layout with its own {@code status}.
+     */
+    private Map<String, List<PriceData>> parseBatchResponse(List<String> symbols, InputStream body) throws IOException {
+        Map<String, String> requested = new HashMap<>();
+        symbols.forEach(symbol -> requested.put(symbol.toUpperCase(), symbol));
+
+        Map<String, List<PriceData>> series = new LinkedHashMap<>();
+        String status = null;
+        String message = null;
+        Integer code = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new FinanceDataClientException("Twelve Data response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                String symbol = requested.get(field.toUpperCase());
+                if (symbol != null && value == JsonToken.START_OBJECT) {
+                    SeriesResponse response = readSeriesResponse(symbol, parser);
+                    if (response.isOk()) {
+                        series.put(symbol.toUpperCase(), response.values());
+                    } else {
+                        log.warn("Twelve Data batch response reported an error for {}: {}", symbol,
+                            response.errorMessage());
+                    }
+                } else if (value.isStructStart()) {
+                    parser.skipChildren();
+                } else if ("status".equals(field)) {
+                    status = parser.getValueAsString();
+                } else if ("message".equals(field)) {
+                    message = parser.getValueAsString();
+                } else if ("code".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    code = parser.getIntValue();
+                }
+            }
+        }
+
+        if (series.isEmpty() && "error".equalsIgnoreCase(status)) {
+            throw reportedError(code, message == null ? "Unknown Twelve Data error" : message);
+        }
+        return series;
+    }
+
+    /**
+     * Twelve Data reports exhausted API credits with a 200 response whose body has {@code "code": 429}; those become a
+     * {@link RateLimitedException} that waits for the credits to be reset at the start of the next minute.
+     */
+    private FinanceDataClientException reportedError(Integer code, String message) {
+        String error = "Twelve Data reported error: " + message;
+        String lowerCase = message.toLowerCase();
+        if ((code != null && code == 429) || lowerCase.contains("api credits") || lowerCase.contains("rate limit")) {
+            return new RateLimitedException(error, untilCreditsReset());
         }
+        return new FinanceDataClientException(error);
+    }
 
-        JsonNode valuesNode = root.path("values");
-        if (!valuesNode.isArray()) {
+    private SeriesResponse readSeries(String symbol, JsonParser parser) throws IOException {
+        SeriesResponse response = readSeriesResponse(symbol, parser);
+        if (!"ok".equalsIgnoreCase(response.status())) {
+            throw reportedError(response.code(), response.errorMessage());
+        }
+        if (response.values() == null) {
             throw new FinanceDataClientException("Twelve Data response missing values array");
         }
+        return response;
+    }
+
+    /**
+     * Streams one series object token by token; the parser must be positioned on its opening brace. Twelve Data sends
+     * {@code status} after {@code values}, so entries are collected as they arrive and the status is returned for the
+     * caller to check once the object has been read.
+     */
+    private SeriesResponse readSeriesResponse(String symbol, JsonParser parser) throws IOException {
+        String status = null;
+        String message = null;
+        Integer code = null;
+        List<PriceData> dataPoints = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("values".equals(field) && value == JsonToken.START_ARRAY) {
+                dataPoints = readValues(symbol, parser);
+            } else if (value.isStructStart()) {
+                parser.skipChildren();
+            } else if ("status".equals(field)) {
+                status = parser.getValueAsString();
+            } else if ("message".equals(field)) {
+                message = parser.getValueAsString();
+            } else if ("code".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                code = parser.getIntValue();
+            }
+        }
+        return new SeriesResponse(status, message, code, dataPoints);
+    }
 
+    private List<PriceData> readValues(String symbol, JsonParser parser) throws IOException {
+        String normalizedSymbol = symbol.toUpperCase();
         List<PriceData> dataPoints = new ArrayList<>();
-        for (JsonNode valueNode : valuesNode) {
-            if (valueNode == null || !valueNode.isObject()) {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new FinanceDataClientException("Twelve Data response ended inside the values array");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
                 continue;
             }
-
-            LocalDate date = parseDate(valueNode.path("datetime"));
-            BigDecimal open = parseDecimal(valueNode.path("open"));
-            BigDecimal high = parseDecimal(valueNode.path("high"));
-            BigDecimal low = parseDecimal(valueNode.path("low"));
-            BigDecimal close = parseDecimal(valueNode.path("close"));
-            Long volume = parseLong(valueNode.path("volume"));
-
-            dataPoints.add(new PriceData(symbol.toUpperCase(), date, open, high, low, close, volume, PriceDataSource.TWELVE_DATA));
+            String datetime = null;
+            String open = null;
+            String high = null;
+            String low = null;
+            String close = null;
+            String volume = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!value.isScalarValue()) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String text = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                switch (field) {
+                    case "datetime" -> datetime = text;
+                    case "open" -> open = text;
+                    case "high" -> high = text;
+                    case "low" -> low = text;
+                    case "close" -> close = text;
+                    case "volume" -> volume = text;
+                    default -> {
+                        // other fields are not stored
+                    }
+                }
+            }
+            dataPoints.add(new PriceData(normalizedSymbol, parseDate(datetime), parseDecimal(open), parseDecimal(high),
+                parseDecimal(low), parseDecimal(close), parseLong(volume), PriceDataSource.TWELVE_DATA));
         }
-
         return dataPoints;
     }
 
-    private LocalDate parseDate(JsonNode node) {
-        if (node == null || node.isNull()) {
+    private LocalDate parseDate(String raw) {
+        if (raw == null) {
             throw new FinanceDataClientException("Twelve Data response missing datetime value");
         }
-        String raw = node.asText();
-        if (raw == null || raw.isBlank()) {
+        if (raw.isBlank()) {
             throw new FinanceDataClientException("Twelve Data response contains blank datetime value");
         }
 
@@ -147,22 +373,14 @@ public class TwelveDataClient {
         }
     }
 
-    private BigDecimal parseDecimal(JsonNode node) {
-        if (node == null || node.isNull()) {
-            return null;
-        }
-        String value = node.asText();
+    private BigDecimal parseDecimal(String value) {
         if (value == null || value.isBlank()) {
             return null;
         }
         return new BigDecimal(value);
     }
 
-    private Long parseLong(JsonNode node) {
-        if (node == null || node.isNull()) {
-            return null;
-        }
-        String value = node.asText();
+    private Long parseLong(String value) {
         if (value == null || value.isBlank()) {
             return null;
         }
@@ -173,57 +391,79 @@ public class TwelveDataClient {
         }
     }
 
-    private String fetchWithRetry(String symbol, String uri) {
-        int attempts = 0;
-        while (true) {
+    /**
+     * Runs the request through the provider guard in a {@code twelve-data.fetch} span. Each retry adds a
+     * {@code rate-limited} or {@code retry} event, and the HTTP exchange and parse of every attempt appear as child
+     * spans.
+     */
+    private <T> T fetchWithRetry(String symbol, int credits, String uri, ResponseExtractor<T> extractor) {
+        return Spans.trace(tracer, "twelve-data.fetch", span -> {
+            span.tag("symbol", symbol);
+            Timer.Sample sample = metrics.start();
+            String status = ProviderMetrics.ERROR;
+            int[] retries = {0};
             try {
-                ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-                if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                    throw new FinanceDataClientException("Failed to fetch stock prices for " + symbol);
-                }
-                return response.getBody();
-            } catch (HttpClientErrorException.TooManyRequests tooManyRequests) {
-                attempts++;
-                if (attempts >= MAX_RETRIES) {
-                    throw new FinanceDataClientException("Twelve Data rate limit exceeded for " + symbol, tooManyRequests);
-                }
-                Duration delay = resolveRetryDelay(tooManyRequests.getResponseHeaders());
-                long sleepMillis = Math.max(delay.toMillis(), DEFAULT_RETRY_DELAY.toMillis());
-                log.warn("Twelve Data rate limited for {}. Retrying in {} ms (attempt {}/{})",
-                    symbol, sleepMillis, attempts, MAX_RETRIES);
-                sleep(sleepMillis);
+                T result = guard.execute(symbol, credits, () -> {
+                    T fetched = restTemplate.execute(uri, HttpMethod.GET, null, extractor);
+                    if (fetched == null) {
+                        throw new FinanceDataClientException("Failed to fetch stock prices for " + symbol);
+                    }
+                    return fetched;
+                }, (retry, failure, delay) -> {
+                    retries[0] = retry;
+                    span.event(failure instanceof RateLimitedException ? "rate-limited" : "retry");
+                    log.warn("Twelve Data request for {} failed: {}. Retrying in {} ms (retry {})",
+                        symbol, failure.getMessage(), delay.toMillis(), retry);
+                });
+                status = ProviderMetrics.OK;
+                return result;
+            } catch (RateLimitedException rateLimited) {
+                span.event("rate-limited");
+                status = ProviderMetrics.RATE_LIMITED;
+                throw rateLimited;
+            } catch (ProviderUnavailableException unavailable) {
+                status = ProviderMetrics.CIRCUIT_OPEN;
+                throw unavailable;
+            } finally {
+                metrics.record(sample, symbol, status, retries[0]);
+                span.tag("status", status).tag("retries", retries[0]);
             }
-        }
+        });
     }
 
-    private Duration resolveRetryDelay(HttpHeaders headers) {
-        if (headers == null) {
-            return DEFAULT_RETRY_DELAY;
-        }
-        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
-        if (retryAfter == null || retryAfter.isBlank()) {
-            return DEFAULT_RETRY_DELAY;
+    /**
+     * Twelve Data resets API credits every minute; the credits left are spread over the rest of the minute.
+     */
+    private void recordQuota(HttpHeaders headers) {
+        String creditsLeft = headers.getFirst(CREDITS_LEFT_HEADER);
+        if (creditsLeft == null || creditsLeft.isBlank()) {
+            return;
         }
         try {
-            long seconds = Long.parseLong(retryAfter.trim());
-            return Duration.ofSeconds(seconds);
-        } catch (NumberFormatException numberFormatException) {
-            try {
-                ZonedDateTime retryDate = ZonedDateTime.parse(retryAfter.trim());
-                Duration duration = Duration.between(Instant.now(clock), retryDate.toInstant());
-                return duration.isNegative() ? DEFAULT_RETRY_DELAY : duration;
-            } catch (DateTimeParseException ignored) {
-                return DEFAULT_RETRY_DELAY;
-            }
+            guard.rateLimiter().recordQuota(Long.parseLong(creditsLeft.trim()), untilCreditsReset());
+        } catch (NumberFormatException ignored) {
+            log.debug("Ignoring unreadable {} header: {}", CREDITS_LEFT_HEADER, creditsLeft);
         }
     }
 
-    private void sleep(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException interruptedException) {
-            Thread.currentThread().interrupt();
-            throw new FinanceDataClientException("Interrupted while waiting to retry Twelve Data request", interruptedException);
+    private Duration untilCreditsReset() {
+        Instant now = Instant.now(clock);
+        return Duration.between(now, now.truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES));
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(String symbol, InputStream body) throws IOException;
+    }
+
+    private record SeriesResponse(String status, String message, Integer code, List<PriceData> values) {
+
+        boolean isOk() {
+            return "ok".equalsIgnoreCase(status) && values != null;
+        }
+
+        String errorMessage() {
+            return message == null ? "Unknown Twelve Data error" : message;
         }
     }
 }
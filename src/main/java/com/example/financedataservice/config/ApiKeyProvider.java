@@ -1,5 +1,6 @@
 package com.example.financedataservice.config;
 
+import io.micrometer.tracing.Tracer;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,15 +23,18 @@ public class ApiKeyProvider {
     private final AwsSecretsManagerProperties properties;
     private final String alphaVantageFallback;
     private final String twelveDataFallback;
+    private final Tracer tracer;
 
     public ApiKeyProvider(ObjectProvider<SecretsManagerClient> secretsManagerClientProvider,
                           AwsSecretsManagerProperties properties,
                           @Value("${alpha-vantage.api-key:}") String alphaVantageFallback,
-                          @Value("${twelve-data.api-key:}") String twelveDataFallback) {
+                          @Value("${twelve-data.api-key:}") String twelveDataFallback,
+                          ObjectProvider<Tracer> tracer) {
         this.secretsManagerClientProvider = secretsManagerClientProvider;
         this.properties = properties;
         this.alphaVantageFallback = alphaVantageFallback;
         this.twelveDataFallback = twelveDataFallback;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
     }
 
     public String getAlphaVantageApiKey() {
@@ -74,8 +78,10 @@ public class ApiKeyProvider {
         }
 
         try {
-            GetSecretValueResponse response = client.getSecretValue(
-                GetSecretValueRequest.builder().secretId(secretName).build());
+            GetSecretValueResponse response = Spans.trace(tracer, "secrets-manager.get-secret", span -> {
+                span.tag("secret.name", secretName);
+                return client.getSecretValue(GetSecretValueRequest.builder().secretId(secretName).build());
+            });
             String secretString = normalize(response.secretString());
             if (!StringUtils.hasText(secretString)) {
                 log.warn("Secret {} retrieved but empty; falling back to property value.", secretName);
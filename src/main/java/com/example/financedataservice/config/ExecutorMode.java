@@ -0,0 +1,98 @@
+package com.example.financedataservice.config;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread model used for blocking provider I/O. {@code VIRTUAL} runs every task on its own virtual thread when the
+ * JVM supports them (JDK 21+) and falls back to {@code PLATFORM} pools otherwise, so the same configuration works
+ * before and after the runtime upgrade.
+ */
+public enum ExecutorMode {
+    PLATFORM,
+    VIRTUAL;
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorMode.class);
+
+    public static ExecutorMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported executor mode: " + value, e);
+        }
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return VirtualThreads.FACTORY_BUILDER != null;
+    }
+
+    /**
+     * Returns {@code VIRTUAL} only if virtual threads are actually available on this JVM.
+     */
+    public ExecutorMode effective() {
+        return this == VIRTUAL && virtualThreadsSupported() ? VIRTUAL : PLATFORM;
+    }
+
+    /**
+     * Creates an executor for blocking tasks. {@code platformThreads} sizes the pool in platform mode and is ignored
+     * in virtual mode, where each task gets a fresh virtual thread.
+     */
+    public ExecutorService newExecutor(String namePrefix, int platformThreads) {
+        if (this == VIRTUAL) {
+            if (virtualThreadsSupported()) {
+                return VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+            }
+            log.warn("Virtual threads are not supported on Java {}; using platform threads for {}",
+                Runtime.version().feature(), namePrefix);
+        }
+        return Executors.newFixedThreadPool(Math.max(platformThreads, 1), daemonThreads(namePrefix));
+    }
+
+    public static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Reflective access to the JDK 21 virtual thread API so the code still compiles for Java 17.
+     */
+    private static final class VirtualThreads {
+
+        private static final Method FACTORY_BUILDER = lookup();
+
+        private static Method lookup() {
+            try {
+                return Thread.class.getMethod("ofVirtual");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+            try {
+                Object builder = FACTORY_BUILDER.invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-", 1L);
+                ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread executor for " + namePrefix, e);
+            }
+        }
+    }
+}
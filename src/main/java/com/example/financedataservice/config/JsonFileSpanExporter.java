@@ -0,0 +1,131 @@
+package com.example.financedataservice.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line, so traces can be inspected without a collector:
+ * trace and span ids, parent span id, name, kind, start, duration in microseconds, status, attributes and events.
+ */
+public class JsonFileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonFileSpanExporter.class);
+
+    private final Path file;
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+    private OutputStream output;
+
+    public JsonFileSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (output == null) {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                output = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (SpanData span : spans) {
+                try (JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+                    writeSpan(generator, span);
+                }
+                output.write('\n');
+            }
+            output.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Failed to export {} spans to {}: {}", spans.size(), file, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            } finally {
+                output = null;
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static void writeSpan(JsonGenerator generator, SpanData span) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", span.getTraceId());
+        generator.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            generator.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        generator.writeStringField("name", span.getName());
+        generator.writeStringField("kind", span.getKind().name());
+        generator.writeStringField("start", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString());
+        generator.writeNumberField("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        generator.writeStringField("status", span.getStatus().getStatusCode().name());
+        generator.writeFieldName("attributes");
+        writeAttributes(generator, span.getAttributes());
+        if (!span.getEvents().isEmpty()) {
+            generator.writeArrayFieldStart("events");
+            for (EventData event : span.getEvents()) {
+                generator.writeStartObject();
+                generator.writeStringField("name", event.getName());
+                generator.writeNumberField("offsetMicros", (event.getEpochNanos() - span.getStartEpochNanos()) / 1_000);
+                generator.writeFieldName("attributes");
+                writeAttributes(generator, event.getAttributes());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeAttributes(JsonGenerator generator, Attributes attributes) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<AttributeKey<?>, Object> entry : attributes.asMap().entrySet()) {
+            generator.writeFieldName(entry.getKey().getKey());
+            if (entry.getValue() instanceof List<?> values) {
+                generator.writeStartArray();
+                for (Object value : values) {
+                    generator.writeObject(value);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeObject(entry.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
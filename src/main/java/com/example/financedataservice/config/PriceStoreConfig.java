@@ -0,0 +1,50 @@
+package com.example.financedataservice.config;
+
+import com.example.financedataservice.store.BinaryPriceStore;
+import com.example.financedataservice.store.JsonPriceStore;
+import com.example.financedataservice.store.MappedPriceReader;
+import com.example.financedataservice.store.MeteredPriceStore;
+import com.example.financedataservice.store.PriceStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PriceStoreConfig {
+
+    @Bean
+    public PriceStore priceStore(ObjectMapper objectMapper,
+                                 @Value("${finance.data.base-dir:data}") String baseDirectory,
+                                 @Value("${finance.data.store:json}") String storeFormat,
+                                 @Value("${finance.data.json-export:false}") boolean jsonExport,
+                                 MeterRegistry meterRegistry) {
+        Path basePath = Paths.get(baseDirectory);
+        JsonPriceStore jsonStore = new JsonPriceStore(basePath, objectMapper);
+        PriceStore store = switch (normalizeFormat(storeFormat)) {
+            case "json" -> jsonStore;
+            case "binary" -> new BinaryPriceStore(basePath, jsonStore, jsonExport);
+            default -> throw new IllegalStateException("Unsupported finance.data.store value: " + storeFormat);
+        };
+        return new MeteredPriceStore(store, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "finance.data.read-mode", havingValue = "mmap")
+    public MappedPriceReader mappedPriceReader(@Value("${finance.data.store:json}") String storeFormat,
+                                               @Value("${finance.data.base-dir:data}") String baseDirectory) {
+        if (!"binary".equals(normalizeFormat(storeFormat))) {
+            throw new IllegalStateException("finance.data.read-mode=mmap requires finance.data.store=binary");
+        }
+        return new MappedPriceReader(Paths.get(baseDirectory));
+    }
+
+    private static String normalizeFormat(String storeFormat) {
+        return storeFormat == null ? "json" : storeFormat.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.financedataservice.config;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Requests gzip-compressed responses and decompresses them, and enforces the total deadline of an exchange. The
+ * deadline is checked around every body read. With {@code abortBlockedReads} (the JDK transport, whose body reads
+ * have no timeout of their own) a watchdog also interrupts a read that is still blocked when the deadline passes and
+ * closes the body. Either way the reader sees a {@link SocketTimeoutException}.
+ */
+class ProviderHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final boolean gzip;
+    private final Duration totalTimeout;
+    private final boolean abortBlockedReads;
+    private final ScheduledExecutorService deadlineScheduler;
+
+    ProviderHttpInterceptor(boolean gzip, Duration totalTimeout, boolean abortBlockedReads,
+                            ScheduledExecutorService deadlineScheduler) {
+        this.gzip = gzip;
+        this.totalTimeout = totalTimeout;
+        this.abortBlockedReads = abortBlockedReads;
+        this.deadlineScheduler = deadlineScheduler;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+        throws IOException {
+        long startedAt = System.nanoTime();
+        if (gzip && !request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+
+        boolean compressed = "gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        if (!compressed && totalTimeout == null) {
+            return response;
+        }
+        if (totalTimeout == null) {
+            return new ProviderHttpResponse(response, compressed, 0L);
+        }
+        long deadline = startedAt + totalTimeout.toNanos();
+        if (System.nanoTime() >= deadline) {
+            response.close();
+            throw deadlineExceeded();
+        }
+        return new ProviderHttpResponse(response, compressed, deadline);
+    }
+
+    private SocketTimeoutException deadlineExceeded() {
+        return new SocketTimeoutException("Provider response exceeded the total deadline of " + totalTimeout.toMillis()
+            + " ms");
+    }
+
+    private final class ProviderHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final boolean compressed;
+        private final long deadline;
+        private final ScheduledFuture<?> watchdog;
+        private final Object readLock = new Object();
+        private volatile boolean expired;
+        private Thread reader;
+        private InputStream body;
+        private HttpHeaders headers;
+
+        /**
+         * @param deadline {@link System#nanoTime()} by which the exchange must be complete; ignored without a total
+         *                 timeout
+         */
+        private ProviderHttpResponse(ClientHttpResponse delegate, boolean compressed, long deadline) {
+            this.delegate = delegate;
+            this.compressed = compressed;
+            this.deadline = deadline;
+            this.watchdog = totalTimeout == null || !abortBlockedReads
+                ? null
+                : deadlineScheduler.schedule(this::expire, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private void expire() {
+            synchronized (readLock) {
+                expired = true;
+                if (reader != null) {
+                    reader.interrupt();
+                }
+            }
+            abort();
+        }
+
+        /**
+         * Closes the raw body without draining it first, as {@link ClientHttpResponse#close()} implementations do to
+         * keep the connection reusable; draining a stalled body would block just like the read being aborted.
+         */
+        private void abort() {
+            try {
+                delegate.getBody().close();
+            } catch (IOException ignored) {
+                // the connection is being discarded anyway
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            if (headers == null) {
+                if (compressed) {
+                    // The body handed out is decompressed, so the encoding and length no longer describe it.
+                    HttpHeaders decoded = new HttpHeaders();
+                    decoded.putAll(delegate.getHeaders());
+                    decoded.remove(HttpHeaders.CONTENT_ENCODING);
+                    decoded.remove(HttpHeaders.CONTENT_LENGTH);
+                    headers = HttpHeaders.readOnlyHttpHeaders(decoded);
+                } else {
+                    headers = delegate.getHeaders();
+                }
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = new DeadlineInputStream(delegate.getBody());
+                body = compressed ? new GZIPInputStream(raw) : raw;
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (expired && abortBlockedReads) {
+                abort();
+            } else {
+                delegate.close();
+            }
+        }
+
+        private final class DeadlineInputStream extends FilterInputStream {
+
+            private DeadlineInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                beginRead();
+                int result;
+                try {
+                    result = super.read();
+                } catch (IOException e) {
+                    throw translate(e);
+                } finally {
+                    endRead();
+                }
+                // A response closed by the watchdog may report a premature end of stream instead of failing.
+                checkDeadline();
+                return result;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                beginRead();
+                int result;
+                try {
+                    result = super.read(buffer, offset, length);
+                } catch (IOException e) {
+                    throw translate(e);
+                } finally {
+                    endRead();
+                }
+                // A response closed by the watchdog may report a premature end of stream instead of failing.
+                checkDeadline();
+                return result;
+            }
+
+            private void beginRead() throws SocketTimeoutException {
+                synchronized (readLock) {
+                    checkDeadline();
+                    reader = Thread.currentThread();
+                }
+            }
+
+            private void endRead() {
+                synchronized (readLock) {
+                    reader = null;
+                    if (expired) {
+                        // Drop the interrupt raised by the watchdog; the expiry is reported as a timeout instead.
+                        Thread.interrupted();
+                    }
+                }
+            }
+
+            private void checkDeadline() throws SocketTimeoutException {
+                if (isExpired()) {
+                    throw deadlineExceeded();
+                }
+            }
+
+            private boolean isExpired() {
+                if (!expired && totalTimeout != null && System.nanoTime() - deadline >= 0) {
+                    expired = true;
+                }
+                return expired;
+            }
+
+            private IOException translate(IOException failure) {
+                if (!isExpired()) {
+                    return failure;
+                }
+                SocketTimeoutException timeout = deadlineExceeded();
+                timeout.initCause(failure);
+                return timeout;
+            }
+        }
+    }
+}
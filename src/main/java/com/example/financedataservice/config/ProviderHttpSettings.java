@@ -0,0 +1,40 @@
+package com.example.financedataservice.config;
+
+import java.time.Duration;
+
+/**
+ * Per-provider HTTP deadlines. A {@code null} value leaves the corresponding timeout unset.
+ * <ul>
+ *     <li>{@code connectTimeout} bounds establishing the TCP/TLS connection.</li>
+ *     <li>{@code readTimeout} bounds waiting for the response; with the JDK transport this covers the time until
+ *     the response headers arrive, otherwise each blocking read.</li>
+ *     <li>{@code totalTimeout} bounds the whole exchange including reading the body. The JDK transport aborts a
+ *     read that is blocked at the deadline; otherwise the deadline is checked between reads, so a stalled read can
+ *     overrun it by up to the read timeout.</li>
+ * </ul>
+ */
+public record ProviderHttpSettings(Duration connectTimeout, Duration readTimeout, Duration totalTimeout) {
+
+    /**
+     * Builds settings from millisecond values as they appear in the configuration; zero or negative values disable
+     * the timeout.
+     */
+    public static ProviderHttpSettings ofMillis(long connectTimeoutMs, long readTimeoutMs, long totalTimeoutMs) {
+        return new ProviderHttpSettings(toDuration(connectTimeoutMs), toDuration(readTimeoutMs),
+            toDuration(totalTimeoutMs));
+    }
+
+    /**
+     * Time allowed until the response headers arrive: the read timeout, capped by the total deadline.
+     */
+    Duration responseTimeout() {
+        if (readTimeout == null) {
+            return totalTimeout;
+        }
+        return totalTimeout == null || readTimeout.compareTo(totalTimeout) <= 0 ? readTimeout : totalTimeout;
+    }
+
+    private static Duration toDuration(long millis) {
+        return millis > 0 ? Duration.ofMillis(millis) : null;
+    }
+}
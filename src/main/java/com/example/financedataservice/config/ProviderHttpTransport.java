@@ -0,0 +1,123 @@
+package com.example.financedataservice.config;
+
+import java.net.http.HttpClient;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Selects and tunes the HTTP transport used by the provider clients.
+ * <ul>
+ *     <li>{@code jdk} gives every provider its own pooled JDK {@link HttpClient}: connections are kept alive between
+ *     calls and HTTP/2 is negotiated when the provider offers it. In {@code virtual} executor mode the clients' internal
+ *     executor runs on virtual threads as well.</li>
+ *     <li>{@code default} keeps the request factory Spring Boot detects on the classpath and only applies the
+ *     timeouts.</li>
+ * </ul>
+ * Either way responses are requested gzip-compressed (unless {@code finance.http.gzip} is off) and every exchange is
+ * bounded by the provider's {@link ProviderHttpSettings}.
+ */
+@Component
+public class ProviderHttpTransport implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderHttpTransport.class);
+
+    public enum Transport {
+        DEFAULT,
+        JDK
+    }
+
+    private final Transport transport;
+    private final HttpClient.Version httpVersion;
+    private final boolean gzip;
+    private final ExecutorService httpClientExecutor;
+    private final ScheduledThreadPoolExecutor deadlineScheduler;
+
+    public ProviderHttpTransport(@Value("${finance.http.transport:jdk}") String transport,
+                                 @Value("${finance.refresh.executor-mode:platform}") String executorMode,
+                                 @Value("${finance.http.http2:true}") boolean http2,
+                                 @Value("${finance.http.gzip:true}") boolean gzip) {
+        this.transport = parseTransport(transport);
+        this.httpVersion = http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        this.gzip = gzip;
+        if (this.transport == Transport.JDK) {
+            ExecutorMode mode = ExecutorMode.from(executorMode).effective();
+            this.httpClientExecutor = mode == ExecutorMode.VIRTUAL ? mode.newExecutor("provider-http", 0) : null;
+            log.info("Provider clients use the JDK HttpClient transport ({}, {} threads)", httpVersion,
+                mode.name().toLowerCase(Locale.ROOT));
+        } else {
+            this.httpClientExecutor = null;
+        }
+        this.deadlineScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "provider-http-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlineScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public RestTemplateBuilder configure(RestTemplateBuilder builder, ProviderHttpSettings settings) {
+        RestTemplateBuilder configured = builder.additionalInterceptors(
+            new ProviderHttpInterceptor(gzip, settings.totalTimeout(), transport == Transport.JDK, deadlineScheduler));
+        if (transport == Transport.DEFAULT) {
+            if (settings.connectTimeout() != null) {
+                configured = configured.setConnectTimeout(settings.connectTimeout());
+            }
+            if (settings.readTimeout() != null) {
+                configured = configured.setReadTimeout(settings.readTimeout());
+            }
+            return configured;
+        }
+
+        HttpClient httpClient = newHttpClient(settings);
+        return configured.requestFactory(() -> {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            if (settings.responseTimeout() != null) {
+                requestFactory.setReadTimeout(settings.responseTimeout());
+            }
+            return requestFactory;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (httpClientExecutor != null) {
+            httpClientExecutor.shutdownNow();
+        }
+        deadlineScheduler.shutdownNow();
+    }
+
+    private HttpClient newHttpClient(ProviderHttpSettings settings) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(httpVersion)
+            .followRedirects(HttpClient.Redirect.NORMAL);
+        if (settings.connectTimeout() != null) {
+            builder.connectTimeout(settings.connectTimeout());
+        }
+        if (httpClientExecutor != null) {
+            builder.executor(httpClientExecutor);
+        }
+        return builder.build();
+    }
+
+    private static Transport parseTransport(String value) {
+        if (value == null || value.isBlank()) {
+            return Transport.DEFAULT;
+        }
+        try {
+            return Transport.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported HTTP transport: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.financedataservice.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for tracing a stage of work. {@link #trace} opens a child span of the span in scope (or of an explicit
+ * parent), keeps it in scope while the work runs so nested spans and HTTP client spans attach to it, records a thrown
+ * exception and always ends it. {@link #inScope} restores a span on another thread, e.g. for tasks submitted to the
+ * refresh executors, which do not carry the trace context themselves.
+ */
+public final class Spans {
+
+    private Spans() {
+    }
+
+    public static <T, E extends Exception> T trace(Tracer tracer, String name, SpanWork<T, E> work) throws E {
+        return trace(tracer, tracer.currentSpan(), name, work);
+    }
+
+    public static <T, E extends Exception> T trace(Tracer tracer, Span parent, String name, SpanWork<T, E> work)
+        throws E {
+        Span span = start(tracer, parent, name);
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.run(span);
+        } catch (Throwable failure) {
+            span.error(failure);
+            throw failure;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Starts a span that the caller ends, for work that completes asynchronously.
+     */
+    public static Span start(Tracer tracer, Span parent, String name) {
+        return (parent == null ? tracer.nextSpan() : tracer.nextSpan(parent)).name(name).start();
+    }
+
+    public static <T> T inScope(Tracer tracer, Span span, Supplier<T> work) {
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.get();
+        }
+    }
+
+    @FunctionalInterface
+    public interface SpanWork<T, E extends Exception> {
+        T run(Span span) throws E;
+    }
+}
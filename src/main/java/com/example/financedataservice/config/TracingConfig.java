@@ -0,0 +1,22 @@
+package com.example.financedataservice.config;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Span exporters picked up by the OpenTelemetry tracer Spring Boot configures. Setting
+ * {@code finance.tracing.export-file} writes every finished span to that file as JSON lines.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "finance.tracing.export-file")
+    public SpanExporter jsonFileSpanExporter(@Value("${finance.tracing.export-file}") String exportFile) {
+        return new JsonFileSpanExporter(Paths.get(exportFile));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.financedataservice.controller;
+
+import com.example.financedataservice.model.CorrelationMatrix;
+import com.example.financedataservice.service.CorrelationService;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+public class CorrelationController {
+
+    private final CorrelationService correlationService;
+
+    public CorrelationController(CorrelationService correlationService) {
+        this.correlationService = correlationService;
+    }
+
+    /**
+     * Returns the log-return covariance and correlation matrices of {@code symbols} (default: gold plus the
+     * configured stocks) over the dates they all have prices for.
+     */
+    @GetMapping("/correlations")
+    public ResponseEntity<CorrelationMatrix> getCorrelations(
+        @RequestParam(value = "symbols", required = false) List<String> symbols,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        CorrelationMatrix matrix;
+        try {
+            matrix = correlationService.getCorrelations(symbols, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (matrix.observations() < 2) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Not enough common dates to correlate " + String.join(",", matrix.symbols()));
+        }
+        return ResponseEntity.ok(matrix);
+    }
+}
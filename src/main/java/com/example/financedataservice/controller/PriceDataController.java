@@ -1,32 +1,129 @@
 package com.example.financedataservice.controller;
 
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorResult;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.IndicatorType;
+import com.example.financedataservice.model.PriceCacheStats;
 import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.SerializedPriceHistory;
 import com.example.financedataservice.service.FinanceDataService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 public class PriceDataController {
 
+    private static final Logger log = LoggerFactory.getLogger(PriceDataController.class);
+
     private final FinanceDataService financeDataService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter priceWriter;
+    private final Tracer tracer;
+
+    @Autowired
+    public PriceDataController(FinanceDataService financeDataService,
+                               ObjectMapper objectMapper,
+                               ObjectProvider<Tracer> tracer) {
+        this(financeDataService, objectMapper, tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    public PriceDataController(FinanceDataService financeDataService, ObjectMapper objectMapper) {
+        this(financeDataService, objectMapper, Tracer.NOOP);
+    }
 
-    public PriceDataController(FinanceDataService financeDataService) {
+    PriceDataController(FinanceDataService financeDataService, ObjectMapper objectMapper, Tracer tracer) {
         this.financeDataService = financeDataService;
+        this.objectMapper = objectMapper;
+        this.priceWriter = objectMapper.writerFor(PriceData.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.tracer = tracer;
     }
 
+    /**
+     * Returns the prices of one symbol. A request without {@code from}, {@code to} and {@code limit} is answered with
+     * the symbol's pre-serialized history, gzip-compressed when the client accepts it; ranged requests are serialized
+     * per request. {@code interval} aggregates the daily prices into weekly or monthly bars and {@code maxPoints}
+     * downsamples the result for charting.
+     */
     @GetMapping("/getPriceData")
-    public ResponseEntity<List<PriceData>> getPriceData(@RequestParam("symbol") String symbol) {
+    public ResponseEntity<?> getPriceData(
+        @RequestParam("symbol") String symbol,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "interval", required = false) String interval,
+        @RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        WebRequest webRequest) {
         if (!StringUtils.hasText(symbol)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "symbol query parameter is required");
         }
+        validateRange(from, to);
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be greater than zero");
+        }
+        PriceInterval priceInterval = parseInterval(interval);
+        validateMaxPoints(maxPoints);
+        boolean resampled = priceInterval != PriceInterval.DAILY || maxPoints != null;
+
+        boolean fullHistory = from == null && to == null && limit == null && !resampled;
+        SerializedPriceHistory serialized = fullHistory ? financeDataService.getSerializedHistory(symbol) : null;
+        tagRequest("finance.symbol", symbol.toUpperCase());
+        tagRequest("finance.read", serialized != null ? "serialized" : resampled ? "resampled" : "window");
+        DataVersion version = serialized != null ? serialized.version() : financeDataService.getDataVersion(symbol);
+        boolean gzip = serialized != null && serialized.hasGzip() && acceptsGzip(acceptEncoding);
+        if (version != null && webRequest.checkNotModified(gzip ? gzipETag(version) : version.etag())) {
+            return null;
+        }
 
-        List<PriceData> priceData = financeDataService.getPriceDataForSymbol(symbol);
+        if (serialized != null) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serialized.gzip());
+            }
+            return response.body(serialized.json());
+        }
+
+        List<PriceData> priceData = resampled
+            ? financeDataService.getResampledPrices(symbol, priceInterval, from, to, limit, maxPoints)
+            : financeDataService.getPriceDataForSymbol(symbol, from, to, limit);
         if (priceData.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No data available for symbol " + symbol.toUpperCase());
         }
@@ -34,9 +131,212 @@ public class PriceDataController {
         return ResponseEntity.ok(priceData);
     }
 
+    /**
+     * Streams the histories of several symbols as one JSON array of {@code {"symbol": ..., "prices": [...]}} objects.
+     * Every series is looked up before the response is committed; entries are then written one by one from the cache,
+     * so no per-symbol list is materialized. A failure while writing aborts the response without closing the array.
+     * The ETag combines the versions of all requested symbols, so a conditional request is answered with 304 until one
+     * of them changes.
+     * {@code interval} and {@code maxPoints} resample each symbol as for {@code /getPriceData}.
+     */
+    @GetMapping("/prices")
+    public void getPrices(
+        @RequestParam("symbols") List<String> symbols,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(value = "interval", required = false) String interval,
+        @RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+        WebRequest webRequest,
+        HttpServletResponse response) throws IOException {
+        Set<String> normalizedSymbols = normalizeSymbols(symbols);
+        if (normalizedSymbols.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "symbols query parameter is required");
+        }
+        validateRange(from, to);
+        PriceInterval priceInterval = parseInterval(interval);
+        validateMaxPoints(maxPoints);
+        boolean resampled = priceInterval != PriceInterval.DAILY || maxPoints != null;
+        tagRequest("finance.symbol", String.join(",", normalizedSymbols));
+        tagRequest("finance.read", resampled ? "resampled" : "window");
+        if (isNotModified(normalizedSymbols, webRequest)) {
+            return;
+        }
+
+        // Resolve every series before the status line is sent, so a failing symbol still gets a proper error status.
+        Map<String, Collection<PriceData>> pricesBySymbol = new LinkedHashMap<>();
+        for (String symbol : normalizedSymbols) {
+            pricesBySymbol.put(symbol, resampled
+                ? financeDataService.getResampledPrices(symbol, priceInterval, from, to, null, maxPoints)
+                : financeDataService.getPriceWindow(symbol, from, to));
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory()
+            .createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        try {
+            generator.writeStartArray();
+            for (Map.Entry<String, Collection<PriceData>> entry : pricesBySymbol.entrySet()) {
+                generator.writeStartObject();
+                generator.writeStringField("symbol", entry.getKey());
+                generator.writeArrayFieldStart("prices");
+                for (PriceData price : entry.getValue()) {
+                    priceWriter.writeValue(generator, price);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.close();
+        } catch (IOException | RuntimeException e) {
+            // The 200 status is already on its way. Closing the generator would complete the open arrays and make the
+            // partial body look like a full answer, so it is left unterminated and the exception aborts the response.
+            log.error("Streaming prices for {} failed after the response was committed; aborting it",
+                normalizedSymbols, e);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try {
+                generator.close();
+            } catch (IOException ignored) {
+                // the original failure is the one to report
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a technical indicator ({@code sma}, {@code ema}, {@code rsi} or {@code bollinger}) of one symbol's
+     * closes between {@code from} and {@code to}. The indicator is computed over the full history, so the first
+     * values of a range already account for the closes before it, and the result is cached until the symbol changes.
+     */
+    @GetMapping("/indicators")
+    public ResponseEntity<IndicatorResult> getIndicator(
+        @RequestParam("symbol") String symbol,
+        @RequestParam("type") String type,
+        @RequestParam(value = "window", required = false) Integer window,
+        @RequestParam(value = "multiplier", required = false) Double multiplier,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        WebRequest webRequest) {
+        if (!StringUtils.hasText(symbol)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "symbol query parameter is required");
+        }
+        IndicatorType indicatorType = IndicatorType.fromId(type);
+        if (indicatorType == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported indicator type " + type);
+        }
+        validateRange(from, to);
+        IndicatorSpec spec;
+        try {
+            spec = IndicatorSpec.of(indicatorType, window, multiplier);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        tagRequest("finance.symbol", symbol.toUpperCase());
+        tagRequest("finance.read", "indicator");
+        DataVersion version = financeDataService.getDataVersion(symbol);
+        if (version == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No data available for symbol " + symbol.toUpperCase());
+        }
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        IndicatorSeries indicator = financeDataService.getIndicator(symbol, spec);
+        if (indicator == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No data available for symbol " + symbol.toUpperCase());
+        }
+
+        return ResponseEntity.ok(new IndicatorResult(version.symbol(), spec.type().getId(), spec.window(),
+            spec.type() == IndicatorType.BOLLINGER ? spec.multiplier() : null, indicator.window(from, to)));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<PriceCacheStats> getCacheStats() {
+        return ResponseEntity.ok(financeDataService.getCacheStats());
+    }
+
     @GetMapping("/symbols")
     public ResponseEntity<List<String>> getAvailableSymbols() {
         List<String> symbols = financeDataService.getAvailableSymbols();
         return ResponseEntity.ok(symbols);
     }
+
+    /**
+     * Tags the span of the current request, i.e. the HTTP server span, so slow reads can be filtered by symbol and by
+     * how they were served.
+     */
+    private void tagRequest(String key, String value) {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            span.tag(key, value);
+        }
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            // "gzip;q=0" explicitly refuses the coding.
+            return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    private String gzipETag(DataVersion version) {
+        // The compressed body is a different representation, so it needs its own strong validator.
+        String etag = version.etag();
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private boolean isNotModified(Set<String> symbols, WebRequest webRequest) {
+        StringBuilder versions = new StringBuilder();
+        for (String symbol : symbols) {
+            DataVersion version = financeDataService.getDataVersion(symbol);
+            versions.append(version == null ? symbol + "-none" : version.etag()).append(',');
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return webRequest.checkNotModified(etag);
+    }
+
+    private Set<String> normalizeSymbols(List<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (symbols == null) {
+            return normalized;
+        }
+        for (String symbol : symbols) {
+            if (StringUtils.hasText(symbol)) {
+                normalized.add(symbol.trim().toUpperCase());
+            }
+        }
+        return normalized;
+    }
+
+    private PriceInterval parseInterval(String interval) {
+        if (!StringUtils.hasText(interval)) {
+            return PriceInterval.DAILY;
+        }
+        PriceInterval parsed = PriceInterval.fromId(interval.trim());
+        if (parsed == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported interval " + interval);
+        }
+        return parsed;
+    }
+
+    private void validateMaxPoints(Integer maxPoints) {
+        if (maxPoints != null && maxPoints < 3) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxPoints must be at least 3");
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+    }
 }
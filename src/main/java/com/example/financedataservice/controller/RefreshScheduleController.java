@@ -0,0 +1,23 @@
+package com.example.financedataservice.controller;
+
+import com.example.financedataservice.model.RefreshScheduleStatus;
+import com.example.financedataservice.scheduler.RefreshScheduler;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class RefreshScheduleController {
+
+    private final RefreshScheduler refreshScheduler;
+
+    public RefreshScheduleController(RefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+    }
+
+    @GetMapping("/refresh/schedule")
+    public ResponseEntity<List<RefreshScheduleStatus>> getSchedule() {
+        return ResponseEntity.ok(refreshScheduler.getStatus());
+    }
+}
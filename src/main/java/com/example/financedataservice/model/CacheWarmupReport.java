@@ -0,0 +1,31 @@
+package com.example.financedataservice.model;
+
+import java.util.List;
+
+/**
+ * Outcome of pre-loading the price cache from disk.
+ *
+ * @param symbols        symbols attempted
+ * @param entries        price entries loaded into memory
+ * @param bytes          size of the files read
+ * @param failures       symbols that could not be loaded
+ * @param elapsedMillis  wall-clock duration of the warm-up
+ * @param loads          per-symbol timings, slowest first
+ */
+public record CacheWarmupReport(int symbols,
+                                long entries,
+                                long bytes,
+                                int failures,
+                                long elapsedMillis,
+                                List<SymbolLoad> loads) {
+
+    /**
+     * @param symbol  symbol loaded
+     * @param bytes   size of its file, 0 when it has none
+     * @param entries price entries loaded
+     * @param millis  time spent reading and decoding the file
+     * @param error   failure message, {@code null} on success
+     */
+    public record SymbolLoad(String symbol, long bytes, int entries, long millis, String error) {
+    }
+}
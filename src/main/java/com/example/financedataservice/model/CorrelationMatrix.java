@@ -0,0 +1,30 @@
+package com.example.financedataservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily log-return statistics of several symbols over their common trading dates, exposed by {@code /correlations}.
+ * Row and column {@code i} of the matrices belong to {@code symbols.get(i)}.
+ *
+ * @param symbols          symbols included in the matrices, in request order
+ * @param missingSymbols   requested symbols without stored prices, left out of the matrices
+ * @param from             first common date
+ * @param to               last common date
+ * @param observations     number of daily returns per symbol, one less than the number of common dates
+ * @param meanReturns      mean daily log return per symbol
+ * @param volatilities     sample standard deviation of the daily log returns per symbol
+ * @param covariance       sample covariance of the daily log returns
+ * @param correlation      Pearson correlation of the daily log returns; 0 against a series without variance
+ */
+public record CorrelationMatrix(List<String> symbols,
+                                List<String> missingSymbols,
+                                @JsonFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                @JsonFormat(pattern = "yyyy-MM-dd") LocalDate to,
+                                int observations,
+                                double[] meanReturns,
+                                double[] volatilities,
+                                double[][] covariance,
+                                double[][] correlation) {
+}
@@ -0,0 +1,25 @@
+package com.example.financedataservice.model;
+
+import java.time.LocalDate;
+
+/**
+ * Version of a symbol's price history, derived from its content only: the number of stored entries, the latest date
+ * and a {@link PriceSeries#contentHash() hash} of all values. Every replica, and the same service after a restart,
+ * hands out the same version for the same data, and any added or revised entry changes it. There is no
+ * {@code Last-Modified} counterpart: no instant derived from the content moves with every revision, so the entity tag
+ * is the only validator.
+ */
+public record DataVersion(String symbol, int count, LocalDate lastDate, long contentHash) {
+
+    public static DataVersion of(PriceSeries series) {
+        return new DataVersion(series.getSymbol().toUpperCase(), series.size(), series.lastDate(),
+            series.contentHash());
+    }
+
+    /**
+     * Strong entity tag, quoted as required by the {@code ETag} header.
+     */
+    public String etag() {
+        return "\"" + symbol + "-" + count + "-" + lastDate + "-" + Long.toHexString(contentHash) + "\"";
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.financedataservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+
+/**
+ * One value of an indicator. {@code upper} and {@code lower} are only set for Bollinger bands, whose {@code value}
+ * is the middle band.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IndicatorPoint(@JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                             double value,
+                             Double upper,
+                             Double lower) {
+}
@@ -0,0 +1,21 @@
+package com.example.financedataservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Response of {@code /indicators}.
+ *
+ * @param symbol      normalized symbol
+ * @param type        indicator id, e.g. {@code sma}
+ * @param window      number of closes per value
+ * @param multiplier  band width in standard deviations, only set for Bollinger bands
+ * @param values      indicator values within the requested range, oldest first
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IndicatorResult(String symbol,
+                              String type,
+                              int window,
+                              Double multiplier,
+                              List<IndicatorPoint> values) {
+}
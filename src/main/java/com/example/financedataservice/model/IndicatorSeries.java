@@ -0,0 +1,125 @@
+package com.example.financedataservice.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Indicator values of one symbol over its whole history, stored in parallel primitive arrays like
+ * {@link PriceSeries}. Only dates with enough preceding closes to fill the window have a value. {@code version} is
+ * the {@link DataVersion} of the prices the values were computed from.
+ */
+public final class IndicatorSeries {
+
+    private static final double ROUNDING = 1_000_000d;
+
+    private final DataVersion version;
+    private final IndicatorSpec spec;
+    private final int[] epochDays;
+    private final double[] values;
+    private final double[] upper;
+    private final double[] lower;
+
+    /**
+     * Wraps the computed columns without copying them. {@code upper} and {@code lower} are {@code null} unless the
+     * indicator is a band.
+     */
+    public IndicatorSeries(DataVersion version, IndicatorSpec spec, int[] epochDays, double[] values,
+                           double[] upper, double[] lower) {
+        if (values.length != epochDays.length
+            || (upper != null && upper.length != epochDays.length)
+            || (lower != null && lower.length != epochDays.length)) {
+            throw new IllegalArgumentException("Indicator columns must have the same length");
+        }
+        this.version = version;
+        this.spec = spec;
+        this.epochDays = epochDays;
+        this.values = values;
+        this.upper = upper;
+        this.lower = lower;
+    }
+
+    public DataVersion version() {
+        return version;
+    }
+
+    public IndicatorSpec spec() {
+        return spec;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public long sizeInBytes() {
+        int columns = upper == null ? 1 : 3;
+        return (long) epochDays.length * (Integer.BYTES + (long) columns * Double.BYTES);
+    }
+
+    /**
+     * Returns the values between {@code from} and {@code to} (inclusive, either may be {@code null}) as a lazy list,
+     * rounded to {@value PriceSeries#PRICE_SCALE} decimal places.
+     */
+    public List<IndicatorPoint> window(LocalDate from, LocalDate to) {
+        int start = from == null ? 0 : firstIndexOnOrAfter(from.toEpochDay());
+        int end = to == null ? epochDays.length : firstIndexOnOrAfter(to.toEpochDay() + 1);
+        return start >= end ? List.of() : new PointView(start, end);
+    }
+
+    private IndicatorPoint pointAt(int index) {
+        return new IndicatorPoint(dateAt(index), round(values[index]),
+            upper == null ? null : round(upper[index]),
+            lower == null ? null : round(lower[index]));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * ROUNDING) / ROUNDING;
+    }
+
+    private int firstIndexOnOrAfter(long epochDay) {
+        int lowIndex = 0;
+        int highIndex = epochDays.length;
+        while (lowIndex < highIndex) {
+            int mid = (lowIndex + highIndex) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lowIndex = mid + 1;
+            } else {
+                highIndex = mid;
+            }
+        }
+        return lowIndex;
+    }
+
+    private final class PointView extends AbstractList<IndicatorPoint> implements RandomAccess {
+
+        private final int start;
+        private final int end;
+
+        private PointView(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public IndicatorPoint get(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return pointAt(start + index);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.financedataservice.model;
+
+/**
+ * Parameters of one indicator computation. {@code multiplier} is the band width in standard deviations and only
+ * applies to {@link IndicatorType#BOLLINGER}; it is 0 for every other type, so equal requests share a cache entry.
+ */
+public record IndicatorSpec(IndicatorType type, int window, double multiplier) {
+
+    public static final int MAX_WINDOW = 1_000;
+
+    public IndicatorSpec {
+        if (type == null) {
+            throw new IllegalArgumentException("Indicator type must be provided");
+        }
+        int minWindow = type == IndicatorType.BOLLINGER ? 2 : 1;
+        if (window < minWindow || window > MAX_WINDOW) {
+            throw new IllegalArgumentException(
+                "window for " + type.getId() + " must be between " + minWindow + " and " + MAX_WINDOW);
+        }
+        if (type == IndicatorType.BOLLINGER) {
+            if (!(multiplier > 0) || Double.isInfinite(multiplier)) {
+                throw new IllegalArgumentException("multiplier must be a positive number");
+            }
+        } else {
+            multiplier = 0;
+        }
+    }
+
+    public static IndicatorSpec of(IndicatorType type, Integer window, Double multiplier) {
+        return new IndicatorSpec(type,
+            window == null ? type.getDefaultWindow() : window,
+            multiplier == null ? 2.0 : multiplier);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.financedataservice.model;
+
+/**
+ * Technical indicators served by {@code /indicators}, computed over daily closes.
+ */
+public enum IndicatorType {
+    SMA("sma", 20),
+    EMA("ema", 20),
+    RSI("rsi", 14),
+    BOLLINGER("bollinger", 20);
+
+    private final String id;
+    private final int defaultWindow;
+
+    IndicatorType(String id, int defaultWindow) {
+        this.id = id;
+        this.defaultWindow = defaultWindow;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getDefaultWindow() {
+        return defaultWindow;
+    }
+
+    /**
+     * Looks up an indicator by its id, ignoring case; {@code null} when there is none.
+     */
+    public static IndicatorType fromId(String id) {
+        for (IndicatorType type : values()) {
+            if (type.id.equalsIgnoreCase(id)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.financedataservice.model;
+
+/**
+ * Snapshot of the in-memory price cache counters exposed by {@code /cache/stats}.
+ *
+ * @param entries            symbols currently held in memory
+ * @param residentBytes      estimated heap used by the cached series
+ * @param maxBytes           configured weight bound
+ * @param hitCount           lookups served from memory
+ * @param missCount          lookups that had to load from the store
+ * @param hitRate            {@code hitCount / (hitCount + missCount)}, 1.0 before the first lookup
+ * @param evictionCount      series evicted to stay within {@code maxBytes}
+ * @param negativeEntries    symbols currently remembered as having no data
+ * @param negativeHitCount   lookups answered from the negative cache without touching the store
+ */
+public record PriceCacheStats(long entries,
+                              long residentBytes,
+                              long maxBytes,
+                              long hitCount,
+                              long missCount,
+                              double hitRate,
+                              long evictionCount,
+                              long negativeEntries,
+                              long negativeHitCount) {
+}
@@ -0,0 +1,33 @@
+package com.example.financedataservice.model;
+
+/**
+ * Bar size of a price response. Weekly bars start on Monday and monthly bars on the first day of the month; a bar is
+ * dated by the start of its period, so bars of different symbols line up.
+ */
+public enum PriceInterval {
+    DAILY("daily"),
+    WEEKLY("weekly"),
+    MONTHLY("monthly");
+
+    private final String id;
+
+    PriceInterval(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Looks up an interval by its id, ignoring case; {@code null} when there is none.
+     */
+    public static PriceInterval fromId(String id) {
+        for (PriceInterval interval : values()) {
+            if (interval.id.equalsIgnoreCase(id)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,479 @@
+package com.example.financedataservice.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Immutable, date-sorted price history of one symbol stored in parallel primitive arrays: epoch days plus
+ * fixed-point OHLC values and volumes. A row costs 46 bytes instead of a {@link PriceData} with its
+ * {@link BigDecimal}s, and range scans walk contiguous arrays. Updates go through {@link #merge(Collection)}, which
+ * returns a new series (copy-on-write), so readers never need locking.
+ * <p>
+ * Prices are kept with {@value #PRICE_SCALE} decimal places; {@link #MISSING} marks absent values. The decimal
+ * places each price arrived with are kept alongside (see {@link #packScales}), so {@code 2325.00} is served as
+ * {@code 2325.00} again; only digits beyond the sixth decimal place are rounded away. {@link PriceData} objects are
+ * only created at the API boundary.
+ */
+public final class PriceSeries {
+
+    public static final int PRICE_SCALE = 6;
+    public static final long MISSING = Long.MIN_VALUE;
+    public static final int OPEN = 0;
+    public static final int HIGH = 1;
+    public static final int LOW = 2;
+    public static final int CLOSE = 3;
+
+    private static final int[] NO_DAYS = new int[0];
+    private static final long[] NO_VALUES = new long[0];
+    private static final short[] NO_SCALES = new short[0];
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int SCALE_BITS = 3;
+    private static final int SCALE_MASK = (1 << SCALE_BITS) - 1;
+
+    private final String symbol;
+    private final PriceDataSource source;
+    private final int[] epochDays;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+    private final short[] scales;
+
+    private PriceSeries(String symbol, PriceDataSource source, int[] epochDays,
+                        long[] open, long[] high, long[] low, long[] close, long[] volume, short[] scales) {
+        this.symbol = symbol;
+        this.source = source;
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.scales = scales;
+    }
+
+    public static PriceSeries empty(String symbol, PriceDataSource source) {
+        return new PriceSeries(symbol, source, NO_DAYS, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES,
+            NO_SCALES);
+    }
+
+    /**
+     * Builds a series from {@code prices} in any order. Entries without a date are skipped and the last entry wins
+     * for duplicate dates.
+     */
+    public static PriceSeries of(String symbol, PriceDataSource source, Collection<PriceData> prices) {
+        return empty(symbol, source).merge(prices).series();
+    }
+
+    /**
+     * Wraps already sorted columns without copying them. The caller hands over ownership of the arrays.
+     * {@code scales} holds the {@link #packScales packed} decimal places of each row.
+     */
+    public static PriceSeries fromColumns(String symbol, PriceDataSource source, int[] epochDays,
+                                          long[] open, long[] high, long[] low, long[] close, long[] volume,
+                                          short[] scales) {
+        int size = epochDays.length;
+        if (open.length != size || high.length != size || low.length != size || close.length != size
+            || volume.length != size || scales.length != size) {
+            throw new IllegalArgumentException("Price series columns must have the same length");
+        }
+        for (int i = 1; i < size; i++) {
+            if (epochDays[i - 1] >= epochDays[i]) {
+                throw new IllegalArgumentException("Price series dates must be strictly increasing");
+            }
+        }
+        return new PriceSeries(symbol, source, epochDays, open, high, low, close, volume, scales);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public PriceDataSource getSource() {
+        return source;
+    }
+
+    public PriceSeries withSource(PriceDataSource newSource) {
+        return new PriceSeries(symbol, newSource, epochDays, open, high, low, close, volume, scales);
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public int epochDayAt(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public long openAt(int index) {
+        return open[index];
+    }
+
+    public long highAt(int index) {
+        return high[index];
+    }
+
+    public long lowAt(int index) {
+        return low[index];
+    }
+
+    public long closeAt(int index) {
+        return close[index];
+    }
+
+    public long volumeAt(int index) {
+        return volume[index];
+    }
+
+    /**
+     * Packed decimal places of the prices of row {@code index}; see {@link #scaleOf}.
+     */
+    public short scalesAt(int index) {
+        return scales[index];
+    }
+
+    public LocalDate firstDate() {
+        return isEmpty() ? null : dateAt(0);
+    }
+
+    public LocalDate lastDate() {
+        return isEmpty() ? null : dateAt(size() - 1);
+    }
+
+    /**
+     * Index of the first entry on or after {@code date}; {@link #size()} if there is none.
+     */
+    public int lowerBound(LocalDate date) {
+        return firstIndexOnOrAfter(date.toEpochDay());
+    }
+
+    /**
+     * Index just past the last entry on or before {@code date}.
+     */
+    public int upperBound(LocalDate date) {
+        return firstIndexOnOrAfter(date.toEpochDay() + 1);
+    }
+
+    /**
+     * Returns the entries between {@code from} and {@code to} (inclusive, either may be {@code null}) as a lazy list
+     * that creates {@link PriceData} objects on access. When {@code limit} is set only the most recent {@code limit}
+     * entries of the window are included.
+     */
+    public List<PriceData> window(LocalDate from, LocalDate to, Integer limit) {
+        int start = from == null ? 0 : lowerBound(from);
+        int end = to == null ? size() : upperBound(to);
+        if (limit != null && end - start > limit) {
+            start = end - limit;
+        }
+        return start >= end ? List.of() : new PriceDataView(start, end);
+    }
+
+    /**
+     * Returns the entries at {@code indices}, in the given order, as a lazy list like {@link #window}. The caller
+     * hands over ownership of the array.
+     */
+    public List<PriceData> rows(int[] indices) {
+        return new SelectedRowsView(indices);
+    }
+
+    public List<PriceData> toPriceData() {
+        return window(null, null, null);
+    }
+
+    public PriceData toPriceData(int index) {
+        long rowVolume = volume[index];
+        short rowScales = scales[index];
+        return new PriceData(
+            symbol,
+            dateAt(index),
+            decodePrice(open[index], scaleOf(rowScales, OPEN)),
+            decodePrice(high[index], scaleOf(rowScales, HIGH)),
+            decodePrice(low[index], scaleOf(rowScales, LOW)),
+            decodePrice(close[index], scaleOf(rowScales, CLOSE)),
+            rowVolume == MISSING ? null : rowVolume,
+            source
+        );
+    }
+
+    /**
+     * FNV-1a hash over every column of every row. It depends on the stored values only, so every process that holds
+     * the same history computes the same hash.
+     */
+    public long contentHash() {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < size(); i++) {
+            hash = mix(hash, epochDays[i]);
+            hash = mix(hash, open[i]);
+            hash = mix(hash, high[i]);
+            hash = mix(hash, low[i]);
+            hash = mix(hash, close[i]);
+            hash = mix(hash, volume[i]);
+            hash = mix(hash, scales[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Estimated heap footprint of the arrays backing this series.
+     */
+    public long residentBytes() {
+        return (long) size() * (Integer.BYTES + 5L * Long.BYTES + Short.BYTES);
+    }
+
+    /**
+     * Merges {@code prices} into a copy of this series. Entries whose date already exists with identical values are
+     * ignored, even if they are written with different decimal places; new or revised entries are recorded as
+     * changes. Returns this series unchanged when nothing differs.
+     */
+    public Merge merge(Collection<PriceData> prices) {
+        if (prices == null || prices.isEmpty()) {
+            return new Merge(this, 0, -1);
+        }
+
+        TreeMap<Integer, PriceData> incoming = new TreeMap<>();
+        PriceDataSource mergedSource = source;
+        for (PriceData price : prices) {
+            if (price == null || price.getDate() == null) {
+                continue;
+            }
+            incoming.put((int) price.getDate().toEpochDay(), price);
+            if (mergedSource == null && price.getSource() != null) {
+                mergedSource = price.getSource();
+            }
+        }
+
+        List<long[]> changes = new ArrayList<>();
+        int inserts = 0;
+        for (PriceData price : incoming.values()) {
+            long[] row = encodeRow(price);
+            int index = Arrays.binarySearch(epochDays, (int) row[0]);
+            if (index >= 0 && rowEquals(index, row)) {
+                continue;
+            }
+            if (index < 0) {
+                inserts++;
+            }
+            changes.add(row);
+        }
+        if (changes.isEmpty()) {
+            return new Merge(mergedSource == source ? this : withSource(mergedSource), 0, -1);
+        }
+
+        int newSize = size() + inserts;
+        int[] days = new int[newSize];
+        long[] opens = new long[newSize];
+        long[] highs = new long[newSize];
+        long[] lows = new long[newSize];
+        long[] closes = new long[newSize];
+        long[] volumes = new long[newSize];
+        short[] rowScales = new short[newSize];
+
+        int existing = 0;
+        int target = 0;
+        int firstChanged = -1;
+        for (long[] change : changes) {
+            int day = (int) change[0];
+            int end = firstIndexOnOrAfter(day, existing);
+            int unchanged = end - existing;
+            if (unchanged > 0) {
+                System.arraycopy(epochDays, existing, days, target, unchanged);
+                System.arraycopy(open, existing, opens, target, unchanged);
+                System.arraycopy(high, existing, highs, target, unchanged);
+                System.arraycopy(low, existing, lows, target, unchanged);
+                System.arraycopy(close, existing, closes, target, unchanged);
+                System.arraycopy(volume, existing, volumes, target, unchanged);
+                System.arraycopy(scales, existing, rowScales, target, unchanged);
+                target += unchanged;
+            }
+            existing = end < size() && epochDays[end] == day ? end + 1 : end;
+            if (firstChanged < 0) {
+                firstChanged = target;
+            }
+            days[target] = day;
+            opens[target] = change[1];
+            highs[target] = change[2];
+            lows[target] = change[3];
+            closes[target] = change[4];
+            volumes[target] = change[5];
+            rowScales[target] = (short) change[6];
+            target++;
+        }
+        int remaining = size() - existing;
+        if (remaining > 0) {
+            System.arraycopy(epochDays, existing, days, target, remaining);
+            System.arraycopy(open, existing, opens, target, remaining);
+            System.arraycopy(high, existing, highs, target, remaining);
+            System.arraycopy(low, existing, lows, target, remaining);
+            System.arraycopy(close, existing, closes, target, remaining);
+            System.arraycopy(volume, existing, volumes, target, remaining);
+            System.arraycopy(scales, existing, rowScales, target, remaining);
+        }
+
+        PriceSeries merged = new PriceSeries(symbol, mergedSource, days, opens, highs, lows, closes, volumes,
+            rowScales);
+        return new Merge(merged, changes.size(), firstChanged);
+    }
+
+    public static long encodePrice(BigDecimal value) {
+        if (value == null) {
+            return MISSING;
+        }
+        return value.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Decimal places {@code value} is stored with: its own scale, capped at {@value #PRICE_SCALE}.
+     */
+    public static int encodeScale(BigDecimal value) {
+        return value == null ? 0 : Math.min(Math.max(value.scale(), 0), PRICE_SCALE);
+    }
+
+    /**
+     * Packs the decimal places of a row's open, high, low and close into one value, three bits each.
+     */
+    public static short packScales(int open, int high, int low, int close) {
+        return (short) (open | high << SCALE_BITS | low << 2 * SCALE_BITS | close << 3 * SCALE_BITS);
+    }
+
+    /**
+     * Decimal places of {@code column} ({@link #OPEN}, {@link #HIGH}, {@link #LOW} or {@link #CLOSE}) in
+     * {@code packed}.
+     */
+    public static int scaleOf(short packed, int column) {
+        return packed >> column * SCALE_BITS & SCALE_MASK;
+    }
+
+    /**
+     * Returns {@code packed} with the decimal places of {@code column} replaced by {@code scale}.
+     */
+    public static short withScale(short packed, int column, int scale) {
+        int shift = column * SCALE_BITS;
+        return (short) (packed & ~(SCALE_MASK << shift) | scale << shift);
+    }
+
+    public static BigDecimal decodePrice(long value, int scale) {
+        if (value == MISSING) {
+            return null;
+        }
+        return BigDecimal.valueOf(value, PRICE_SCALE).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public static double toDouble(long value) {
+        return value == MISSING ? Double.NaN : value / 1_000_000d;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private int firstIndexOnOrAfter(long epochDay) {
+        return firstIndexOnOrAfter(epochDay, 0);
+    }
+
+    private int firstIndexOnOrAfter(long epochDay, int fromIndex) {
+        int lowIndex = fromIndex;
+        int highIndex = epochDays.length;
+        while (lowIndex < highIndex) {
+            int mid = (lowIndex + highIndex) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lowIndex = mid + 1;
+            } else {
+                highIndex = mid;
+            }
+        }
+        return lowIndex;
+    }
+
+    private long[] encodeRow(PriceData price) {
+        return new long[] {
+            price.getDate().toEpochDay(),
+            encodePrice(price.getOpen()),
+            encodePrice(price.getHigh()),
+            encodePrice(price.getLow()),
+            encodePrice(price.getClose()),
+            price.getVolume() == null ? MISSING : price.getVolume(),
+            packScales(encodeScale(price.getOpen()), encodeScale(price.getHigh()), encodeScale(price.getLow()),
+                encodeScale(price.getClose()))
+        };
+    }
+
+    private boolean rowEquals(int index, long[] row) {
+        return open[index] == row[1]
+            && high[index] == row[2]
+            && low[index] == row[3]
+            && close[index] == row[4]
+            && volume[index] == row[5];
+    }
+
+    /**
+     * Result of {@link #merge(Collection)}. {@code firstChangedIndex} is the index in the merged series of the
+     * earliest new or revised entry, or -1 when nothing changed; every entry before it is unchanged.
+     */
+    public record Merge(PriceSeries series, int changedCount, int firstChangedIndex) {
+
+        public boolean changed() {
+            return changedCount > 0;
+        }
+    }
+
+    private final class SelectedRowsView extends AbstractList<PriceData> implements RandomAccess {
+
+        private final int[] indices;
+
+        private SelectedRowsView(int[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        public PriceData get(int index) {
+            return toPriceData(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+
+    private final class PriceDataView extends AbstractList<PriceData> implements RandomAccess {
+
+        private final int start;
+        private final int end;
+
+        private PriceDataView(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public PriceData get(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return toPriceData(start + index);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
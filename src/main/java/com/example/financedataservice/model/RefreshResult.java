@@ -0,0 +1,65 @@
+package com.example.financedataservice.model;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of one refresh. A symbol that fails does not stop the others; it is retried in a later pass of the same
+ * refresh and listed as failed only when every pass failed.
+ *
+ * @param directory      directory the per-symbol files are stored in
+ * @param startedAt      start of the refresh
+ * @param elapsedMillis  wall-clock duration, retry passes included
+ * @param newDataPoints  data points added or revised across all symbols
+ * @param symbols        per-symbol outcomes, in the order the symbols were submitted
+ */
+public record RefreshResult(Path directory,
+                            Instant startedAt,
+                            long elapsedMillis,
+                            int newDataPoints,
+                            List<SymbolRefresh> symbols) {
+
+    public RefreshResult {
+        symbols = List.copyOf(symbols);
+    }
+
+    public int succeeded() {
+        return (int) symbols.stream().filter(SymbolRefresh::succeeded).count();
+    }
+
+    public int failed() {
+        return symbols.size() - succeeded();
+    }
+
+    public List<SymbolRefresh> failures() {
+        return symbols.stream().filter(symbol -> !symbol.succeeded()).toList();
+    }
+
+    /**
+     * Outcomes of the symbols of {@code provider}, a provider id such as {@code twelve-data}.
+     */
+    public List<SymbolRefresh> symbolsOf(String provider) {
+        return symbols.stream().filter(symbol -> symbol.provider().equals(provider)).toList();
+    }
+
+    /**
+     * @param symbol         symbol refreshed
+     * @param provider       provider id it was fetched from
+     * @param attempts       passes it took part in, 1 when the first pass settled it
+     * @param latencyMillis  time from the start of its last fetch until its data was persisted or the fetch failed
+     * @param newDataPoints  data points added or revised, 0 on failure
+     * @param error          failure message of the last pass, {@code null} on success
+     */
+    public record SymbolRefresh(String symbol,
+                                String provider,
+                                int attempts,
+                                long latencyMillis,
+                                int newDataPoints,
+                                String error) {
+
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+}
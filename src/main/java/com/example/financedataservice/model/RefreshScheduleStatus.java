@@ -0,0 +1,30 @@
+package com.example.financedataservice.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Scheduling state of one provider exposed by {@code /refresh/schedule}.
+ *
+ * @param provider         provider id, e.g. {@code twelve-data}
+ * @param cron             configured cron expression, {@code -} when the provider is not scheduled
+ * @param running          whether a refresh of this provider is in progress
+ * @param nextRun          when the next scheduled refresh fires (jitter included), {@code null} if none is pending
+ * @param lastStarted      start of the most recent refresh
+ * @param lastSucceeded    completion of the most recent successful refresh, restored from disk after a restart
+ * @param lastFailed       completion of the most recent failed refresh
+ * @param lastError        message of the most recent failure
+ * @param failedSymbols    symbols that still failed after the retry passes of the most recent refresh
+ * @param skippedOverlaps  scheduled runs skipped because the previous refresh was still running
+ */
+public record RefreshScheduleStatus(String provider,
+                                    String cron,
+                                    boolean running,
+                                    Instant nextRun,
+                                    Instant lastStarted,
+                                    Instant lastSucceeded,
+                                    Instant lastFailed,
+                                    String lastError,
+                                    List<String> failedSymbols,
+                                    long skippedOverlaps) {
+}
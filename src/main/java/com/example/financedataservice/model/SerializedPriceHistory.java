@@ -0,0 +1,16 @@
+package com.example.financedataservice.model;
+
+/**
+ * A symbol's full history rendered once as a JSON array, plus a gzip-compressed copy when compression is enabled.
+ * {@code version} is the {@link DataVersion} the bytes were produced from.
+ */
+public record SerializedPriceHistory(DataVersion version, byte[] json, byte[] gzip) {
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public long sizeInBytes() {
+        return (long) json.length + (gzip == null ? 0 : gzip.length);
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.financedataservice.scheduler;
+
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.RefreshResult.SymbolRefresh;
+import com.example.financedataservice.model.RefreshScheduleStatus;
+import com.example.financedataservice.service.FinanceDataService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Triggers incremental refreshes per provider on a cron schedule so a long-running instance keeps its data current
+ * without restarts.
+ * <ul>
+ *     <li>Every provider has its own cron ({@code alpha-vantage.refresh-cron}, {@code twelve-data.refresh-cron});
+ *     {@code -} leaves a provider unscheduled.</li>
+ *     <li>Each run is delayed by a random jitter of up to {@code finance.refresh.schedule.jitter-ms} so replicas do not
+ *     hit the providers in lockstep.</li>
+ *     <li>A run that fires while the previous refresh of the same provider is still in progress is skipped.</li>
+ *     <li>The last successful run per provider is persisted, so after downtime the startup refresh only covers
+ *     providers that missed a scheduled run (see {@link #providersDueAtStartup()}).</li>
+ *     <li>A refresh in which only some symbols of a provider failed counts as successful for that provider; the
+ *     failed symbols are listed in its status. It counts as failed only when every symbol of the provider failed.</li>
+ * </ul>
+ */
+@Component
+public class RefreshScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshScheduler.class);
+    private static final String DISABLED = "-";
+
+    private final FinanceDataService financeDataService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final Duration jitter;
+    private final Path stateFile;
+    private final Clock clock;
+    private final Map<DataProvider, ProviderSchedule> schedules = new EnumMap<>(DataProvider.class);
+    private final Object stateLock = new Object();
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    @Autowired
+    public RefreshScheduler(FinanceDataService financeDataService,
+                            ObjectMapper objectMapper,
+                            @Value("${finance.refresh.schedule.enabled:true}") boolean enabled,
+                            @Value("${alpha-vantage.refresh-cron:0 0 23 * * MON-FRI}") String alphaVantageCron,
+                            @Value("${twelve-data.refresh-cron:0 */30 13-21 * * MON-FRI}") String twelveDataCron,
+                            @Value("${finance.refresh.schedule.zone:UTC}") String zone,
+                            @Value("${finance.refresh.schedule.jitter-ms:30000}") long jitterMs,
+                            @Value("${finance.data.base-dir:data}") String baseDirectory) {
+        this(financeDataService, objectMapper, enabled,
+            Map.of(DataProvider.ALPHA_VANTAGE, alphaVantageCron, DataProvider.TWELVE_DATA, twelveDataCron),
+            ZoneId.of(zone), Duration.ofMillis(Math.max(jitterMs, 0)),
+            Paths.get(baseDirectory).resolve(".refresh-schedule.json"), Clock.systemUTC());
+    }
+
+    RefreshScheduler(FinanceDataService financeDataService,
+                     ObjectMapper objectMapper,
+                     boolean enabled,
+                     Map<DataProvider, String> crons,
+                     ZoneId zone,
+                     Duration jitter,
+                     Path stateFile,
+                     Clock clock) {
+        this.financeDataService = financeDataService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.zone = zone;
+        this.jitter = jitter;
+        this.stateFile = stateFile;
+        this.clock = clock;
+        Map<String, Instant> lastSucceeded = readState();
+        for (DataProvider provider : DataProvider.values()) {
+            String cron = crons.getOrDefault(provider, DISABLED);
+            ProviderSchedule schedule = new ProviderSchedule(provider, cron, parseCron(provider, cron));
+            schedule.lastSucceeded = lastSucceeded.get(provider.getId());
+            schedules.put(provider, schedule);
+        }
+    }
+
+    /**
+     * Providers the startup refresh has to cover: all of them when scheduling is off, otherwise those that are not
+     * scheduled, have never completed a refresh, or missed a scheduled run since their last successful one.
+     */
+    public Set<DataProvider> providersDueAtStartup() {
+        if (!enabled) {
+            return EnumSet.allOf(DataProvider.class);
+        }
+        Set<DataProvider> due = EnumSet.noneOf(DataProvider.class);
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(zone));
+        for (ProviderSchedule schedule : schedules.values()) {
+            if (schedule.expression == null || schedule.lastSucceeded == null) {
+                due.add(schedule.provider);
+                continue;
+            }
+            ZonedDateTime missed = schedule.expression.next(schedule.lastSucceeded.atZone(zone));
+            if (missed != null && !missed.isAfter(now)) {
+                log.info("{} missed its scheduled refresh at {}; catching up", schedule.provider.getId(), missed);
+                due.add(schedule.provider);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Refreshes {@code providers} right away, recording the run like a scheduled one. Providers whose refresh is
+     * already running are left out. Returns {@code null} when all of them are.
+     */
+    public RefreshResult refreshNow(Set<DataProvider> providers) {
+        Set<DataProvider> claimed = EnumSet.noneOf(DataProvider.class);
+        for (DataProvider provider : providers) {
+            if (schedules.get(provider).inProgress.compareAndSet(false, true)) {
+                claimed.add(provider);
+            } else {
+                log.info("Refresh of {} already in progress; not starting another", provider.getId());
+            }
+        }
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        Instant startedAt = clock.instant();
+        claimed.forEach(provider -> schedules.get(provider).lastStarted = startedAt);
+        try {
+            RefreshResult result = financeDataService.refreshProviders(claimed);
+            Instant finishedAt = clock.instant();
+            claimed.forEach(provider -> record(schedules.get(provider), result, finishedAt));
+            writeState();
+            return result;
+        } catch (RuntimeException e) {
+            Instant failedAt = clock.instant();
+            for (DataProvider provider : claimed) {
+                ProviderSchedule schedule = schedules.get(provider);
+                schedule.lastFailed = failedAt;
+                schedule.lastError = e.getMessage();
+            }
+            throw e;
+        } finally {
+            claimed.forEach(provider -> schedules.get(provider).inProgress.set(false));
+        }
+    }
+
+    public List<RefreshScheduleStatus> getStatus() {
+        List<RefreshScheduleStatus> status = new ArrayList<>(schedules.size());
+        for (ProviderSchedule schedule : schedules.values()) {
+            status.add(new RefreshScheduleStatus(
+                schedule.provider.getId(),
+                schedule.cron,
+                schedule.inProgress.get(),
+                schedule.nextRun,
+                schedule.lastStarted,
+                schedule.lastSucceeded,
+                schedule.lastFailed,
+                schedule.lastError,
+                schedule.failedSymbols,
+                schedule.skippedOverlaps.get()
+            ));
+        }
+        return status;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (!enabled) {
+            log.info("Scheduled refreshes disabled");
+            return;
+        }
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(schedules.size(), runnable -> {
+            Thread thread = new Thread(runnable, "refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        executor = pool;
+        schedules.values().forEach(this::scheduleNext);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        schedules.values().forEach(schedule -> schedule.nextRun = null);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs a scheduled refresh of {@code provider}. The following run is scheduled first so a slow refresh keeps the
+     * cadence; if it is still running when that run fires, the run is skipped.
+     */
+    void runScheduled(DataProvider provider) {
+        ProviderSchedule schedule = schedules.get(provider);
+        scheduleNext(schedule);
+        if (schedule.inProgress.get()) {
+            long skipped = schedule.skippedOverlaps.incrementAndGet();
+            log.warn("Skipping scheduled refresh of {}: previous refresh still running ({} skipped so far)",
+                provider.getId(), skipped);
+            return;
+        }
+        try {
+            RefreshResult result = refreshNow(EnumSet.of(provider));
+            if (result != null) {
+                log.info("Scheduled refresh of {} completed: {} symbols refreshed, {} failed", provider.getId(),
+                    result.succeeded(), result.failed());
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduled refresh of {} failed", provider.getId(), e);
+        }
+    }
+
+    private static void record(ProviderSchedule schedule, RefreshResult result, Instant finishedAt) {
+        List<SymbolRefresh> symbols = result.symbolsOf(schedule.provider.getId());
+        List<SymbolRefresh> failures = symbols.stream().filter(symbol -> !symbol.succeeded()).toList();
+        schedule.failedSymbols = failures.stream().map(SymbolRefresh::symbol).toList();
+        if (symbols.isEmpty() || failures.size() < symbols.size()) {
+            schedule.lastSucceeded = finishedAt;
+            return;
+        }
+        SymbolRefresh first = failures.get(0);
+        schedule.lastFailed = finishedAt;
+        schedule.lastError = "All " + failures.size() + " symbols failed; " + first.symbol() + ": " + first.error();
+    }
+
+    private synchronized void scheduleNext(ProviderSchedule schedule) {
+        if (executor == null || schedule.expression == null) {
+            schedule.nextRun = null;
+            return;
+        }
+        ZonedDateTime next = schedule.expression.next(ZonedDateTime.now(clock.withZone(zone)));
+        if (next == null) {
+            schedule.nextRun = null;
+            return;
+        }
+        long jitterMillis = jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        Instant fireAt = next.toInstant().plusMillis(jitterMillis);
+        long delayMillis = Math.max(Duration.between(clock.instant(), fireAt).toMillis(), 0);
+        schedule.nextRun = fireAt;
+        executor.schedule(() -> runScheduled(schedule.provider), delayMillis, TimeUnit.MILLISECONDS);
+        log.debug("Next {} refresh at {}", schedule.provider.getId(), fireAt);
+    }
+
+    private Map<String, Instant> readState() {
+        if (!Files.exists(stateFile)) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(stateFile.toFile(), new TypeReference<LinkedHashMap<String, Instant>>() {
+            });
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable refresh schedule state {}: {}", stateFile, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void writeState() {
+        Map<String, Instant> state = new LinkedHashMap<>();
+        schedules.values().forEach(schedule -> {
+            if (schedule.lastSucceeded != null) {
+                state.put(schedule.provider.getId(), schedule.lastSucceeded);
+            }
+        });
+        synchronized (stateLock) {
+            try {
+                Path directory = stateFile.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+                Path tempFile = Files.createTempFile(directory, ".refresh-schedule-", ".json");
+                try {
+                    objectMapper.writeValue(tempFile.toFile(), state);
+                    try {
+                        Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                        Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to persist refresh schedule state to {}: {}", stateFile, e.getMessage());
+            }
+        }
+    }
+
+    private static CronExpression parseCron(DataProvider provider, String cron) {
+        if (cron == null || cron.isBlank() || DISABLED.equals(cron.trim())) {
+            return null;
+        }
+        try {
+            return CronExpression.parse(cron.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid refresh cron for " + provider.getId() + ": " + cron, e);
+        }
+    }
+
+    private static final class ProviderSchedule {
+
+        private final DataProvider provider;
+        private final String cron;
+        private final CronExpression expression;
+        private final AtomicBoolean inProgress = new AtomicBoolean();
+        private final AtomicLong skippedOverlaps = new AtomicLong();
+        private volatile Instant nextRun;
+        private volatile Instant lastStarted;
+        private volatile Instant lastSucceeded;
+        private volatile Instant lastFailed;
+        private volatile String lastError;
+        private volatile List<String> failedSymbols = List.of();
+
+        private ProviderSchedule(DataProvider provider, String cron, CronExpression expression) {
+            this.provider = provider;
+            this.cron = expression == null ? DISABLED : cron.trim();
+            this.expression = expression;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.CorrelationMatrix;
+import com.example.financedataservice.model.PriceSeries;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Computes log-return covariance and correlation matrices over the dates all series have a close for. The returns
+ * of each symbol are held in one {@code double[]} and demeaned once, so every matrix cell is a single dot product;
+ * both the per-symbol returns and the {@code n (n + 1) / 2} symbol pairs are split across a {@link ForkJoinPool}.
+ */
+final class CorrelationCalculator {
+
+    // Multiply-adds per leaf task; smaller ranges run inline instead of forking further.
+    private static final long LEAF_WORK = 1L << 16;
+
+    private CorrelationCalculator() {
+    }
+
+    /**
+     * @param series   series to correlate; every one must contain data
+     * @param missing  requested symbols without data, passed through to the result
+     * @param from     first date to consider, {@code null} for the whole history
+     * @param to       last date to consider, {@code null} for the whole history
+     */
+    static CorrelationMatrix compute(List<PriceSeries> series, List<String> missing, LocalDate from, LocalDate to,
+                                     ForkJoinPool pool) {
+        int n = series.size();
+        List<String> symbols = new ArrayList<>(n);
+        series.forEach(s -> symbols.add(s.getSymbol()));
+
+        int[] commonDays = commonDays(series, from, to);
+        int observations = Math.max(commonDays.length - 1, 0);
+        double[] means = new double[n];
+        double[] volatilities = new double[n];
+        double[][] covariance = new double[n][n];
+        double[][] correlation = new double[n][n];
+        LocalDate first = commonDays.length == 0 ? null : LocalDate.ofEpochDay(commonDays[0]);
+        LocalDate last = commonDays.length == 0 ? null : LocalDate.ofEpochDay(commonDays[commonDays.length - 1]);
+        if (observations < 2) {
+            return new CorrelationMatrix(symbols, missing, first, last, observations, means, volatilities,
+                covariance, correlation);
+        }
+
+        double[][] demeaned = new double[n][];
+        pool.invoke(new RangeAction(0, n, Math.max(LEAF_WORK / observations, 1), i -> {
+            double[] returns = logReturns(series.get(i), commonDays);
+            double mean = 0;
+            for (double value : returns) {
+                mean += value;
+            }
+            mean /= returns.length;
+            for (int t = 0; t < returns.length; t++) {
+                returns[t] -= mean;
+            }
+            means[i] = mean;
+            demeaned[i] = returns;
+        }));
+
+        // Upper triangle including the diagonal, flattened row by row; row i starts at rowOffsets[i].
+        int[] rowOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            rowOffsets[i + 1] = rowOffsets[i] + n - i;
+        }
+        int denominator = observations - 1;
+        pool.invoke(new RangeAction(0, rowOffsets[n], Math.max(LEAF_WORK / observations, 1), pair -> {
+            int i = rowOf(rowOffsets, pair);
+            int j = i + pair - rowOffsets[i];
+            double[] x = demeaned[i];
+            double[] y = demeaned[j];
+            double sum = 0;
+            for (int t = 0; t < observations; t++) {
+                sum += x[t] * y[t];
+            }
+            double value = sum / denominator;
+            covariance[i][j] = value;
+            covariance[j][i] = value;
+        }));
+
+        for (int i = 0; i < n; i++) {
+            volatilities[i] = Math.sqrt(covariance[i][i]);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double scale = volatilities[i] * volatilities[j];
+                correlation[i][j] = i == j ? 1 : scale > 0 ? clamp(covariance[i][j] / scale) : 0;
+            }
+        }
+        return new CorrelationMatrix(symbols, missing, first, last, observations, means, volatilities, covariance,
+            correlation);
+    }
+
+    /**
+     * Epoch days between {@code from} and {@code to} on which every series has a close, intersected pairwise over
+     * the sorted date columns.
+     */
+    static int[] commonDays(List<PriceSeries> series, LocalDate from, LocalDate to) {
+        if (series.isEmpty()) {
+            return new int[0];
+        }
+        int[] common = null;
+        for (PriceSeries s : series) {
+            int start = from == null ? 0 : s.lowerBound(from);
+            int end = to == null ? s.size() : s.upperBound(to);
+            int[] days = new int[Math.max(end - start, 0)];
+            int size = 0;
+            int k = 0;
+            for (int i = start; i < end; i++) {
+                if (s.closeAt(i) == PriceSeries.MISSING) {
+                    continue;
+                }
+                int day = s.epochDayAt(i);
+                if (common == null) {
+                    days[size++] = day;
+                    continue;
+                }
+                while (k < common.length && common[k] < day) {
+                    k++;
+                }
+                if (k < common.length && common[k] == day) {
+                    days[size++] = day;
+                }
+            }
+            common = Arrays.copyOf(days, size);
+            if (size == 0) {
+                break;
+            }
+        }
+        return common;
+    }
+
+    private static double[] logReturns(PriceSeries series, int[] commonDays) {
+        double[] returns = new double[commonDays.length - 1];
+        int index = series.lowerBound(LocalDate.ofEpochDay(commonDays[0]));
+        double previous = Math.log(series.closeAt(index));
+        for (int t = 1; t < commonDays.length; t++) {
+            while (series.epochDayAt(index) < commonDays[t]) {
+                index++;
+            }
+            double current = Math.log(series.closeAt(index));
+            returns[t - 1] = current - previous;
+            previous = current;
+        }
+        return returns;
+    }
+
+    private static int rowOf(int[] rowOffsets, int pair) {
+        int index = Arrays.binarySearch(rowOffsets, pair);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(-1, Math.min(1, value));
+    }
+
+    /**
+     * Runs {@code body} for every index in {@code [from, to)}, halving the range until it holds at most
+     * {@code leafSize} indices.
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final long leafSize;
+        private final IntConsumer body;
+
+        private RangeAction(int from, int to, long leafSize, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, leafSize, body), new RangeAction(mid, to, leafSize, body));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.CorrelationMatrix;
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.PriceSeries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Correlates the daily log returns of several symbols on a dedicated {@link ForkJoinPool} sized by
+ * {@code finance.correlation.parallelism} (0 uses every core). Results are memoized per symbol list and date range
+ * together with the {@link DataVersion}s they were computed from, so a repeated request is answered from memory until
+ * a refresh changes one of the symbols.
+ */
+@Service
+public class CorrelationService implements AutoCloseable {
+
+    public static final int MAX_SYMBOLS = 500;
+
+    private final FinanceDataService financeDataService;
+    private final ForkJoinPool pool;
+    private final Cache<Key, Entry> results;
+
+    @Autowired
+    public CorrelationService(FinanceDataService financeDataService,
+                              @Value("${finance.correlation.parallelism:0}") int parallelism,
+                              @Value("${finance.correlation.max-entries:32}") long maxEntries) {
+        this.financeDataService = financeDataService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("correlation-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        this.results = Caffeine.newBuilder()
+            .maximumSize(Math.max(maxEntries, 0))
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Returns the log-return statistics of {@code symbols} between {@code from} and {@code to} (either may be
+     * {@code null}). An empty {@code symbols} selects the managed universe, i.e. gold plus the configured stocks.
+     * Symbols without stored prices are reported in {@link CorrelationMatrix#missingSymbols()}.
+     */
+    public CorrelationMatrix getCorrelations(Collection<String> symbols, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String symbol : symbols == null || symbols.isEmpty() ? financeDataService.getManagedSymbols() : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                normalized.add(symbol.trim().toUpperCase());
+            }
+        }
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol must be provided");
+        }
+        if (normalized.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + MAX_SYMBOLS + " symbols can be correlated at once");
+        }
+
+        List<DataVersion> versions = new ArrayList<>(normalized.size());
+        normalized.forEach(symbol -> versions.add(financeDataService.getDataVersion(symbol)));
+        Key key = new Key(List.copyOf(normalized), from, to);
+        Entry cached = results.getIfPresent(key);
+        if (cached != null && cached.versions().equals(versions)) {
+            return cached.matrix();
+        }
+        return results.asMap().compute(key, (ignored, current) ->
+            current != null && current.versions().equals(versions)
+                ? current
+                : new Entry(versions, compute(key.symbols(), versions, from, to))).matrix();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private CorrelationMatrix compute(List<String> symbols, List<DataVersion> versions, LocalDate from,
+                                      LocalDate to) {
+        List<PriceSeries> series = new ArrayList<>(symbols.size());
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            PriceSeries loaded = versions.get(i) == null ? null : financeDataService.getPriceSeries(symbols.get(i));
+            if (loaded == null || loaded.isEmpty()) {
+                missing.add(symbols.get(i));
+            } else {
+                series.add(loaded);
+            }
+        }
+        return CorrelationCalculator.compute(series, missing, from, to, pool);
+    }
+
+    private record Key(List<String> symbols, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * A computed matrix with the versions of every requested symbol, {@code null} for symbols without data.
+     */
+    private record Entry(List<DataVersion> versions, CorrelationMatrix matrix) {
+    }
+}
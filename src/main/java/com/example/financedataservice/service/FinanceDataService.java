@@ -1,35 +1,62 @@
 package com.example.financedataservice.service;
 
 import com.example.financedataservice.client.AlphaVantageClient;
+import com.example.financedataservice.client.DataProvider;
 import com.example.financedataservice.client.FinanceDataClientException;
+import com.example.financedataservice.client.RateLimitedException;
 import com.example.financedataservice.client.TwelveDataClient;
+import com.example.financedataservice.config.Spans;
 import com.example.financedataservice.config.StockConfig;
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.PriceCacheStats;
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
-import com.example.financedataservice.model.SymbolPriceHistory;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.PriceSeries;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.RefreshResult.SymbolRefresh;
+import com.example.financedataservice.model.SerializedPriceHistory;
+import com.example.financedataservice.store.JsonPriceStore;
+import com.example.financedataservice.store.MappedPriceReader;
+import com.example.financedataservice.store.PriceStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import java.io.IOException;
-import java.nio.file.AtomicMoveNotSupportedException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -38,109 +65,390 @@ import org.springframework.stereotype.Service;
 public class FinanceDataService {
 
     private static final Logger log = LoggerFactory.getLogger(FinanceDataService.class);
+    static final String REFRESH_TIMER = "finance.refresh.duration";
+    static final String REFRESH_LOCK_WAIT_TIMER = "finance.refresh.lock.wait";
+    static final String REFRESH_DATA_POINTS = "finance.refresh.data.points";
+    static final String REFRESH_SYMBOL_FAILURES = "finance.refresh.symbol.failures";
     private static final String GOLD_SYMBOL = "XAUUSD";
 
     private final AlphaVantageClient alphaVantageClient;
     private final TwelveDataClient twelveDataClient;
     private final StockConfig stockConfig;
-    private final ObjectMapper objectMapper;
+    private final PriceStore priceStore;
     private final Path baseDirectory;
-    private final Duration twelveDataRequestDelay;
+    private final RefreshPipeline refreshPipeline;
     private final boolean twelveDataEnabled;
+    private final MappedPriceReader mappedPriceReader;
     private final ReentrantLock refreshLock = new ReentrantLock();
-    private final Map<String, NavigableMap<LocalDate, PriceData>> priceCache = new ConcurrentHashMap<>();
+    private final PriceCache priceCache;
+    private final SerializedPriceCache serializedPriceCache;
+    private final IndicatorCache indicatorCache;
+    private final ResampledPriceCache resampledPriceCache;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Map<String, Object> mergeLocks = new ConcurrentHashMap<>();
+    private final Map<String, DataVersion> dataVersions = new ConcurrentHashMap<>();
 
     @Autowired
     public FinanceDataService(AlphaVantageClient alphaVantageClient,
                               TwelveDataClient twelveDataClient,
                               StockConfig stockConfig,
-                              ObjectMapper objectMapper,
+                              PriceStore priceStore,
                               @Value("${finance.data.base-dir:data}") String baseDirectory,
-                              @Value("${twelve-data.request-delay-ms:500}") long twelveDataRequestDelayMs,
-                              @Value("${twelve-data.enabled:true}") boolean twelveDataEnabled) {
-        this(alphaVantageClient, twelveDataClient, stockConfig, objectMapper, baseDirectory,
-            Duration.ofMillis(Math.max(twelveDataRequestDelayMs, 0)), twelveDataEnabled);
+                              RefreshPipeline refreshPipeline,
+                              @Value("${twelve-data.enabled:true}") boolean twelveDataEnabled,
+                              ObjectProvider<MappedPriceReader> mappedPriceReader,
+                              PriceCache priceCache,
+                              SerializedPriceCache serializedPriceCache,
+                              IndicatorCache indicatorCache,
+                              ResampledPriceCache resampledPriceCache,
+                              MeterRegistry meterRegistry,
+                              ObjectProvider<Tracer> tracer) {
+        this(alphaVantageClient, twelveDataClient, stockConfig, priceStore, baseDirectory, refreshPipeline,
+            twelveDataEnabled, mappedPriceReader.getIfAvailable(), priceCache, serializedPriceCache, indicatorCache,
+            resampledPriceCache, meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP));
     }
 
     FinanceDataService(AlphaVantageClient alphaVantageClient,
                        TwelveDataClient twelveDataClient,
                        StockConfig stockConfig,
-                       ObjectMapper objectMapper,
+                       PriceStore priceStore,
                        String baseDirectory,
-                       Duration twelveDataRequestDelay,
-                       boolean twelveDataEnabled) {
+                       RefreshPipeline refreshPipeline,
+                       boolean twelveDataEnabled,
+                       MappedPriceReader mappedPriceReader,
+                       PriceCache priceCache,
+                       SerializedPriceCache serializedPriceCache,
+                       IndicatorCache indicatorCache,
+                       ResampledPriceCache resampledPriceCache,
+                       MeterRegistry meterRegistry,
+                       Tracer tracer) {
         this.alphaVantageClient = alphaVantageClient;
         this.twelveDataClient = twelveDataClient;
         this.stockConfig = stockConfig;
-        this.objectMapper = objectMapper.copy()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.priceStore = priceStore;
         this.baseDirectory = Paths.get(baseDirectory);
-        this.twelveDataRequestDelay = twelveDataRequestDelay;
+        this.refreshPipeline = refreshPipeline;
         this.twelveDataEnabled = twelveDataEnabled;
+        this.mappedPriceReader = mappedPriceReader;
+        this.priceCache = priceCache;
+        this.serializedPriceCache = serializedPriceCache;
+        this.indicatorCache = indicatorCache;
+        this.resampledPriceCache = resampledPriceCache;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
     }
 
-    public Path refreshDailyData() {
-        refreshLock.lock();
-        try {
-            ensureBaseDirectory();
+    FinanceDataService(AlphaVantageClient alphaVantageClient,
+                       TwelveDataClient twelveDataClient,
+                       StockConfig stockConfig,
+                       ObjectMapper objectMapper,
+                       String baseDirectory,
+                       boolean twelveDataEnabled) {
+        this(alphaVantageClient, twelveDataClient, stockConfig, new JsonPriceStore(Paths.get(baseDirectory), objectMapper),
+            baseDirectory, new RefreshPipeline(), twelveDataEnabled, (MappedPriceReader) null,
+            PriceCache.withDefaults(), new SerializedPriceCache(objectMapper, 67_108_864L, true),
+            new IndicatorCache(33_554_432L), new ResampledPriceCache(33_554_432L), new SimpleMeterRegistry(),
+            Tracer.NOOP);
+    }
 
-            int newDataPoints = 0;
+    /**
+     * Fetches fresh prices from every provider and merges them into the cache and the per-symbol files. Providers are
+     * fetched concurrently, each paced by its own rate limiter, and every symbol is merged and persisted as soon as
+     * its fetch completes. Symbols that already have local data only request dates from their latest stored entry
+     * onward. A symbol that fails does not affect the others; it is fetched again in the retry passes of
+     * {@link RefreshPipeline} and reported as failed in the result only if those fail as well.
+     */
+    public RefreshResult refreshDailyData() {
+        return refreshProviders(EnumSet.allOf(DataProvider.class));
+    }
 
-            int goldDays = stockConfig.getGoldDays();
-            if (goldDays > 0) {
-                List<PriceData> goldHistory = alphaVantageClient.fetchGoldPriceHistory(goldDays);
-                newDataPoints += mergeAndPersist(GOLD_SYMBOL, goldHistory);
-            } else {
-                log.info("Gold lookback configured to {} days; skipping AlphaVantage fetch", goldDays);
+    /**
+     * Runs {@link #refreshDailyData()} for the given providers only, e.g. for a scheduled intraday refresh of the
+     * stock quotes that leaves the gold series alone. Records the time spent waiting for a refresh already in progress
+     * and the duration of the refresh itself, tagged by the refreshed providers; the duration's {@code outcome} is
+     * {@code partial} when only some symbols failed.
+     */
+    public RefreshResult refreshProviders(Set<DataProvider> providers) {
+        String providerTag = providers.stream().sorted().map(DataProvider::getId).collect(Collectors.joining(","));
+        long waitStartedAt = System.nanoTime();
+        refreshLock.lock();
+        long lockedAt = System.nanoTime();
+        meterRegistry.timer(REFRESH_LOCK_WAIT_TIMER, "providers", providerTag)
+            .record(lockedAt - waitStartedAt, TimeUnit.NANOSECONDS);
+        String outcome = "failure";
+        try {
+            RefreshResult result = Spans.trace(tracer, "refresh", span -> {
+                span.tag("providers", providerTag);
+                RefreshResult refreshed = refresh(providers);
+                span.tag("data.points", refreshed.newDataPoints());
+                span.tag("symbols.failed", refreshed.failed());
+                return refreshed;
+            });
+            for (SymbolRefresh failure : result.failures()) {
+                log.warn("Giving up on {} from {} after {} attempts: {}", failure.symbol(), failure.provider(),
+                    failure.attempts(), failure.error());
+                meterRegistry.counter(REFRESH_SYMBOL_FAILURES, "provider", failure.provider()).increment();
             }
-
-            if (!twelveDataEnabled) {
-                log.info("Twelve Data integration disabled; skipping stock price retrieval");
-            } else {
-                List<String> symbols = Optional.ofNullable(stockConfig.getSymbols()).orElse(Collections.emptyList());
-                int days = stockConfig.getDays();
-                for (int i = 0; i < symbols.size(); i++) {
-                    if (i > 0) {
-                        sleepBetweenTwelveDataCalls();
-                    }
-                    String symbol = symbols.get(i);
-                    if (!stringHasText(symbol)) {
-                        continue;
-                    }
-                    if (days <= 0) {
-                        log.warn("Days configuration is {}. Skipping Twelve Data fetch for {}", days, symbol);
-                        continue;
-                    }
-                    List<PriceData> history = twelveDataClient.fetchHistoricalPrices(symbol, days);
-                    newDataPoints += mergeAndPersist(symbol, history);
-                }
+            log.info("Completed data refresh. {} new data points persisted; {} of {} symbols failed.",
+                result.newDataPoints(), result.failed(), result.symbols().size());
+            meterRegistry.counter(REFRESH_DATA_POINTS, "providers", providerTag).increment(result.newDataPoints());
+            if (result.failed() == 0) {
+                outcome = "success";
+            } else if (result.succeeded() > 0) {
+                outcome = "partial";
             }
-
-            log.info("Completed data refresh. {} new data points persisted.", newDataPoints);
-            return baseDirectory;
+            return result;
         } catch (FinanceDataClientException clientException) {
             throw clientException;
         } catch (Exception e) {
             throw new IllegalStateException("Failed to refresh price data", e);
         } finally {
             refreshLock.unlock();
+            meterRegistry.timer(REFRESH_TIMER, "providers", providerTag, "outcome", outcome)
+                .record(System.nanoTime() - lockedAt, TimeUnit.NANOSECONDS);
         }
     }
 
+    /**
+     * Refreshes every symbol of {@code providers}, then runs the configured retry passes over the symbols that
+     * failed. The outcome of a symbol's last pass replaces the earlier ones.
+     */
+    private RefreshResult refresh(Set<DataProvider> providers) throws IOException {
+        Instant refreshStartedAt = Instant.now();
+        long startedNanos = System.nanoTime();
+        ensureBaseDirectory();
+
+        Map<String, SymbolRefresh> outcomes = new LinkedHashMap<>();
+        awaitRefreshes(startRefreshes(providers))
+            .forEach(outcome -> outcomes.put(outcome.provider() + ':' + outcome.symbol(), outcome));
+        for (int pass = 2; pass <= refreshPipeline.retryPasses() + 1; pass++) {
+            List<SymbolRefresh> failed = outcomes.values().stream().filter(outcome -> !outcome.succeeded()).toList();
+            if (failed.isEmpty()) {
+                break;
+            }
+            log.info("Retrying {} failed symbols (pass {}): {}", failed.size(), pass,
+                failed.stream().map(SymbolRefresh::symbol).collect(Collectors.joining(", ")));
+            pauseBeforeRetryPass();
+            List<CompletableFuture<List<SymbolRefresh>>> retries = new ArrayList<>(failed.size());
+            for (SymbolRefresh failure : failed) {
+                retries.add(retrySymbol(failure).thenApply(List::of));
+            }
+            int attempt = pass;
+            awaitRefreshes(retries).forEach(outcome -> outcomes.put(outcome.provider() + ':' + outcome.symbol(),
+                withAttempts(outcome, attempt)));
+        }
+
+        int newDataPoints = outcomes.values().stream().mapToInt(SymbolRefresh::newDataPoints).sum();
+        return new RefreshResult(baseDirectory, refreshStartedAt,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos), newDataPoints,
+            List.copyOf(outcomes.values()));
+    }
+
+    /**
+     * Submits the fetch and merge of every symbol of {@code providers} to the refresh pipeline.
+     */
+    private List<CompletableFuture<List<SymbolRefresh>>> startRefreshes(Set<DataProvider> providers) {
+        List<CompletableFuture<List<SymbolRefresh>>> symbolRefreshes = new ArrayList<>();
+
+        int goldDays = stockConfig.getGoldDays();
+        if (!providers.contains(DataProvider.ALPHA_VANTAGE)) {
+            log.debug("AlphaVantage not part of this refresh");
+        } else if (goldDays > 0) {
+            symbolRefreshes.add(refreshGold(goldDays).thenApply(List::of));
+        } else {
+            log.info("Gold lookback configured to {} days; skipping AlphaVantage fetch", goldDays);
+        }
+
+        if (!providers.contains(DataProvider.TWELVE_DATA)) {
+            log.debug("Twelve Data not part of this refresh");
+        } else if (!twelveDataEnabled) {
+            log.info("Twelve Data integration disabled; skipping stock price retrieval");
+        } else {
+            List<String> symbols = Optional.ofNullable(stockConfig.getSymbols()).orElse(Collections.emptyList());
+            int days = stockConfig.getDays();
+            // Symbols sharing the same latest stored date can share one request window.
+            Map<LocalDate, List<String>> symbolsBySince = new LinkedHashMap<>();
+            for (String symbol : symbols) {
+                if (!stringHasText(symbol)) {
+                    continue;
+                }
+                if (days <= 0) {
+                    log.warn("Days configuration is {}. Skipping Twelve Data fetch for {}", days, symbol);
+                    continue;
+                }
+                symbolsBySince.computeIfAbsent(latestCachedDate(symbol), since -> new ArrayList<>()).add(symbol);
+            }
+            int batchSize = refreshPipeline.twelveDataBatchSize();
+            symbolsBySince.forEach((since, group) -> {
+                for (int start = 0; start < group.size(); start += batchSize) {
+                    List<String> batch = List.copyOf(group.subList(start, Math.min(start + batchSize, group.size())));
+                    symbolRefreshes.add(batch.size() == 1
+                        ? refreshStock(batch.get(0), days, since).thenApply(List::of)
+                        : refreshStockBatch(batch, days, since));
+                }
+            });
+        }
+        return symbolRefreshes;
+    }
+
     public List<PriceData> getPriceDataForSymbol(String symbol) {
+        return getPriceDataForSymbol(symbol, null, null, null);
+    }
+
+    /**
+     * Returns the cached prices for {@code symbol} between {@code from} and {@code to} (both inclusive, either may be
+     * {@code null} for an open bound). When {@code limit} is set only the most recent {@code limit} entries of the
+     * window are returned. The window is located by binary search in the cached {@link PriceSeries} and only its
+     * entries are converted to {@link PriceData}, so the cost is proportional to the result size rather than to the
+     * full history.
+     */
+    public List<PriceData> getPriceDataForSymbol(String symbol, LocalDate from, LocalDate to, Integer limit) {
+        validateRange(symbol, from, to, limit);
+        String normalizedSymbol = symbol.toUpperCase();
+        if (isMapped(normalizedSymbol)) {
+            return readMapped(normalizedSymbol, from, to, limit);
+        }
+
+        PriceSeries series = loadCache(normalizedSymbol);
+        if (series.isEmpty()) {
+            log.debug("No cached data available for symbol {}", normalizedSymbol);
+            return List.of();
+        }
+        return List.copyOf(series.window(from, to, limit));
+    }
+
+    /**
+     * Returns a read-only view over the cached window for {@code symbol} that converts entries to {@link PriceData}
+     * one at a time as it is iterated. Intended for callers that stream the entries straight to an output, such as
+     * the batch price endpoint. In {@code mmap} read mode the window is decoded from the mapped file instead.
+     */
+    public Collection<PriceData> getPriceWindow(String symbol, LocalDate from, LocalDate to) {
+        validateRange(symbol, from, to, null);
+        String normalizedSymbol = symbol.toUpperCase();
+        if (isMapped(normalizedSymbol)) {
+            return readMapped(normalizedSymbol, from, to, null);
+        }
+        return loadCache(normalizedSymbol).window(from, to, null);
+    }
+
+    /**
+     * Returns the prices of {@code symbol} as {@code interval} bars between {@code from} and {@code to} (both
+     * inclusive, either may be {@code null}); {@code from} is moved back to the start of its period so the first bar
+     * is complete. {@code limit} keeps the most recent bars of that window, and {@code maxPoints} then reduces them
+     * with largest-triangle-three-buckets downsampling on the close. Weekly and monthly bars are cached per symbol
+     * and interval until a refresh changes the symbol; the result is a lazy view over them.
+     */
+    public List<PriceData> getResampledPrices(String symbol, PriceInterval interval, LocalDate from, LocalDate to,
+                                              Integer limit, Integer maxPoints) {
+        validateRange(symbol, from, to, limit);
+        if (maxPoints != null && maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints must be at least 3");
+        }
+        DataVersion version = getDataVersion(symbol);
+        if (version == null) {
+            return List.of();
+        }
+        String normalizedSymbol = version.symbol();
+        PriceSeries bars = interval == PriceInterval.DAILY
+            ? loadSeries(normalizedSymbol)
+            : resampledPriceCache.get(version, interval, () -> loadSeries(normalizedSymbol));
+
+        int start = from == null ? 0 : bars.lowerBound(PriceResampler.periodStart(from, interval));
+        int end = to == null ? bars.size() : bars.upperBound(to);
+        if (limit != null && end - start > limit) {
+            start = end - limit;
+        }
+        if (start >= end) {
+            return List.of();
+        }
+        return bars.rows(PriceResampler.largestTriangleThreeBuckets(bars, start, end,
+            maxPoints == null ? Integer.MAX_VALUE : maxPoints));
+    }
+
+    /**
+     * Returns the current version of {@code symbol}'s history, or {@code null} when no data is stored for it.
+     * Versions are derived from the stored content and kept outside the price cache, so evicting and reloading a
+     * series, restarting the service or asking another replica yields the same version.
+     */
+    public DataVersion getDataVersion(String symbol) {
         if (!stringHasText(symbol)) {
             throw new IllegalArgumentException("Symbol must be provided");
         }
         String normalizedSymbol = symbol.toUpperCase();
+        DataVersion current = dataVersions.get(normalizedSymbol);
+        if (current != null) {
+            return current;
+        }
+        if (!isMapped(normalizedSymbol) && loadCache(normalizedSymbol).isEmpty()) {
+            return null;
+        }
+        return dataVersions.computeIfAbsent(normalizedSymbol, key -> DataVersion.of(loadSeries(key)));
+    }
 
-        NavigableMap<LocalDate, PriceData> cache = loadCache(normalizedSymbol);
-        if (cache.isEmpty()) {
-            log.debug("No cached data available for symbol {}", normalizedSymbol);
-            return List.of();
+    /**
+     * Returns the full history of {@code symbol} as pre-rendered JSON (and gzip) bytes, or {@code null} when nothing
+     * is stored. The bytes are produced once per {@link DataVersion} and reused until a refresh changes the symbol.
+     */
+    public SerializedPriceHistory getSerializedHistory(String symbol) {
+        DataVersion version = getDataVersion(symbol);
+        if (version == null) {
+            return null;
+        }
+        return serializedPriceCache.get(version, () -> getPriceWindow(version.symbol(), null, null));
+    }
+
+    /**
+     * Returns the indicator described by {@code spec} over the full history of {@code symbol}, or {@code null} when
+     * nothing is stored. Values are computed once per {@link DataVersion} and parameters and reused until a refresh
+     * changes the symbol; callers slice the requested dates out of the cached result.
+     */
+    public IndicatorSeries getIndicator(String symbol, IndicatorSpec spec) {
+        DataVersion version = getDataVersion(symbol);
+        if (version == null) {
+            return null;
+        }
+        return indicatorCache.get(version, spec, () -> loadSeries(version.symbol()));
+    }
+
+    /**
+     * Returns the whole stored series of {@code symbol}; empty when nothing is stored. In {@code mmap} read mode the
+     * series is copied from the mapped file and reused until the file changes.
+     */
+    public PriceSeries getPriceSeries(String symbol) {
+        if (!stringHasText(symbol)) {
+            throw new IllegalArgumentException("Symbol must be provided");
         }
+        return loadSeries(symbol.toUpperCase());
+    }
+
+    public PriceCacheStats getCacheStats() {
+        return priceCache.stats();
+    }
 
-        return new ArrayList<>(cache.values());
+    /**
+     * Symbols maintained by the refresh: the gold series plus the configured stock symbols, upper-cased.
+     */
+    public Set<String> getManagedSymbols() {
+        Set<String> symbols = new LinkedHashSet<>();
+        symbols.add(GOLD_SYMBOL);
+        Optional.ofNullable(stockConfig.getSymbols()).orElse(Collections.emptyList()).stream()
+            .filter(this::stringHasText)
+            .map(String::toUpperCase)
+            .forEach(symbols::add);
+        return symbols;
+    }
+
+    /**
+     * Loads {@code symbol} into the price cache ahead of its first request and returns the number of entries now
+     * cached. Symbols served from memory-mapped files are left to the page cache and report 0.
+     */
+    public int preload(String symbol) {
+        String normalizedSymbol = symbol.toUpperCase();
+        if (isMapped(normalizedSymbol)) {
+            return 0;
+        }
+        return loadCache(normalizedSymbol).size();
     }
 
     public List<String> getAvailableSymbols() {
@@ -151,97 +459,268 @@ public class FinanceDataService {
         return List.copyOf(symbols);
     }
 
-    private int mergeAndPersist(String symbol, List<PriceData> freshData) throws IOException {
-        if (freshData == null || freshData.isEmpty()) {
-            log.debug("No data returned for symbol {}", symbol);
-            return 0;
+    private LocalDate latestCachedDate(String symbol) {
+        String normalizedSymbol = symbol.toUpperCase();
+        if (isMapped(normalizedSymbol)) {
+            try {
+                return mappedPriceReader.lastDate(normalizedSymbol);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read mapped data for symbol " + normalizedSymbol, e);
+            }
         }
+        return loadCache(normalizedSymbol).lastDate();
+    }
 
-        String normalizedSymbol = symbol.toUpperCase();
-        NavigableMap<LocalDate, PriceData> cache = loadCache(normalizedSymbol);
+    /**
+     * Fetches and merges one symbol under a {@code refresh.symbol} span. The pipeline executors do not propagate the
+     * trace context, so the fetch and merge tasks put the span back in scope themselves. The returned future always
+     * completes normally, with the symbol's outcome.
+     */
+    private CompletableFuture<SymbolRefresh> refreshSymbol(DataProvider provider,
+                                                           String symbol,
+                                                           Supplier<List<PriceData>> fetch) {
+        Span span = Spans.start(tracer, tracer.currentSpan(), "refresh.symbol")
+            .tag("provider", provider.getId())
+            .tag("symbol", symbol);
+        AtomicLong fetchStartedAt = new AtomicLong(System.nanoTime());
+        return settle(provider, symbol, fetchStartedAt, endOnCompletion(span,
+            refreshPipeline.fetch(provider, () -> {
+                    fetchStartedAt.set(System.nanoTime());
+                    return Spans.inScope(tracer, span, fetch);
+                })
+                .thenApplyAsync(history -> Spans.inScope(tracer, span, () -> mergeFetched(symbol, history)),
+                    refreshPipeline.mergeExecutor()),
+            Integer::intValue));
+    }
 
-        int newEntries = 0;
-        for (PriceData price : freshData) {
-            PriceData normalized = normalizePriceData(normalizedSymbol, price);
-            if (normalized == null) {
-                continue;
-            }
-            if (normalized.getDate() == null) {
-                log.warn("Dropping data point with missing date for symbol {}", normalizedSymbol);
-                continue;
+    private CompletableFuture<SymbolRefresh> refreshGold(int goldDays) {
+        LocalDate goldSince = latestCachedDate(GOLD_SYMBOL);
+        return refreshSymbol(DataProvider.ALPHA_VANTAGE, GOLD_SYMBOL,
+            () -> alphaVantageClient.fetchGoldPriceHistory(goldDays, goldSince));
+    }
+
+    private CompletableFuture<SymbolRefresh> refreshStock(String symbol, int days, LocalDate since) {
+        return refreshSymbol(DataProvider.TWELVE_DATA, symbol,
+            () -> twelveDataClient.fetchHistoricalPrices(symbol, days, since));
+    }
+
+    /**
+     * Fetches {@code batch} with a single Twelve Data request. Symbols missing from the batch response, or every
+     * symbol of the batch when the request itself fails, are fetched again with single-symbol requests. A batch that
+     * was rate limited is not split up, as that would spend more credits that are not there; its symbols fail and are
+     * left to the retry pass.
+     */
+    private CompletableFuture<List<SymbolRefresh>> refreshStockBatch(List<String> batch, int days, LocalDate since) {
+        Span span = Spans.start(tracer, tracer.currentSpan(), "refresh.batch")
+            .tag("provider", DataProvider.TWELVE_DATA.getId())
+            .tag("symbols", String.join(",", batch));
+        AtomicLong fetchStartedAt = new AtomicLong(System.nanoTime());
+        return endOnCompletion(span, refreshPipeline.fetch(DataProvider.TWELVE_DATA, () -> {
+                fetchStartedAt.set(System.nanoTime());
+                return Spans.inScope(tracer, span, () -> twelveDataClient.fetchHistoricalPrices(batch, days, since));
+            })
+            .handle((histories, failure) -> Spans.inScope(tracer, span, () -> {
+                Throwable cause = failure == null ? null : unwrap(failure);
+                boolean rateLimited = cause instanceof RateLimitedException;
+                if (rateLimited) {
+                    log.warn("Twelve Data batch request for {} was rate limited; leaving it to the retry pass: {}",
+                        batch, cause.getMessage());
+                } else if (cause != null) {
+                    log.warn("Twelve Data batch request for {} failed; falling back to single-symbol requests: {}",
+                        batch, cause.getMessage());
+                }
+                List<CompletableFuture<SymbolRefresh>> perSymbol = new ArrayList<>(batch.size());
+                for (String symbol : batch) {
+                    List<PriceData> history = histories == null ? null : histories.get(symbol.toUpperCase());
+                    if (history != null) {
+                        perSymbol.add(settle(DataProvider.TWELVE_DATA, symbol, fetchStartedAt,
+                            CompletableFuture.supplyAsync(
+                                () -> Spans.inScope(tracer, span, () -> mergeFetched(symbol, history)),
+                                refreshPipeline.mergeExecutor())));
+                    } else if (rateLimited) {
+                        perSymbol.add(settle(DataProvider.TWELVE_DATA, symbol, fetchStartedAt,
+                            CompletableFuture.failedFuture(cause)));
+                    } else {
+                        perSymbol.add(refreshStock(symbol, days, since));
+                    }
+                }
+                return CompletableFuture.allOf(perSymbol.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> perSymbol.stream().map(CompletableFuture::join).toList());
+            }))
+            .thenCompose(Function.identity()),
+            outcomes -> outcomes.stream().mapToInt(SymbolRefresh::newDataPoints).sum());
+    }
+
+    /**
+     * Fetches a symbol that failed in an earlier pass again, on its own and from its latest stored date.
+     */
+    private CompletableFuture<SymbolRefresh> retrySymbol(SymbolRefresh failure) {
+        if (DataProvider.ALPHA_VANTAGE.getId().equals(failure.provider())) {
+            return refreshGold(stockConfig.getGoldDays());
+        }
+        return refreshStock(failure.symbol(), stockConfig.getDays(), latestCachedDate(failure.symbol()));
+    }
+
+    /**
+     * Turns the result of fetching and merging {@code symbol} into its outcome, so one failing symbol does not fail
+     * the refresh.
+     */
+    private CompletableFuture<SymbolRefresh> settle(DataProvider provider,
+                                                    String symbol,
+                                                    AtomicLong fetchStartedAt,
+                                                    CompletableFuture<Integer> refresh) {
+        return refresh.handle((dataPoints, failure) -> {
+            long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fetchStartedAt.get());
+            if (failure == null) {
+                return new SymbolRefresh(symbol, provider.getId(), 1, latencyMillis, dataPoints, null);
             }
-            PriceData existing = cache.get(normalized.getDate());
-            if (existing == null || !priceEquals(existing, normalized)) {
-                cache.put(normalized.getDate(), normalized);
-                newEntries++;
+            Throwable cause = unwrap(failure);
+            String error = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+            log.warn("Refresh of {} from {} failed: {}", symbol, provider.getId(), error);
+            return new SymbolRefresh(symbol, provider.getId(), 1, latencyMillis, 0, error);
+        });
+    }
+
+    private <T> CompletableFuture<T> endOnCompletion(Span span,
+                                                     CompletableFuture<T> refresh,
+                                                     ToIntFunction<T> dataPoints) {
+        return refresh.whenComplete((result, failure) -> {
+            if (failure != null) {
+                span.error(unwrap(failure));
+            } else {
+                span.tag("data.points", dataPoints.applyAsInt(result));
             }
+            span.end();
+        });
+    }
+
+    private int mergeFetched(String symbol, List<PriceData> history) {
+        try {
+            return mergeAndPersist(symbol, history);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist price data for symbol " + symbol, e);
         }
+    }
+
+    private List<SymbolRefresh> awaitRefreshes(List<CompletableFuture<List<SymbolRefresh>>> symbolRefreshes) {
+        CompletableFuture.allOf(symbolRefreshes.toArray(CompletableFuture[]::new)).join();
+        return symbolRefreshes.stream().flatMap(refresh -> refresh.join().stream()).toList();
+    }
 
-        if (newEntries > 0) {
-            persistSymbolData(normalizedSymbol, cache);
+    private void pauseBeforeRetryPass() {
+        Duration delay = refreshPipeline.retryPassDelay();
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before retrying failed symbols", interruptedException);
         }
+    }
 
-        return newEntries;
+    private static SymbolRefresh withAttempts(SymbolRefresh outcome, int attempts) {
+        return new SymbolRefresh(outcome.symbol(), outcome.provider(), attempts, outcome.latencyMillis(),
+            outcome.newDataPoints(), outcome.error());
     }
 
-    private PriceData normalizePriceData(String normalizedSymbol, PriceData price) {
-        if (price == null) {
-            return null;
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private int mergeAndPersist(String symbol, List<PriceData> freshData) throws IOException {
+        return Spans.trace(tracer, "refresh.merge", span -> {
+            span.tag("symbol", symbol);
+            int changed = mergeIntoStore(symbol, freshData);
+            span.tag("data.points", changed);
+            return changed;
+        });
+    }
+
+    private int mergeIntoStore(String symbol, List<PriceData> freshData) throws IOException {
+        if (freshData == null || freshData.isEmpty()) {
+            log.debug("No data returned for symbol {}", symbol);
+            return 0;
+        }
+
+        String normalizedSymbol = symbol.toUpperCase();
+        long undated = freshData.stream().filter(price -> price != null && price.getDate() == null).count();
+        if (undated > 0) {
+            log.warn("Dropping {} data points with missing date for symbol {}", undated, normalizedSymbol);
+        }
+
+        // Cached series are immutable; merges of one symbol are serialised so that none of them is lost.
+        synchronized (mergeLocks.computeIfAbsent(normalizedSymbol, key -> new Object())) {
+            PriceSeries.Merge merge = loadSeries(normalizedSymbol).merge(freshData);
+            if (!merge.changed()) {
+                return 0;
+            }
+            ensureBaseDirectory();
+            Spans.trace(tracer, "price-store.update", update -> {
+                update.tag("symbol", normalizedSymbol);
+                priceStore.update(merge.series(), merge.firstChangedIndex());
+                return null;
+            });
+            if (mappedPriceReader != null) {
+                // Served from the mapped file from now on; only a symbol without a file went through the cache.
+                priceCache.invalidate(normalizedSymbol);
+            } else {
+                priceCache.put(merge.series());
+            }
+            dataVersions.put(normalizedSymbol, DataVersion.of(merge.series()));
+            serializedPriceCache.invalidate(normalizedSymbol);
+            indicatorCache.invalidate(normalizedSymbol);
+            resampledPriceCache.invalidate(normalizedSymbol);
+            return merge.changedCount();
         }
-        return new PriceData(
-            normalizedSymbol,
-            price.getDate(),
-            price.getOpen(),
-            price.getHigh(),
-            price.getLow(),
-            price.getClose(),
-            price.getVolume(),
-            price.getSource() == null ? resolveSource(normalizedSymbol) : price.getSource()
-        );
     }
 
     private PriceDataSource resolveSource(String normalizedSymbol) {
         return GOLD_SYMBOL.equalsIgnoreCase(normalizedSymbol) ? PriceDataSource.GOLD : PriceDataSource.TWELVE_DATA;
     }
 
-    private NavigableMap<LocalDate, PriceData> loadCache(String symbol) {
-        return priceCache.computeIfAbsent(symbol, this::loadFromDisk);
+    private boolean isMapped(String normalizedSymbol) {
+        return mappedPriceReader != null && mappedPriceReader.exists(normalizedSymbol);
     }
 
-    private NavigableMap<LocalDate, PriceData> loadFromDisk(String symbol) {
-        NavigableMap<LocalDate, PriceData> map = new ConcurrentSkipListMap<>();
-        Path file = resolveSymbolFile(symbol);
-        if (!Files.exists(file)) {
-            return map;
-        }
+    private List<PriceData> readMapped(String normalizedSymbol, LocalDate from, LocalDate to, Integer limit) {
         try {
-            SymbolPriceHistory history = objectMapper.readValue(file.toFile(), SymbolPriceHistory.class);
-            if (history.getPrices() == null) {
-                return map;
-            }
-            history.getPrices().stream()
-                .map(price -> normalizePriceData(symbol, price))
-                .filter(Objects::nonNull)
-                .filter(price -> price.getDate() != null)
-                .forEach(price -> map.put(price.getDate(), price));
+            return mappedPriceReader.read(normalizedSymbol, from, to, limit);
         } catch (IOException e) {
-            throw new IllegalStateException("Failed to load cached data for symbol " + symbol, e);
+            throw new IllegalStateException("Failed to read mapped data for symbol " + normalizedSymbol, e);
         }
-        return map;
     }
 
-    private void persistSymbolData(String symbol, NavigableMap<LocalDate, PriceData> cache) throws IOException {
-        ensureBaseDirectory();
-        Path file = resolveSymbolFile(symbol);
-        Files.createDirectories(file.getParent());
+    /**
+     * Returns the whole series of {@code normalizedSymbol}; in {@code mmap} read mode its columns are copied straight
+     * from the mapped file instead of going through the price cache.
+     */
+    private PriceSeries loadSeries(String normalizedSymbol) {
+        if (isMapped(normalizedSymbol)) {
+            try {
+                PriceSeries series = mappedPriceReader.readSeries(normalizedSymbol);
+                return series.getSource() == null ? series.withSource(resolveSource(normalizedSymbol)) : series;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read mapped data for symbol " + normalizedSymbol, e);
+            }
+        }
+        return loadCache(normalizedSymbol);
+    }
 
-        SymbolPriceHistory history = new SymbolPriceHistory(symbol, new ArrayList<>(cache.values()));
-        Path tempFile = Files.createTempFile(baseDirectory, symbol + "-", ".json");
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), history);
+    private PriceSeries loadCache(String symbol) {
+        return priceCache.get(symbol, this::loadFromDisk);
+    }
+
+    private PriceSeries loadFromDisk(String symbol) {
         try {
-            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
-            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            PriceSeries series = Spans.trace(tracer, "price-store.load", span -> {
+                span.tag("symbol", symbol);
+                return priceStore.load(symbol);
+            });
+            return series.getSource() == null ? series.withSource(resolveSource(symbol)) : series;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load cached data for symbol " + symbol, e);
         }
     }
 
@@ -249,36 +728,15 @@ public class FinanceDataService {
         Files.createDirectories(baseDirectory);
     }
 
-    private Path resolveSymbolFile(String symbol) {
-        return baseDirectory.resolve(symbol + ".json");
-    }
-
-    private boolean priceEquals(PriceData first, PriceData second) {
-        if (first == second) {
-            return true;
-        }
-        if (first == null || second == null) {
-            return false;
+    private void validateRange(String symbol, LocalDate from, LocalDate to, Integer limit) {
+        if (!stringHasText(symbol)) {
+            throw new IllegalArgumentException("Symbol must be provided");
         }
-        return Objects.equals(first.getSymbol(), second.getSymbol())
-            && Objects.equals(first.getDate(), second.getDate())
-            && Objects.equals(first.getOpen(), second.getOpen())
-            && Objects.equals(first.getHigh(), second.getHigh())
-            && Objects.equals(first.getLow(), second.getLow())
-            && Objects.equals(first.getClose(), second.getClose())
-            && Objects.equals(first.getVolume(), second.getVolume())
-            && Objects.equals(first.getSource(), second.getSource());
-    }
-
-    private void sleepBetweenTwelveDataCalls() {
-        if (twelveDataRequestDelay == null || twelveDataRequestDelay.isZero() || twelveDataRequestDelay.isNegative()) {
-            return;
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
         }
-        try {
-            Thread.sleep(twelveDataRequestDelay.toMillis());
-        } catch (InterruptedException interruptedException) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Interrupted while throttling Twelve Data requests", interruptedException);
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than zero");
         }
     }
 
@@ -0,0 +1,55 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.PriceSeries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps computed indicators per symbol and {@link IndicatorSpec}. An entry is only recomputed when the symbol's
+ * {@link DataVersion} has moved on, and all entries of a symbol are dropped when a refresh changes its prices.
+ * Entries are weighed by their array size and bounded by {@code finance.cache.indicator-max-bytes}.
+ */
+@Component
+public class IndicatorCache {
+
+    private final Cache<Key, IndicatorSeries> indicators;
+
+    @Autowired
+    public IndicatorCache(@Value("${finance.cache.indicator-max-bytes:33554432}") long maxBytes) {
+        this.indicators = Caffeine.newBuilder()
+            .maximumWeight(Math.max(maxBytes, 0))
+            .weigher((Key key, IndicatorSeries series) -> (int) Math.min(Integer.MAX_VALUE, series.sizeInBytes()))
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Returns the indicator for {@code version}, computing it from {@code prices} only when no entry for that exact
+     * version exists. Concurrent callers for the same symbol and parameters share one computation.
+     */
+    public IndicatorSeries get(DataVersion version, IndicatorSpec spec, Supplier<PriceSeries> prices) {
+        Key key = new Key(version.symbol(), spec);
+        IndicatorSeries cached = indicators.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        return indicators.asMap().compute(key, (ignored, current) ->
+            current != null && current.version().equals(version)
+                ? current
+                : TechnicalIndicators.compute(prices.get(), spec, version));
+    }
+
+    public void invalidate(String symbol) {
+        indicators.asMap().keySet().removeIf(key -> key.symbol().equals(symbol));
+    }
+
+    private record Key(String symbol, IndicatorSpec spec) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.PriceCacheStats;
+import com.example.financedataservice.model.PriceSeries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of {@link PriceSeries} keyed by normalized symbol. Entries are weighed by their estimated
+ * heap footprint and evicted with Caffeine's W-TinyLFU policy once {@code finance.cache.max-bytes} is exceeded.
+ * Evicted series are simply reloaded from the price store on the next read.
+ * <p>
+ * Symbols without any stored data are not kept as empty series. They are remembered in a small negative cache for
+ * {@code finance.cache.negative-ttl-ms}, so probing unknown symbols neither grows the heap nor hits the disk on every
+ * request. Storing a series for a symbol clears its negative entry.
+ * <p>
+ * As a {@link MeterBinder} the cache publishes the standard {@code cache.*} metrics for both caches (named
+ * {@code prices} and {@code prices-missing}) and its resident size as {@code finance.cache.resident.bytes}.
+ */
+@Component
+public class PriceCache implements MeterBinder {
+
+    // Approximate cost of the cache node, key and PriceSeries header on top of the column arrays.
+    static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final long maxBytes;
+    private final Cache<String, PriceSeries> series;
+    private final Cache<String, Boolean> missingSymbols;
+
+    @Autowired
+    public PriceCache(@Value("${finance.cache.max-bytes:268435456}") long maxBytes,
+                      @Value("${finance.cache.negative-ttl-ms:600000}") long negativeTtlMs,
+                      @Value("${finance.cache.max-negative-entries:10000}") long maxNegativeEntries) {
+        this(maxBytes, Duration.ofMillis(negativeTtlMs), maxNegativeEntries, Ticker.systemTicker());
+    }
+
+    PriceCache(long maxBytes, Duration negativeTtl, long maxNegativeEntries, Ticker ticker) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("finance.cache.max-bytes must be greater than zero");
+        }
+        this.maxBytes = maxBytes;
+        this.series = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String symbol, PriceSeries value) -> weigh(value))
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+        this.missingSymbols = Caffeine.newBuilder()
+            .maximumSize(Math.max(maxNegativeEntries, 0))
+            .expireAfterWrite(negativeTtl)
+            .ticker(ticker)
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+    }
+
+    static PriceCache withDefaults() {
+        return new PriceCache(268_435_456L, Duration.ofMinutes(10), 10_000, Ticker.systemTicker());
+    }
+
+    /**
+     * Returns the cached series for {@code symbol}, loading it with {@code loader} on a miss. Concurrent misses for
+     * the same symbol share one load. An empty result is returned but only recorded in the negative cache.
+     */
+    public PriceSeries get(String symbol, Function<String, PriceSeries> loader) {
+        if (missingSymbols.getIfPresent(symbol) != null) {
+            return PriceSeries.empty(symbol, null);
+        }
+        PriceSeries cached = series.get(symbol, key -> {
+            PriceSeries loaded = loader.apply(key);
+            if (loaded == null || loaded.isEmpty()) {
+                missingSymbols.put(key, Boolean.TRUE);
+                return null;
+            }
+            return loaded;
+        });
+        return cached != null ? cached : PriceSeries.empty(symbol, null);
+    }
+
+    public void put(PriceSeries value) {
+        missingSymbols.invalidate(value.getSymbol());
+        if (value.isEmpty()) {
+            series.invalidate(value.getSymbol());
+        } else {
+            series.put(value.getSymbol(), value);
+        }
+    }
+
+    /**
+     * Drops {@code symbol} from the cache and from the negative cache.
+     */
+    public void invalidate(String symbol) {
+        missingSymbols.invalidate(symbol);
+        series.invalidate(symbol);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, series, "prices");
+        CaffeineCacheMetrics.monitor(registry, missingSymbols, "prices-missing");
+        Gauge.builder("finance.cache.resident.bytes", this, PriceCache::residentBytes)
+            .description("Estimated heap footprint of the cached price series")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+    }
+
+    public PriceCacheStats stats() {
+        series.cleanUp();
+        missingSymbols.cleanUp();
+        CacheStats seriesStats = series.stats();
+        return new PriceCacheStats(
+            series.estimatedSize(),
+            residentBytes(),
+            maxBytes,
+            seriesStats.hitCount(),
+            seriesStats.missCount(),
+            seriesStats.hitRate(),
+            seriesStats.evictionCount(),
+            missingSymbols.estimatedSize(),
+            missingSymbols.stats().hitCount()
+        );
+    }
+
+    private long residentBytes() {
+        return series.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+    }
+
+    private static int weigh(PriceSeries value) {
+        return (int) Math.min(Integer.MAX_VALUE, value.residentBytes() + ENTRY_OVERHEAD_BYTES);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.config.ExecutorMode;
+import com.example.financedataservice.model.CacheWarmupReport;
+import com.example.financedataservice.model.CacheWarmupReport.SymbolLoad;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads price histories from disk into the price cache in parallel so the first requests after a restart are served
+ * from memory instead of parsing files on request threads, where concurrent callers for the same symbol would also
+ * wait on the load.
+ * <ul>
+ *     <li>{@code directory} (default) loads every {@code {SYMBOL}.bin} / {@code {SYMBOL}.json} file found under
+ *     {@code finance.data.base-dir}.</li>
+ *     <li>{@code managed} loads only the gold series and the configured stock symbols.</li>
+ *     <li>{@code off} leaves all loading to the first request.</li>
+ * </ul>
+ * Loads run on at most {@code finance.cache.warm-parallelism} threads; the returned report has the total bytes read
+ * and the time spent on every symbol.
+ */
+@Component
+public class PriceCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceCacheWarmer.class);
+    // Leftovers of interrupted atomic writes look like AAPL-4829384756123.bin and are not symbols.
+    private static final Pattern TEMP_FILE = Pattern.compile(".+-\\d{6,}");
+    private static final int LOGGED_SLOWEST = 5;
+
+    public enum Mode {
+        DIRECTORY,
+        MANAGED,
+        OFF
+    }
+
+    private final FinanceDataService financeDataService;
+    private final int parallelism;
+    private final Path baseDirectory;
+    private final Mode mode;
+
+    @Autowired
+    public PriceCacheWarmer(FinanceDataService financeDataService,
+                            @Value("${finance.cache.warm-parallelism:4}") int parallelism,
+                            @Value("${finance.data.base-dir:data}") String baseDirectory,
+                            @Value("${finance.cache.warm-up:directory}") String mode) {
+        this(financeDataService, parallelism, Paths.get(baseDirectory), parseMode(mode));
+    }
+
+    PriceCacheWarmer(FinanceDataService financeDataService, int parallelism, Path baseDirectory, Mode mode) {
+        this.financeDataService = financeDataService;
+        this.parallelism = Math.max(parallelism, 1);
+        this.baseDirectory = baseDirectory;
+        this.mode = mode;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Loads the symbols selected by the warm-up mode and waits until all of them are cached.
+     */
+    public CacheWarmupReport warm() {
+        return switch (mode) {
+            case DIRECTORY -> warm(scanSymbols());
+            case MANAGED -> warm(financeDataService.getManagedSymbols());
+            case OFF -> new CacheWarmupReport(0, 0, 0, 0, 0, List.of());
+        };
+    }
+
+    public CacheWarmupReport warm(Collection<String> symbols) {
+        long startedAt = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(symbols.size(), 1)),
+            ExecutorMode.daemonThreads("cache-warmup"));
+        List<CompletableFuture<SymbolLoad>> loads = new ArrayList<>(symbols.size());
+        try {
+            for (String symbol : symbols) {
+                loads.add(CompletableFuture.supplyAsync(() -> load(symbol), executor));
+            }
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<SymbolLoad> results = loads.stream()
+            .map(CompletableFuture::join)
+            .sorted(Comparator.comparingLong(SymbolLoad::millis).reversed())
+            .toList();
+        long entries = results.stream().mapToLong(SymbolLoad::entries).sum();
+        long bytes = results.stream().mapToLong(SymbolLoad::bytes).sum();
+        int failures = (int) results.stream().filter(load -> load.error() != null).count();
+        CacheWarmupReport report = new CacheWarmupReport(results.size(), entries, bytes, failures,
+            (System.nanoTime() - startedAt) / 1_000_000, results);
+
+        log.info("Pre-loaded {} entries ({} bytes) for {} symbols in {} ms on {} threads ({} failed)", report.entries(),
+            report.bytes(), report.symbols(), report.elapsedMillis(), parallelism, report.failures());
+        results.stream().limit(LOGGED_SLOWEST).forEach(load ->
+            log.info("  {}: {} ms, {} bytes, {} entries", load.symbol(), load.millis(), load.bytes(), load.entries()));
+        return report;
+    }
+
+    /**
+     * Symbols that have a price file in the base directory.
+     */
+    Set<String> scanSymbols() {
+        Set<String> symbols = new TreeSet<>();
+        if (!Files.isDirectory(baseDirectory)) {
+            return symbols;
+        }
+        try (Stream<Path> files = Files.list(baseDirectory)) {
+            files.filter(Files::isRegularFile)
+                .map(file -> file.getFileName().toString())
+                .filter(name -> !name.startsWith("."))
+                .filter(name -> name.endsWith(".bin") || name.endsWith(".json"))
+                .map(name -> name.substring(0, name.lastIndexOf('.')))
+                .filter(symbol -> !symbol.isEmpty() && !TEMP_FILE.matcher(symbol).matches())
+                .map(symbol -> symbol.toUpperCase(Locale.ROOT))
+                .forEach(symbols::add);
+        } catch (IOException e) {
+            log.warn("Failed to scan {} for cached symbols: {}", baseDirectory, e.getMessage());
+        }
+        return symbols;
+    }
+
+    private SymbolLoad load(String symbol) {
+        long bytes = fileSize(symbol);
+        long startedAt = System.nanoTime();
+        try {
+            int entries = financeDataService.preload(symbol);
+            long millis = (System.nanoTime() - startedAt) / 1_000_000;
+            log.debug("Pre-loaded {} in {} ms ({} bytes, {} entries)", symbol, millis, bytes, entries);
+            return new SymbolLoad(symbol, bytes, entries, millis, null);
+        } catch (RuntimeException e) {
+            log.warn("Failed to pre-load cached data for {}: {}", symbol, e.getMessage());
+            return new SymbolLoad(symbol, bytes, 0, (System.nanoTime() - startedAt) / 1_000_000, e.getMessage());
+        }
+    }
+
+    private long fileSize(String symbol) {
+        for (String extension : new String[] {".bin", ".json"}) {
+            Path file = baseDirectory.resolve(symbol + extension);
+            try {
+                if (Files.exists(file)) {
+                    return Files.size(file);
+                }
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static Mode parseMode(String value) {
+        if (value == null || value.isBlank()) {
+            return Mode.DIRECTORY;
+        }
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported cache warm-up mode: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.PriceSeries;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+
+/**
+ * Reduces daily price series for charting: {@link #aggregate} folds them into weekly or monthly OHLCV bars, and
+ * {@link #largestTriangleThreeBuckets} picks the entries that best preserve the shape of the close line.
+ */
+final class PriceResampler {
+
+    private PriceResampler() {
+    }
+
+    /**
+     * Folds {@code daily} into one bar per period: the first open, the highest high, the lowest low, the last close
+     * and the summed volume, skipping missing values. Each bar is dated by the start of its period.
+     */
+    static PriceSeries aggregate(PriceSeries daily, PriceInterval interval) {
+        if (interval == PriceInterval.DAILY || daily.isEmpty()) {
+            return daily;
+        }
+        int capacity = interval == PriceInterval.WEEKLY ? daily.size() / 5 + 2 : daily.size() / 20 + 2;
+        int[] days = new int[capacity];
+        long[] opens = new long[capacity];
+        long[] highs = new long[capacity];
+        long[] lows = new long[capacity];
+        long[] closes = new long[capacity];
+        long[] volumes = new long[capacity];
+        short[] scales = new short[capacity];
+
+        int bars = -1;
+        int currentPeriod = Integer.MIN_VALUE;
+        for (int i = 0; i < daily.size(); i++) {
+            int period = periodStart(daily.epochDayAt(i), interval);
+            if (period != currentPeriod) {
+                bars++;
+                if (bars == days.length) {
+                    int grown = days.length * 2;
+                    days = Arrays.copyOf(days, grown);
+                    opens = Arrays.copyOf(opens, grown);
+                    highs = Arrays.copyOf(highs, grown);
+                    lows = Arrays.copyOf(lows, grown);
+                    closes = Arrays.copyOf(closes, grown);
+                    volumes = Arrays.copyOf(volumes, grown);
+                    scales = Arrays.copyOf(scales, grown);
+                }
+                currentPeriod = period;
+                days[bars] = period;
+                opens[bars] = PriceSeries.MISSING;
+                highs[bars] = PriceSeries.MISSING;
+                lows[bars] = PriceSeries.MISSING;
+                closes[bars] = PriceSeries.MISSING;
+                volumes[bars] = PriceSeries.MISSING;
+                scales[bars] = 0;
+            }
+            long open = daily.openAt(i);
+            long high = daily.highAt(i);
+            long low = daily.lowAt(i);
+            long close = daily.closeAt(i);
+            long volume = daily.volumeAt(i);
+            short dayScales = daily.scalesAt(i);
+            // Every bar price keeps the decimal places of the daily price it was taken from.
+            if (opens[bars] == PriceSeries.MISSING) {
+                opens[bars] = open;
+                scales[bars] = PriceSeries.withScale(scales[bars], PriceSeries.OPEN,
+                    PriceSeries.scaleOf(dayScales, PriceSeries.OPEN));
+            }
+            if (high != PriceSeries.MISSING && (highs[bars] == PriceSeries.MISSING || high > highs[bars])) {
+                highs[bars] = high;
+                scales[bars] = PriceSeries.withScale(scales[bars], PriceSeries.HIGH,
+                    PriceSeries.scaleOf(dayScales, PriceSeries.HIGH));
+            }
+            if (low != PriceSeries.MISSING && (lows[bars] == PriceSeries.MISSING || low < lows[bars])) {
+                lows[bars] = low;
+                scales[bars] = PriceSeries.withScale(scales[bars], PriceSeries.LOW,
+                    PriceSeries.scaleOf(dayScales, PriceSeries.LOW));
+            }
+            if (close != PriceSeries.MISSING) {
+                closes[bars] = close;
+                scales[bars] = PriceSeries.withScale(scales[bars], PriceSeries.CLOSE,
+                    PriceSeries.scaleOf(dayScales, PriceSeries.CLOSE));
+            }
+            if (volume != PriceSeries.MISSING) {
+                volumes[bars] = volumes[bars] == PriceSeries.MISSING ? volume : volumes[bars] + volume;
+            }
+        }
+        int size = bars + 1;
+        return PriceSeries.fromColumns(daily.getSymbol(), daily.getSource(),
+            Arrays.copyOf(days, size), Arrays.copyOf(opens, size),
+            Arrays.copyOf(highs, size), Arrays.copyOf(lows, size),
+            Arrays.copyOf(closes, size), Arrays.copyOf(volumes, size), Arrays.copyOf(scales, size));
+    }
+
+    /**
+     * Selects at most {@code maxPoints} indices of {@code series} within {@code [start, end)} with the
+     * largest-triangle-three-buckets algorithm. The first and last entries are always kept; every bucket in between
+     * contributes the entry that spans the largest triangle with the previously selected entry and the average of
+     * the next bucket, measured on date and close. Returns every index when the range already fits.
+     */
+    static int[] largestTriangleThreeBuckets(PriceSeries series, int start, int end, int maxPoints) {
+        int length = end - start;
+        if (length <= maxPoints || maxPoints < 3) {
+            int[] all = new int[Math.max(length, 0)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = start + i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[maxPoints];
+        selected[0] = start;
+        double bucketSize = (double) (length - 2) / (maxPoints - 2);
+        int previous = start;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int bucketStart = start + 1 + (int) Math.floor(bucket * bucketSize);
+            int bucketEnd = start + 1 + (int) Math.floor((bucket + 1) * bucketSize);
+
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min(start + 1 + (int) Math.floor((bucket + 2) * bucketSize), end);
+            if (bucket == maxPoints - 3) {
+                nextStart = end - 1;
+                nextEnd = end;
+            }
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += series.epochDayAt(i);
+                averageY += closeOf(series, i);
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double previousX = series.epochDayAt(previous);
+            double previousY = closeOf(series, previous);
+            double largestArea = -1;
+            int chosen = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((previousX - averageX) * (closeOf(series, i) - previousY)
+                    - (previousX - series.epochDayAt(i)) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[maxPoints - 1] = end - 1;
+        return selected;
+    }
+
+    private static double closeOf(PriceSeries series, int index) {
+        long close = series.closeAt(index);
+        return close == PriceSeries.MISSING ? 0 : close;
+    }
+
+    /**
+     * First day of the {@code interval} period containing {@code date}.
+     */
+    static LocalDate periodStart(LocalDate date, PriceInterval interval) {
+        return switch (interval) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static int periodStart(int epochDay, PriceInterval interval) {
+        return (int) periodStart(LocalDate.ofEpochDay(epochDay), interval).toEpochDay();
+    }
+}
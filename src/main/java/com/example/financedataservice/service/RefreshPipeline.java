@@ -0,0 +1,110 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.config.ExecutorMode;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executors backing {@link FinanceDataService#refreshDailyData()}. Each provider gets its own fetch executor so
+ * providers progress independently, while merging and persisting run on a separate pool. Requests are paced by the
+ * provider clients themselves ({@link com.example.financedataservice.client.ProviderGuard}), so retries take a rate
+ * limit permit like first attempts. With {@code finance.refresh.executor-mode=virtual} provider calls, rate limit waits
+ * and retry backoffs run on virtual threads and the rate limiter alone bounds the request rate. The merge pool always
+ * uses platform threads because merges hold a per-symbol monitor across file I/O.
+ * <p>
+ * Symbols that fail are fetched again in up to {@code finance.refresh.retry-passes} later passes, each started
+ * {@code finance.refresh.retry-pass-delay-ms} after the previous pass has settled.
+ */
+@Component
+public class RefreshPipeline implements AutoCloseable {
+
+    private final Map<DataProvider, ExecutorService> fetchExecutors = new EnumMap<>(DataProvider.class);
+    private final ExecutorService mergeExecutor;
+    private final ExecutorMode executorMode;
+    private final int twelveDataBatchSize;
+    private final int retryPasses;
+    private final Duration retryPassDelay;
+
+    @Autowired
+    public RefreshPipeline(@Value("${twelve-data.max-concurrency:4}") int twelveDataConcurrency,
+                           @Value("${twelve-data.batch-size:8}") int twelveDataBatchSize,
+                           @Value("${finance.refresh.merge-parallelism:2}") int mergeParallelism,
+                           @Value("${finance.refresh.executor-mode:platform}") String executorMode,
+                           @Value("${finance.refresh.retry-passes:1}") int retryPasses,
+                           @Value("${finance.refresh.retry-pass-delay-ms:5000}") long retryPassDelayMs) {
+        this.executorMode = ExecutorMode.from(executorMode);
+        this.twelveDataBatchSize = Math.max(twelveDataBatchSize, 1);
+        this.retryPasses = Math.max(retryPasses, 0);
+        this.retryPassDelay = Duration.ofMillis(Math.max(retryPassDelayMs, 0));
+        register(DataProvider.TWELVE_DATA, twelveDataConcurrency);
+        register(DataProvider.ALPHA_VANTAGE, 1);
+        this.mergeExecutor = Executors.newFixedThreadPool(Math.max(mergeParallelism, 1),
+            ExecutorMode.daemonThreads("price-merge"));
+    }
+
+    RefreshPipeline() {
+        this(1);
+    }
+
+    RefreshPipeline(int twelveDataBatchSize) {
+        this.executorMode = ExecutorMode.PLATFORM;
+        this.twelveDataBatchSize = Math.max(twelveDataBatchSize, 1);
+        this.retryPasses = 1;
+        this.retryPassDelay = Duration.ZERO;
+        register(DataProvider.TWELVE_DATA, 4);
+        register(DataProvider.ALPHA_VANTAGE, 1);
+        this.mergeExecutor = Executors.newFixedThreadPool(2, ExecutorMode.daemonThreads("price-merge"));
+    }
+
+    /**
+     * Runs {@code call} on the provider's fetch pool.
+     */
+    public <T> CompletableFuture<T> fetch(DataProvider provider, Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, fetchExecutors.get(provider));
+    }
+
+    public ExecutorMode executorMode() {
+        return executorMode.effective();
+    }
+
+    /**
+     * Maximum number of symbols combined into one Twelve Data request; 1 disables batching.
+     */
+    public int twelveDataBatchSize() {
+        return twelveDataBatchSize;
+    }
+
+    /**
+     * Number of passes over the failed symbols after the first one; 0 disables retries.
+     */
+    public int retryPasses() {
+        return retryPasses;
+    }
+
+    public Duration retryPassDelay() {
+        return retryPassDelay;
+    }
+
+    public ExecutorService mergeExecutor() {
+        return mergeExecutor;
+    }
+
+    @Override
+    public void close() {
+        fetchExecutors.values().forEach(ExecutorService::shutdownNow);
+        mergeExecutor.shutdownNow();
+    }
+
+    private void register(DataProvider provider, int concurrency) {
+        fetchExecutors.put(provider, executorMode.newExecutor(provider.getId() + "-fetch", concurrency));
+    }
+}
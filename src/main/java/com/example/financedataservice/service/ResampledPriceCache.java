@@ -0,0 +1,58 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.PriceSeries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps weekly and monthly bars per symbol and {@link PriceInterval}. Bars are only rebuilt when the symbol's
+ * {@link DataVersion} has moved on, and all intervals of a symbol are dropped when a refresh changes its prices.
+ * Entries are weighed by their estimated heap footprint and bounded by {@code finance.cache.resampled-max-bytes}.
+ */
+@Component
+public class ResampledPriceCache {
+
+    private final Cache<Key, Entry> bars;
+
+    @Autowired
+    public ResampledPriceCache(@Value("${finance.cache.resampled-max-bytes:33554432}") long maxBytes) {
+        this.bars = Caffeine.newBuilder()
+            .maximumWeight(Math.max(maxBytes, 0))
+            .weigher((Key key, Entry entry) ->
+                (int) Math.min(Integer.MAX_VALUE, entry.series().residentBytes() + PriceCache.ENTRY_OVERHEAD_BYTES))
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Returns the bars of {@code interval} for {@code version}, aggregating {@code daily} only when no entry for that
+     * exact version exists. Concurrent callers for the same symbol and interval share one aggregation.
+     */
+    public PriceSeries get(DataVersion version, PriceInterval interval, Supplier<PriceSeries> daily) {
+        Key key = new Key(version.symbol(), interval);
+        Entry cached = bars.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.series();
+        }
+        return bars.asMap().compute(key, (ignored, current) ->
+            current != null && current.version().equals(version)
+                ? current
+                : new Entry(version, PriceResampler.aggregate(daily.get(), interval))).series();
+    }
+
+    public void invalidate(String symbol) {
+        bars.asMap().keySet().removeIf(key -> key.symbol().equals(symbol));
+    }
+
+    private record Key(String symbol, PriceInterval interval) {
+    }
+
+    private record Entry(DataVersion version, PriceSeries series) {
+    }
+}
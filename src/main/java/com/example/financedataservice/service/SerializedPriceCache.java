@@ -0,0 +1,81 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.SerializedPriceHistory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps each symbol's full history as ready-to-send JSON bytes. An entry is only rebuilt when the symbol's
+ * {@link DataVersion} has moved on, so between refreshes a full-history read is a plain byte copy to the response.
+ * Entries are weighed by their byte size and bounded by {@code finance.cache.serialized-max-bytes}.
+ */
+@Component
+public class SerializedPriceCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final Cache<String, SerializedPriceHistory> histories;
+
+    @Autowired
+    public SerializedPriceCache(ObjectMapper objectMapper,
+                                @Value("${finance.cache.serialized-max-bytes:67108864}") long maxBytes,
+                                @Value("${finance.cache.gzip:true}") boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.histories = Caffeine.newBuilder()
+            .maximumWeight(Math.max(maxBytes, 0))
+            .weigher((String symbol, SerializedPriceHistory history) ->
+                (int) Math.min(Integer.MAX_VALUE, history.sizeInBytes()))
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Returns the serialized history for {@code version}, rendering {@code prices} only when no entry for that exact
+     * version exists. Concurrent callers for the same symbol share one rebuild.
+     */
+    public SerializedPriceHistory get(DataVersion version, Supplier<? extends Collection<PriceData>> prices) {
+        SerializedPriceHistory cached = histories.getIfPresent(version.symbol());
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        return histories.asMap().compute(version.symbol(), (symbol, current) ->
+            current != null && current.version().equals(version) ? current : serialize(version, prices.get()));
+    }
+
+    public void invalidate(String symbol) {
+        histories.invalidate(symbol);
+    }
+
+    private SerializedPriceHistory serialize(DataVersion version, Collection<PriceData> prices) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(prices);
+            return new SerializedPriceHistory(version, json, gzip ? compress(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize price history for " + version.symbol(), e);
+        }
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(json.length / 4, 64));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.financedataservice.service;
+
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.PriceSeries;
+
+/**
+ * Computes technical indicators over the closes of a {@link PriceSeries} in a single pass. Every indicator keeps a
+ * running state (window sum, sum of squares, smoothed average) that is updated in O(1) per close, so a series of
+ * {@code n} closes costs O(n) regardless of the window length. Rows without a close are skipped.
+ */
+final class TechnicalIndicators {
+
+    private static final double SCALE = Math.pow(10, PriceSeries.PRICE_SCALE);
+
+    private TechnicalIndicators() {
+    }
+
+    static IndicatorSeries compute(PriceSeries series, IndicatorSpec spec, DataVersion version) {
+        Closes closes = Closes.of(series);
+        return switch (spec.type()) {
+            case SMA -> sma(closes, spec, version);
+            case EMA -> ema(closes, spec, version);
+            case RSI -> rsi(closes, spec, version);
+            case BOLLINGER -> bollinger(closes, spec, version);
+        };
+    }
+
+    /**
+     * Simple moving average. The window sum is kept in fixed-point units, so it stays exact however long the series.
+     */
+    private static IndicatorSeries sma(Closes closes, IndicatorSpec spec, DataVersion version) {
+        int window = spec.window();
+        int count = Math.max(closes.size - window + 1, 0);
+        double[] values = new double[count];
+        long sum = 0;
+        for (int i = 0; i < closes.size; i++) {
+            sum += closes.values[i];
+            if (i >= window) {
+                sum -= closes.values[i - window];
+            }
+            if (i >= window - 1) {
+                values[i - window + 1] = sum / (window * SCALE);
+            }
+        }
+        return new IndicatorSeries(version, spec, closes.daysFrom(window - 1, count), values, null, null);
+    }
+
+    /**
+     * Exponential moving average with {@code alpha = 2 / (window + 1)}, seeded with the simple average of the first
+     * {@code window} closes.
+     */
+    private static IndicatorSeries ema(Closes closes, IndicatorSpec spec, DataVersion version) {
+        int window = spec.window();
+        int count = Math.max(closes.size - window + 1, 0);
+        double[] values = new double[count];
+        double alpha = 2.0 / (window + 1);
+        double ema = 0;
+        long seed = 0;
+        for (int i = 0; i < closes.size; i++) {
+            double close = closes.values[i] / SCALE;
+            if (i < window) {
+                seed += closes.values[i];
+                if (i == window - 1) {
+                    ema = seed / (window * SCALE);
+                    values[0] = ema;
+                }
+                continue;
+            }
+            ema += alpha * (close - ema);
+            values[i - window + 1] = ema;
+        }
+        return new IndicatorSeries(version, spec, closes.daysFrom(window - 1, count), values, null, null);
+    }
+
+    /**
+     * Relative strength index with Wilder's smoothing. The first value needs {@code window} price changes, i.e.
+     * {@code window + 1} closes. A window without losses scores 100, one without any movement 50.
+     */
+    private static IndicatorSeries rsi(Closes closes, IndicatorSpec spec, DataVersion version) {
+        int window = spec.window();
+        int count = Math.max(closes.size - window, 0);
+        double[] values = new double[count];
+        double averageGain = 0;
+        double averageLoss = 0;
+        for (int i = 1; i < closes.size; i++) {
+            double change = (closes.values[i] - closes.values[i - 1]) / SCALE;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            if (i <= window) {
+                averageGain += gain / window;
+                averageLoss += loss / window;
+                if (i < window) {
+                    continue;
+                }
+            } else {
+                averageGain = (averageGain * (window - 1) + gain) / window;
+                averageLoss = (averageLoss * (window - 1) + loss) / window;
+            }
+            values[i - window] = relativeStrengthIndex(averageGain, averageLoss);
+        }
+        return new IndicatorSeries(version, spec, closes.daysFrom(window, count), values, null, null);
+    }
+
+    private static double relativeStrengthIndex(double averageGain, double averageLoss) {
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+
+    /**
+     * Bollinger bands: the simple moving average plus and minus {@code multiplier} population standard deviations.
+     * Sums are taken of the deviations from the first close, which keeps the running sum of squares well inside
+     * double precision.
+     */
+    private static IndicatorSeries bollinger(Closes closes, IndicatorSpec spec, DataVersion version) {
+        int window = spec.window();
+        int count = Math.max(closes.size - window + 1, 0);
+        double[] middle = new double[count];
+        double[] upper = new double[count];
+        double[] lower = new double[count];
+        long reference = closes.size == 0 ? 0 : closes.values[0];
+        long sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < closes.size; i++) {
+            long deviation = closes.values[i] - reference;
+            sum += deviation;
+            sumOfSquares += (double) deviation * deviation;
+            if (i >= window) {
+                long dropped = closes.values[i - window] - reference;
+                sum -= dropped;
+                sumOfSquares -= (double) dropped * dropped;
+            }
+            if (i < window - 1) {
+                continue;
+            }
+            double mean = (double) sum / window;
+            double variance = Math.max(sumOfSquares / window - mean * mean, 0);
+            double band = spec.multiplier() * Math.sqrt(variance) / SCALE;
+            int index = i - window + 1;
+            middle[index] = (reference + mean) / SCALE;
+            upper[index] = middle[index] + band;
+            lower[index] = middle[index] - band;
+        }
+        return new IndicatorSeries(version, spec, closes.daysFrom(window - 1, count), middle, upper, lower);
+    }
+
+    /**
+     * The dated closes of a series in fixed-point units, with missing closes left out.
+     */
+    private record Closes(int[] epochDays, long[] values, int size) {
+
+        static Closes of(PriceSeries series) {
+            int[] days = new int[series.size()];
+            long[] values = new long[series.size()];
+            int size = 0;
+            for (int i = 0; i < series.size(); i++) {
+                long close = series.closeAt(i);
+                if (close != PriceSeries.MISSING) {
+                    days[size] = series.epochDayAt(i);
+                    values[size] = close;
+                    size++;
+                }
+            }
+            return new Closes(days, values, size);
+        }
+
+        int[] daysFrom(int start, int count) {
+            int[] days = new int[count];
+            if (count > 0) {
+                System.arraycopy(epochDays, start, days, 0, count);
+            }
+            return days;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Layout of the {@code {SYMBOL}.bin} files written by {@link BinaryPriceStore}.
+ *
+ * <pre>
+ * header (32 bytes)
+ *   0  int   magic "FDPS"
+ *   4  short format version (1)
+ *   6  short record size (46)
+ *   8  byte  price scale (decimal places of the fixed-point prices)
+ *   9  byte  source code: 0 gold, 1 Twelve Data, -1 when unknown
+ *   12 int   record count
+ *   16 int   first epoch day
+ *   20 int   last epoch day
+ * records (46 bytes each, sorted by date)
+ *   0  int   epoch day
+ *   4  long  open, high, low, close as fixed-point values
+ *   36 long  volume
+ *   44 short decimal places of open, high, low and close, packed as in {@link PriceSeries#packScales}
+ * </pre>
+ * Records are stored row by row rather than column by column, so an append only writes past the last record and the
+ * header. Prices use the fixed-point encoding of {@link PriceSeries}, so records map one-to-one onto its columns. Missing
+ * values are stored as {@link PriceSeries#MISSING}. The record count in the header is authoritative, so bytes
+ * beyond it (for example from an interrupted append) are ignored. The source is stored as a fixed code rather than the
+ * enum ordinal, so reordering {@link PriceDataSource} does not change persisted files.
+ */
+final class BinaryPriceFormat {
+
+    static final int MAGIC = 0x46445053;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 46;
+    static final int PRICE_SCALE = PriceSeries.PRICE_SCALE;
+
+    static final int COUNT_OFFSET = 12;
+    static final int FIRST_DAY_OFFSET = 16;
+    static final int LAST_DAY_OFFSET = 20;
+
+    static final int DAY_OFFSET = 0;
+    static final int OPEN_OFFSET = 4;
+    static final int HIGH_OFFSET = 12;
+    static final int LOW_OFFSET = 20;
+    static final int CLOSE_OFFSET = 28;
+    static final int VOLUME_OFFSET = 36;
+    static final int SCALES_OFFSET = 44;
+
+    private BinaryPriceFormat() {
+    }
+
+    record Header(PriceDataSource source, int count, int firstEpochDay, int lastEpochDay) {
+    }
+
+    static void writeHeader(ByteBuffer buffer, Header header) {
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) RECORD_SIZE);
+        buffer.put(8, (byte) PRICE_SCALE);
+        buffer.put(9, sourceCode(header.source()));
+        buffer.putShort(10, (short) 0);
+        buffer.putInt(COUNT_OFFSET, header.count());
+        buffer.putInt(FIRST_DAY_OFFSET, header.firstEpochDay());
+        buffer.putInt(LAST_DAY_OFFSET, header.lastEpochDay());
+        buffer.putLong(24, 0L);
+    }
+
+    static Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary price file");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION || buffer.getShort(6) != RECORD_SIZE || buffer.get(8) != PRICE_SCALE) {
+            throw new IOException("Unsupported binary price file version " + version);
+        }
+        PriceDataSource source = sourceOf(buffer.get(9));
+        int count = buffer.getInt(COUNT_OFFSET);
+        if (count < 0) {
+            throw new IOException("Corrupt binary price file header: negative record count");
+        }
+        return new Header(source, count, buffer.getInt(FIRST_DAY_OFFSET), buffer.getInt(LAST_DAY_OFFSET));
+    }
+
+    static byte sourceCode(PriceDataSource source) {
+        if (source == null) {
+            return -1;
+        }
+        return switch (source) {
+            case GOLD -> 0;
+            case TWELVE_DATA -> 1;
+        };
+    }
+
+    static PriceDataSource sourceOf(byte code) {
+        return switch (code) {
+            case 0 -> PriceDataSource.GOLD;
+            case 1 -> PriceDataSource.TWELVE_DATA;
+            default -> null;
+        };
+    }
+
+    static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    static void writeRecord(ByteBuffer buffer, int offset, PriceSeries series, int index) {
+        buffer.putInt(offset + DAY_OFFSET, series.epochDayAt(index));
+        buffer.putLong(offset + OPEN_OFFSET, series.openAt(index));
+        buffer.putLong(offset + HIGH_OFFSET, series.highAt(index));
+        buffer.putLong(offset + LOW_OFFSET, series.lowAt(index));
+        buffer.putLong(offset + CLOSE_OFFSET, series.closeAt(index));
+        buffer.putLong(offset + VOLUME_OFFSET, series.volumeAt(index));
+        buffer.putShort(offset + SCALES_OFFSET, series.scalesAt(index));
+    }
+
+    /**
+     * Decodes the records described by {@code header} into a series with a single pass over the buffer.
+     */
+    static PriceSeries readSeries(ByteBuffer buffer, Header header, String symbol) throws IOException {
+        int count = header.count();
+        int[] days = new int[count];
+        long[] open = new long[count];
+        long[] high = new long[count];
+        long[] low = new long[count];
+        long[] close = new long[count];
+        long[] volume = new long[count];
+        short[] scales = new short[count];
+        for (int i = 0; i < count; i++) {
+            int offset = recordOffset(i);
+            days[i] = buffer.getInt(offset + DAY_OFFSET);
+            open[i] = buffer.getLong(offset + OPEN_OFFSET);
+            high[i] = buffer.getLong(offset + HIGH_OFFSET);
+            low[i] = buffer.getLong(offset + LOW_OFFSET);
+            close[i] = buffer.getLong(offset + CLOSE_OFFSET);
+            volume[i] = buffer.getLong(offset + VOLUME_OFFSET);
+            scales[i] = buffer.getShort(offset + SCALES_OFFSET);
+        }
+        try {
+            return PriceSeries.fromColumns(symbol, header.source(), days, open, high, low, close, volume, scales);
+        } catch (IllegalArgumentException invalid) {
+            throw new IOException("Corrupt binary price file for " + symbol + ": " + invalid.getMessage(), invalid);
+        }
+    }
+
+    static PriceData readRecord(ByteBuffer buffer, Header header, int index, String symbol) {
+        int offset = recordOffset(index);
+        long volume = buffer.getLong(offset + VOLUME_OFFSET);
+        short scales = buffer.getShort(offset + SCALES_OFFSET);
+        return new PriceData(
+            symbol,
+            LocalDate.ofEpochDay(buffer.getInt(offset + DAY_OFFSET)),
+            readPrice(buffer, offset + OPEN_OFFSET, scales, PriceSeries.OPEN),
+            readPrice(buffer, offset + HIGH_OFFSET, scales, PriceSeries.HIGH),
+            readPrice(buffer, offset + LOW_OFFSET, scales, PriceSeries.LOW),
+            readPrice(buffer, offset + CLOSE_OFFSET, scales, PriceSeries.CLOSE),
+            volume == PriceSeries.MISSING ? null : volume,
+            header.source()
+        );
+    }
+
+    private static BigDecimal readPrice(ByteBuffer buffer, int position, short scales, int column) {
+        return PriceSeries.decodePrice(buffer.getLong(position), PriceSeries.scaleOf(scales, column));
+    }
+}
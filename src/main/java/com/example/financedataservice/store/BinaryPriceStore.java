@@ -0,0 +1,210 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceSeries;
+import com.example.financedataservice.store.BinaryPriceFormat.Header;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores each symbol as a compact {@code {SYMBOL}.bin} file of fixed-width records (see {@link BinaryPriceFormat}).
+ * Updates that only append bars past the stored ones write just the new records in place and then the header, so a
+ * daily refresh costs O(new points) and an interrupted append leaves the previous records readable. Updates that revise
+ * stored bars rewrite the file into a temporary file that atomically replaces it, so neither a crash nor a concurrent
+ * {@link MappedPriceReader} sees a half-rewritten history. Loads are a single bulk read.
+ * <p>
+ * Legacy {@code {SYMBOL}.json} files are imported on first load. With {@code exportJson} enabled the JSON layout is
+ * also kept up to date after every write for tools that still consume it.
+ */
+public class BinaryPriceStore implements PriceStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryPriceStore.class);
+
+    private final Path baseDirectory;
+    private final JsonPriceStore jsonStore;
+    private final boolean exportJson;
+
+    public BinaryPriceStore(Path baseDirectory, JsonPriceStore jsonStore, boolean exportJson) {
+        this.baseDirectory = baseDirectory;
+        this.jsonStore = jsonStore;
+        this.exportJson = exportJson;
+    }
+
+    @Override
+    public PriceSeries load(String symbol) throws IOException {
+        Path file = resolveFile(symbol);
+        if (!Files.exists(file)) {
+            return importJson(symbol);
+        }
+        ByteBuffer buffer = readFully(file);
+        Header header = BinaryPriceFormat.readHeader(buffer);
+        int available = (buffer.limit() - BinaryPriceFormat.HEADER_SIZE) / BinaryPriceFormat.RECORD_SIZE;
+        if (available < header.count()) {
+            throw new IOException("Binary price file " + file + " is truncated: expected " + header.count()
+                + " records but found " + available);
+        }
+        return BinaryPriceFormat.readSeries(buffer, header, symbol);
+    }
+
+    @Override
+    public void write(PriceSeries series) throws IOException {
+        Files.createDirectories(baseDirectory);
+        String symbol = series.getSymbol();
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryPriceFormat.recordOffset(series.size()));
+        for (int i = 0; i < series.size(); i++) {
+            BinaryPriceFormat.writeRecord(buffer, BinaryPriceFormat.recordOffset(i), series, i);
+        }
+        BinaryPriceFormat.writeHeader(buffer, headerFor(series));
+
+        Path tempFile = Files.createTempFile(baseDirectory, symbol + "-", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                writeFully(channel, buffer, 0);
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile, resolveFile(symbol), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(tempFile, resolveFile(symbol), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        exportJson(series);
+    }
+
+    @Override
+    public void update(PriceSeries series, int firstChangedIndex) throws IOException {
+        if (firstChangedIndex < 0 || firstChangedIndex >= series.size()) {
+            return;
+        }
+        Path file = resolveFile(series.getSymbol());
+        if (!Files.exists(file) || !canAppend(file, series.getSymbol(), firstChangedIndex)) {
+            // Revising stored records in place is not crash-safe, and unreadable or older files need the current
+            // layout; replace the whole file instead.
+            write(series);
+            return;
+        }
+        append(file, series, firstChangedIndex);
+        exportJson(series);
+    }
+
+    @Override
+    public boolean exists(String symbol) {
+        return Files.exists(resolveFile(symbol)) || jsonStore.exists(symbol);
+    }
+
+    @Override
+    public long sizeInBytes(String symbol) throws IOException {
+        Path file = resolveFile(symbol);
+        return Files.exists(file) ? Files.size(file) : jsonStore.sizeInBytes(symbol);
+    }
+
+    Path resolveFile(String symbol) {
+        return baseDirectory.resolve(symbol + ".bin");
+    }
+
+    /**
+     * Whether {@code file} holds exactly the records before {@code firstChangedIndex}, so the merge result can be
+     * appended in place.
+     */
+    private boolean canAppend(Path file, String symbol, int firstChangedIndex) throws IOException {
+        Header header;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            header = readHeader(channel);
+        } catch (IOException invalidHeader) {
+            log.warn("Rewriting unreadable binary price file for {}: {}", symbol, invalidHeader.getMessage());
+            return false;
+        }
+        if (header.count() < firstChangedIndex) {
+            log.warn("Rewriting binary price file for {}: it holds {} records but the merge starts at {}",
+                symbol, header.count(), firstChangedIndex);
+        }
+        return header.count() == firstChangedIndex;
+    }
+
+    /**
+     * Writes the records from {@code firstChangedIndex} on after the stored ones, which stay untouched.
+     */
+    private void append(Path file, PriceSeries series, int firstChangedIndex) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            int tailSize = series.size() - firstChangedIndex;
+            ByteBuffer records = ByteBuffer.allocate(tailSize * BinaryPriceFormat.RECORD_SIZE);
+            for (int i = 0; i < tailSize; i++) {
+                BinaryPriceFormat.writeRecord(records, i * BinaryPriceFormat.RECORD_SIZE, series, firstChangedIndex + i);
+            }
+            writeFully(channel, records, BinaryPriceFormat.recordOffset(firstChangedIndex));
+            channel.truncate(BinaryPriceFormat.recordOffset(series.size()));
+            channel.force(false);
+
+            // The header is written last so an interrupted append leaves the previous record count in place.
+            ByteBuffer headerBuffer = ByteBuffer.allocate(BinaryPriceFormat.HEADER_SIZE);
+            BinaryPriceFormat.writeHeader(headerBuffer, headerFor(series));
+            writeFully(channel, headerBuffer, 0);
+            channel.force(false);
+        }
+    }
+
+    private PriceSeries importJson(String symbol) throws IOException {
+        PriceSeries series = jsonStore.load(symbol);
+        if (!series.isEmpty()) {
+            write(series);
+            log.info("Imported {} entries for {} from the JSON store", series.size(), symbol);
+        }
+        return series;
+    }
+
+    private void exportJson(PriceSeries series) throws IOException {
+        if (exportJson) {
+            jsonStore.write(series);
+        }
+    }
+
+    private static Header headerFor(PriceSeries series) {
+        if (series.isEmpty()) {
+            return new Header(series.getSource(), 0, 0, 0);
+        }
+        return new Header(series.getSource(), series.size(), series.epochDayAt(0),
+            series.epochDayAt(series.size() - 1));
+    }
+
+    private Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryPriceFormat.HEADER_SIZE);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // keep reading until the header is complete or the file ends
+        }
+        buffer.flip();
+        Header header = BinaryPriceFormat.readHeader(buffer);
+        if (channel.size() < BinaryPriceFormat.recordOffset(header.count())) {
+            throw new IOException("record count exceeds file size");
+        }
+        return header;
+    }
+
+    private static ByteBuffer readFully(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // bulk read of the whole file
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.rewind();
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
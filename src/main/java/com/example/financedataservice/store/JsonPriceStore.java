@@ -0,0 +1,78 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceSeries;
+import com.example.financedataservice.model.SymbolPriceHistory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores each symbol as a pretty-printed {@code {SYMBOL}.json} {@link SymbolPriceHistory} document. Every write
+ * replaces the whole file through an atomic move.
+ */
+public class JsonPriceStore implements PriceStore {
+
+    private final Path baseDirectory;
+    private final ObjectMapper objectMapper;
+
+    public JsonPriceStore(Path baseDirectory, ObjectMapper objectMapper) {
+        this.baseDirectory = baseDirectory;
+        this.objectMapper = objectMapper.copy()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    public PriceSeries load(String symbol) throws IOException {
+        Path file = resolveFile(symbol);
+        if (!Files.exists(file)) {
+            return PriceSeries.empty(symbol, null);
+        }
+        SymbolPriceHistory history = objectMapper.readValue(file.toFile(), SymbolPriceHistory.class);
+        List<PriceData> prices = history.getPrices() == null ? List.of() : history.getPrices();
+        return PriceSeries.of(symbol, null, prices);
+    }
+
+    @Override
+    public void write(PriceSeries series) throws IOException {
+        Files.createDirectories(baseDirectory);
+        String symbol = series.getSymbol();
+        Path file = resolveFile(symbol);
+
+        SymbolPriceHistory document = new SymbolPriceHistory(symbol, new ArrayList<>(series.toPriceData()));
+        Path tempFile = Files.createTempFile(baseDirectory, symbol + "-", ".json");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), document);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public boolean exists(String symbol) {
+        return Files.exists(resolveFile(symbol));
+    }
+
+    @Override
+    public long sizeInBytes(String symbol) throws IOException {
+        Path file = resolveFile(symbol);
+        return Files.exists(file) ? Files.size(file) : 0L;
+    }
+
+    Path resolveFile(String symbol) {
+        return baseDirectory.resolve(symbol + ".json");
+    }
+}
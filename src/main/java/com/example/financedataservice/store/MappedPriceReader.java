@@ -0,0 +1,200 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceSeries;
+import com.example.financedataservice.store.BinaryPriceFormat.Header;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves range queries straight from memory-mapped {@code {SYMBOL}.bin} files written by {@link BinaryPriceStore}.
+ * Only the requested window is decoded; the rest of the history stays in the OS page cache instead of on the heap.
+ * Callers that need a whole {@link PriceSeries} get its primitive columns copied straight from the mapping; that copy
+ * is kept per mapping behind a soft reference, so it is reused until the file changes but never pins the heap.
+ * <p>
+ * In-place appends by the store are visible through the shared mapping. A file is remapped when it grows or is
+ * replaced, which is detected from its size and file key on every read.
+ */
+public class MappedPriceReader {
+
+    private final Path baseDirectory;
+    private final ConcurrentMap<String, Mapping> mappings = new ConcurrentHashMap<>();
+
+    public MappedPriceReader(Path baseDirectory) {
+        this.baseDirectory = baseDirectory;
+    }
+
+    public boolean exists(String symbol) {
+        return Files.exists(resolveFile(symbol));
+    }
+
+    /**
+     * Returns the entries between {@code from} and {@code to} (inclusive, either may be {@code null}), keeping only
+     * the most recent {@code limit} entries when a limit is given.
+     */
+    public List<PriceData> read(String symbol, LocalDate from, LocalDate to, Integer limit) throws IOException {
+        Mapping mapping = mapping(symbol);
+        if (mapping == null) {
+            return List.of();
+        }
+        ByteBuffer buffer = mapping.buffer();
+        Header header = readHeader(buffer);
+        int count = header.count();
+
+        int start = from == null ? 0 : firstIndexOnOrAfter(buffer, header, count, from.toEpochDay());
+        int end = to == null ? count : firstIndexOnOrAfter(buffer, header, count, to.toEpochDay() + 1);
+        if (limit != null && end - start > limit) {
+            start = end - limit;
+        }
+        if (start >= end) {
+            return List.of();
+        }
+
+        List<PriceData> prices = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            prices.add(BinaryPriceFormat.readRecord(buffer, header, i, symbol));
+        }
+        return prices;
+    }
+
+    /**
+     * Returns the whole stored series of {@code symbol}, or an empty series when no file exists.
+     */
+    public PriceSeries readSeries(String symbol) throws IOException {
+        Mapping mapping = mapping(symbol);
+        if (mapping == null) {
+            return PriceSeries.empty(symbol, null);
+        }
+        Header header = readHeader(mapping.buffer());
+        PriceSeries cached = mapping.series();
+        if (cached != null && cached.size() == header.count()) {
+            return cached;
+        }
+        PriceSeries series = BinaryPriceFormat.readSeries(mapping.buffer(), header, symbol);
+        mapping.cache(series);
+        return series;
+    }
+
+    /**
+     * Date of the latest stored entry of {@code symbol}, read from the mapping without decoding any record;
+     * {@code null} when nothing is stored.
+     */
+    public LocalDate lastDate(String symbol) throws IOException {
+        Mapping mapping = mapping(symbol);
+        if (mapping == null) {
+            return null;
+        }
+        ByteBuffer buffer = mapping.buffer();
+        Header header = readHeader(buffer);
+        if (header.count() == 0) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(
+            buffer.getInt(BinaryPriceFormat.recordOffset(header.count() - 1) + BinaryPriceFormat.DAY_OFFSET));
+    }
+
+    int mappedFileCount() {
+        return mappings.size();
+    }
+
+    /**
+     * Header of the mapped file with the record count capped at the records the mapping covers.
+     */
+    private static Header readHeader(ByteBuffer buffer) throws IOException {
+        Header header = BinaryPriceFormat.readHeader(buffer);
+        int mappedRecords = (buffer.capacity() - BinaryPriceFormat.HEADER_SIZE) / BinaryPriceFormat.RECORD_SIZE;
+        if (header.count() <= mappedRecords) {
+            return header;
+        }
+        return new Header(header.source(), mappedRecords, header.firstEpochDay(), header.lastEpochDay());
+    }
+
+    private Mapping mapping(String symbol) throws IOException {
+        Path file = resolveFile(symbol);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException missing) {
+            mappings.remove(symbol);
+            return null;
+        }
+        Object identity = attributes.fileKey() != null ? attributes.fileKey() : attributes.lastModifiedTime();
+
+        Mapping current = mappings.get(symbol);
+        if (current != null && current.size() == attributes.size() && Objects.equals(current.identity(), identity)) {
+            return current;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Mapping mapping = new Mapping(identity, attributes.size(), buffer);
+            mappings.put(symbol, mapping);
+            return mapping;
+        }
+    }
+
+    private static int firstIndexOnOrAfter(ByteBuffer buffer, Header header, int count, long epochDay) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(BinaryPriceFormat.recordOffset(mid) + BinaryPriceFormat.DAY_OFFSET) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Path resolveFile(String symbol) {
+        return baseDirectory.resolve(symbol + ".bin");
+    }
+
+    private static final class Mapping {
+
+        private final Object identity;
+        private final long size;
+        private final MappedByteBuffer buffer;
+        private volatile SoftReference<PriceSeries> series = new SoftReference<>(null);
+
+        Mapping(Object identity, long size, MappedByteBuffer buffer) {
+            this.identity = identity;
+            this.size = size;
+            this.buffer = buffer;
+        }
+
+        Object identity() {
+            return identity;
+        }
+
+        long size() {
+            return size;
+        }
+
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        PriceSeries series() {
+            return series.get();
+        }
+
+        void cache(PriceSeries decoded) {
+            series = new SoftReference<>(decoded);
+        }
+    }
+}
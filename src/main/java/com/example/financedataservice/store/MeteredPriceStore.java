@@ -0,0 +1,89 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceSeries;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.io.IOException;
+
+/**
+ * Records the latency of every load and persist of the wrapped store as {@code finance.store.load} and
+ * {@code finance.store.persist}, tagged by outcome, and the size of the file that was read or written as
+ * {@code finance.store.load.bytes} and {@code finance.store.persist.bytes}. Symbols are not used as tags, since loads
+ * are driven by whatever symbols clients request; loads of symbols without stored data are not recorded at all.
+ */
+public class MeteredPriceStore implements PriceStore {
+
+    static final String LOAD_TIMER = "finance.store.load";
+    static final String PERSIST_TIMER = "finance.store.persist";
+
+    private final PriceStore delegate;
+    private final MeterRegistry registry;
+
+    public MeteredPriceStore(PriceStore delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public PriceSeries load(String symbol) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        PriceSeries series;
+        try {
+            series = delegate.load(symbol);
+        } catch (IOException | RuntimeException e) {
+            sample.stop(registry.timer(LOAD_TIMER, "outcome", "error"));
+            throw e;
+        }
+        if (!series.isEmpty()) {
+            sample.stop(registry.timer(LOAD_TIMER, "outcome", "success"));
+            recordBytes(LOAD_TIMER, symbol);
+        }
+        return series;
+    }
+
+    @Override
+    public void write(PriceSeries series) throws IOException {
+        persist(series.getSymbol(), "write", () -> delegate.write(series));
+    }
+
+    @Override
+    public void update(PriceSeries series, int firstChangedIndex) throws IOException {
+        persist(series.getSymbol(), "update", () -> delegate.update(series, firstChangedIndex));
+    }
+
+    @Override
+    public boolean exists(String symbol) {
+        return delegate.exists(symbol);
+    }
+
+    @Override
+    public long sizeInBytes(String symbol) throws IOException {
+        return delegate.sizeInBytes(symbol);
+    }
+
+    private void persist(String symbol, String operation, StoreAction action) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            action.run();
+            outcome = "success";
+            recordBytes(PERSIST_TIMER, symbol);
+        } finally {
+            sample.stop(registry.timer(PERSIST_TIMER, "operation", operation, "outcome", outcome));
+        }
+    }
+
+    private void recordBytes(String timerName, String symbol) throws IOException {
+        DistributionSummary.builder(timerName + ".bytes")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry)
+            .record(delegate.sizeInBytes(symbol));
+    }
+
+    @FunctionalInterface
+    private interface StoreAction {
+        void run() throws IOException;
+    }
+}
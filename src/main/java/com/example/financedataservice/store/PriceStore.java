@@ -0,0 +1,36 @@
+package com.example.financedataservice.store;
+
+import com.example.financedataservice.model.PriceSeries;
+import java.io.IOException;
+
+/**
+ * Durable per-symbol storage for price histories.
+ */
+public interface PriceStore {
+
+    /**
+     * Loads every stored entry for {@code symbol}. Returns an empty series when nothing is stored.
+     */
+    PriceSeries load(String symbol) throws IOException;
+
+    /**
+     * Replaces the stored history of {@code series.getSymbol()} with {@code series}.
+     */
+    void write(PriceSeries series) throws IOException;
+
+    /**
+     * Persists a merge result. {@code series} is the complete history after the merge and every entry before
+     * {@code firstChangedIndex} is unchanged from what was stored. The default rewrites the full history; stores that
+     * support it only write the changed tail.
+     */
+    default void update(PriceSeries series, int firstChangedIndex) throws IOException {
+        write(series);
+    }
+
+    boolean exists(String symbol);
+
+    /**
+     * Size of the stored history of {@code symbol} on disk, {@code 0} when nothing is stored.
+     */
+    long sizeInBytes(String symbol) throws IOException;
+}
@@ -0,0 +1,106 @@
+package com.example.financedataservice.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.model.CacheWarmupReport;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.RefreshResult.SymbolRefresh;
+import com.example.financedataservice.scheduler.RefreshScheduler;
+import com.example.financedataservice.service.PriceCacheWarmer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+@ExtendWith(MockitoExtension.class)
+class DailySnapshotInitializerTest {
+
+    @Mock
+    private RefreshScheduler refreshScheduler;
+
+    @Mock
+    private PriceCacheWarmer cacheWarmer;
+
+    private final StartupRefreshHealthIndicator progress = new StartupRefreshHealthIndicator();
+
+    @Test
+    void asyncMode_warmsCacheAndReturnsBeforeRefreshCompletes() throws Exception {
+        Set<DataProvider> due = EnumSet.allOf(DataProvider.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        when(cacheWarmer.isEnabled()).thenReturn(true);
+        when(cacheWarmer.warm()).thenReturn(new CacheWarmupReport(3, 1200, 52_800, 0, 15, List.of()));
+        when(refreshScheduler.providersDueAtStartup()).thenReturn(due);
+        when(refreshScheduler.refreshNow(due)).thenAnswer(invocation -> {
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            finished.countDown();
+            return new RefreshResult(Path.of("data"), Instant.now(), 10, 2, List.of(
+                new SymbolRefresh("XAUUSD", "alpha-vantage", 1, 5, 1, null),
+                new SymbolRefresh("AAPL", "twelve-data", 1, 4, 1, null),
+                new SymbolRefresh("BROKEN", "twelve-data", 2, 3, 0, "symbol not found")));
+        });
+
+        new DailySnapshotInitializer(refreshScheduler, cacheWarmer, progress, "async").run(null);
+
+        verify(cacheWarmer).warm();
+        Health running = progress.health();
+        assertThat(running.getStatus()).isEqualTo(Status.UP);
+        assertThat(running.getDetails()).containsKey("warmup");
+        assertThat(finished.getCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitState(StartupRefreshHealthIndicator.State.COMPLETED);
+        assertThat(progress.health().getDetails())
+            .containsEntry("providers", List.of("alpha-vantage", "twelve-data"))
+            .containsEntry("refreshedSymbols", 2)
+            .containsEntry("failedSymbols", List.of("BROKEN"));
+    }
+
+    @Test
+    void syncMode_refreshesOnStartupPathAndSkipsDisabledWarmup() {
+        when(cacheWarmer.isEnabled()).thenReturn(false);
+        when(refreshScheduler.providersDueAtStartup()).thenReturn(Set.of(DataProvider.TWELVE_DATA));
+        when(refreshScheduler.refreshNow(Set.of(DataProvider.TWELVE_DATA)))
+            .thenThrow(new IllegalStateException("Failed to refresh price data"));
+
+        new DailySnapshotInitializer(refreshScheduler, cacheWarmer, progress, "sync").run(null);
+
+        verify(cacheWarmer, never()).warm();
+        assertThat(progress.getState()).isEqualTo(StartupRefreshHealthIndicator.State.FAILED);
+        assertThat(progress.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(progress.health().getDetails()).containsEntry("error", "Failed to refresh price data");
+    }
+
+    @Test
+    void refresh_isSkippedWhenNoProviderIsDue() {
+        when(cacheWarmer.isEnabled()).thenReturn(false);
+        when(refreshScheduler.providersDueAtStartup()).thenReturn(Set.of());
+
+        new DailySnapshotInitializer(refreshScheduler, cacheWarmer, progress, "sync").run(null);
+
+        verify(refreshScheduler, never()).refreshNow(Set.of());
+        assertThat(progress.getState()).isEqualTo(StartupRefreshHealthIndicator.State.SKIPPED);
+    }
+
+    private void awaitState(StartupRefreshHealthIndicator.State expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (progress.getState() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(progress.getState()).isEqualTo(expected);
+    }
+}
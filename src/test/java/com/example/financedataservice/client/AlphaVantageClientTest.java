@@ -1,14 +1,21 @@
 package com.example.financedataservice.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.client.match.MockRestRequestMatchers;
 import org.springframework.test.web.client.response.MockRestResponseCreators;
@@ -17,6 +24,7 @@ import org.springframework.web.client.RestTemplate;
 class AlphaVantageClientTest {
 
     private static final String BASE_URL = "https://alphavantage.example";
+    private static final Instant FIXED_INSTANT = Instant.parse("2024-05-17T00:00:00Z");
 
     private MockRestServiceServer mockServer;
     private AlphaVantageClient client;
@@ -25,7 +33,7 @@ class AlphaVantageClientTest {
     void setUp() {
         RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
         mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
-        client = new AlphaVantageClient(restTemplate, new ObjectMapper(), "test");
+        client = new AlphaVantageClient(restTemplate, new ObjectMapper(), "test", Clock.fixed(FIXED_INSTANT, ZoneOffset.UTC));
     }
 
     @Test
@@ -51,7 +59,7 @@ class AlphaVantageClientTest {
             """;
 
         mockServer.expect(MockRestRequestMatchers.requestTo(
-                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=full&datatype=json&apikey=test"))
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=compact&datatype=json&apikey=test"))
             .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
 
         PriceData priceData = client.fetchLatestGoldPrice();
@@ -62,4 +70,139 @@ class AlphaVantageClientTest {
         assertThat(priceData.getClose()).isNotNull();
         assertThat(priceData.getSource()).isEqualTo(PriceDataSource.GOLD);
     }
+
+    @Test
+    void fetchGoldPriceHistory_requestsFullOutputForLongWindows() {
+        String body = """
+            {
+              \"Time Series (Daily)\": {
+                \"2024-05-16\": {
+                  \"1. open\": \"2330.0000\",
+                  \"2. high\": \"2340.0000\",
+                  \"3. low\": \"2320.0000\",
+                  \"4. close\": \"2335.5000\"
+                }
+              }
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=full&datatype=json&apikey=test"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<PriceData> prices = client.fetchGoldPriceHistory(500);
+
+        mockServer.verify();
+        assertThat(prices).hasSize(1);
+    }
+
+    @Test
+    void fetchGoldPriceHistory_usesCompactOutputAndDropsDatesBeforeSince() {
+        String body = """
+            {
+              \"Time Series (Daily)\": {
+                \"2024-05-14\": {
+                  \"1. open\": \"2310.0000\",
+                  \"2. high\": \"2320.0000\",
+                  \"3. low\": \"2300.0000\",
+                  \"4. close\": \"2315.0000\"
+                },
+                \"2024-05-15\": {
+                  \"1. open\": \"2320.0000\",
+                  \"2. high\": \"2330.0000\",
+                  \"3. low\": \"2310.0000\",
+                  \"4. close\": \"2325.0000\"
+                },
+                \"2024-05-16\": {
+                  \"1. open\": \"2330.0000\",
+                  \"2. high\": \"2340.0000\",
+                  \"3. low\": \"2320.0000\",
+                  \"4. close\": \"2335.5000\"
+                }
+              }
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=compact&datatype=json&apikey=test"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<PriceData> prices = client.fetchGoldPriceHistory(500, LocalDate.of(2024, 5, 15));
+
+        mockServer.verify();
+        assertThat(prices).extracting(PriceData::getDate)
+            .containsExactly(LocalDate.of(2024, 5, 15), LocalDate.of(2024, 5, 16));
+    }
+
+    @Test
+    void fetchGoldPriceHistory_stopsReadingOnceEnoughNewestFirstEntriesAreParsed() {
+        // The trailing entry lacks its price fields; parsing it would fail, so the test proves it is never read.
+        String body = """
+            {
+              \"Time Series (Daily)\": {
+                \"2024-05-16\": {
+                  \"1. open\": \"2330.0000\",
+                  \"2. high\": \"2340.0000\",
+                  \"3. low\": \"2320.0000\",
+                  \"4. close\": \"2335.5000\"
+                },
+                \"2024-05-15\": {
+                  \"1. open\": \"2320.0000\",
+                  \"2. high\": \"2330.0000\",
+                  \"3. low\": \"2310.0000\",
+                  \"4. close\": \"2325.0000\"
+                },
+                \"2024-05-14\": {
+                  \"1. open\": \"2310.0000\"
+                }
+              },
+              \"Meta Data\": {}
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=compact&datatype=json&apikey=test"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<PriceData> latestTwo = client.fetchGoldPriceHistory(2);
+
+        mockServer.verify();
+        assertThat(latestTwo).extracting(PriceData::getDate)
+            .containsExactly(LocalDate.of(2024, 5, 15), LocalDate.of(2024, 5, 16));
+    }
+
+    @Test
+    void fetchGoldPriceHistory_reportsMissingTimeSeries() {
+        String body = """
+            {
+              \"Error Message\": \"Invalid API call. Please retry or visit the documentation.\"
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=compact&datatype=json&apikey=test"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> client.fetchGoldPriceHistory(5))
+            .isInstanceOf(FinanceDataClientException.class)
+            .hasMessageContaining("missing time series");
+    }
+
+    @Test
+    void fetchGoldPriceHistory_retriesRateLimitNoteThenGivesUp() {
+        String body = """
+            {
+              \"Note\": \"Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute.\"
+            }
+            """;
+
+        mockServer.expect(ExpectedCount.times(3), MockRestRequestMatchers.requestTo(
+                BASE_URL + "/query?function=TIME_SERIES_DAILY&symbol=XAUUSD&outputsize=compact&datatype=json&apikey=test"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> client.fetchGoldPriceHistory(5))
+            .isInstanceOf(RateLimitedException.class)
+            .hasMessageContaining("call frequency");
+        mockServer.verify();
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.financedataservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("twelve-data", 3, Duration.ofSeconds(30), nanoTime::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndFailsFast() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission)
+            .isInstanceOf(ProviderUnavailableException.class)
+            .hasMessageContaining("twelve-data circuit is open");
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        tripBreaker();
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(ProviderUnavailableException.class);
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.acquirePermission();
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        tripBreaker();
+        nanoTime.addAndGet(Duration.ofSeconds(31).toNanos());
+        breaker.acquirePermission();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(ProviderUnavailableException.class);
+    }
+
+    @Test
+    void neutralProbeLeavesCircuitHalfOpenForNextProbe() {
+        tripBreaker();
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        breaker.acquirePermission();
+
+        breaker.onNeutral();
+
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void disabledBreakerNeverOpens() {
+        CircuitBreaker disabled = CircuitBreaker.disabled("alpha-vantage");
+        for (int i = 0; i < 100; i++) {
+            disabled.onFailure();
+        }
+
+        disabled.acquirePermission();
+        assertThat(disabled.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void tripBreaker() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+    }
+}
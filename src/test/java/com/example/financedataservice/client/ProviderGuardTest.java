@@ -0,0 +1,157 @@
+package com.example.financedataservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class ProviderGuardTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-05-20T12:00:00Z"), ZoneOffset.UTC);
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("twelve-data", 3, Duration.ofMinutes(1));
+    private final TokenBucketRateLimiter rateLimiter = TokenBucketRateLimiter.unlimited();
+    private final ProviderGuard guard = new ProviderGuard(DataProvider.TWELVE_DATA, rateLimiter, circuitBreaker,
+        new RetryBackoff(Duration.ofMillis(10), Duration.ofMillis(40)), 3, CLOCK);
+    private final List<String> retries = new ArrayList<>();
+
+    @Test
+    void execute_retriesTransientFailuresWithBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = guard.execute("AAPL", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }
+            return "ok";
+        }, this::recordRetry);
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(retries).hasSize(2).allSatisfy(retry -> assertThat(retry).contains("502"));
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_opensCircuitAfterRepeatedFailuresAndThenFailsFast() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute("AAPL", () -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("Connection refused");
+        }, this::recordRetry)).isInstanceOf(ResourceAccessException.class);
+        assertThatThrownBy(() -> guard.execute("MSFT", () -> "ok", this::recordRetry))
+            .isInstanceOf(ProviderUnavailableException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(retries).hasSize(2);
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void execute_throwsPermanentFailuresWithoutRetrying() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute("XXXX", () -> {
+            attempts.incrementAndGet();
+            throw new FinanceDataClientException("Twelve Data reported error: symbol not found");
+        }, this::recordRetry)).hasMessageContaining("symbol not found");
+
+        assertThat(attempts).hasValue(1);
+        assertThat(retries).isEmpty();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_slowsDownRateLimiterOn429AndRethrowsWhenAttemptsRunOut() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "0");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute("AAPL", () -> {
+            attempts.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers,
+                new byte[0], StandardCharsets.UTF_8);
+        }, this::recordRetry))
+            .isInstanceOf(RateLimitedException.class)
+            .hasMessageContaining("twelve-data rate limit exceeded for AAPL");
+
+        assertThat(attempts).hasValue(3);
+        assertThat(rateLimiter.currentInterval()).isGreaterThanOrEqualTo(TokenBucketRateLimiter.MIN_PENALTY_INTERVAL);
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_releasesHalfOpenProbeWhenWaitingForPermitFails() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("twelve-data", 1, Duration.ofMinutes(1), nanoTime::get);
+        AtomicBoolean interruptNextAcquire = new AtomicBoolean();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ZERO) {
+            @Override
+            public void acquire(int permits) {
+                if (interruptNextAcquire.getAndSet(false)) {
+                    throw new FinanceDataClientException("Interrupted while waiting for a provider rate limit permit");
+                }
+            }
+        };
+        ProviderGuard halfOpenGuard = new ProviderGuard(DataProvider.TWELVE_DATA, limiter, breaker,
+            new RetryBackoff(Duration.ZERO, Duration.ZERO), 1, CLOCK);
+        assertThatThrownBy(() -> halfOpenGuard.execute("AAPL", () -> {
+            throw new ResourceAccessException("Connection refused");
+        }, this::recordRetry)).isInstanceOf(ResourceAccessException.class);
+        nanoTime.addAndGet(Duration.ofMinutes(2).toNanos());
+        interruptNextAcquire.set(true);
+
+        assertThatThrownBy(() -> halfOpenGuard.execute("AAPL", () -> "ok", this::recordRetry))
+            .hasMessageContaining("Interrupted");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        assertThat(halfOpenGuard.execute("AAPL", () -> "ok", this::recordRetry)).isEqualTo("ok");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void retryAfter_readsSecondsAndHttpDates() {
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.add(HttpHeaders.RETRY_AFTER, "7");
+        HttpHeaders date = new HttpHeaders();
+        date.add(HttpHeaders.RETRY_AFTER, "Mon, 20 May 2024 12:00:30 GMT");
+        HttpHeaders invalid = new HttpHeaders();
+        invalid.add(HttpHeaders.RETRY_AFTER, "soon");
+
+        assertThat(guard.retryAfter(seconds)).isEqualTo(Duration.ofSeconds(7));
+        assertThat(guard.retryAfter(date)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(guard.retryAfter(invalid)).isNull();
+        assertThat(guard.retryAfter(new HttpHeaders())).isNull();
+    }
+
+    @Test
+    void backoff_growsExponentiallyWithJitterUpToMaximum() {
+        RetryBackoff lowest = new RetryBackoff(Duration.ofSeconds(1), Duration.ofSeconds(10), () -> 0.0);
+        RetryBackoff highest = new RetryBackoff(Duration.ofSeconds(1), Duration.ofSeconds(10), () -> 1.0);
+
+        assertThat(lowest.delay(1)).isEqualTo(Duration.ofMillis(500));
+        assertThat(highest.delay(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(lowest.delay(3)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(highest.delay(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(highest.delay(10)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    private void recordRetry(int retry, RuntimeException failure, Duration delay) {
+        retries.add(retry + ": " + failure.getMessage());
+    }
+}
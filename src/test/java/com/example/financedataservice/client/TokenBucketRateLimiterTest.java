@@ -0,0 +1,91 @@
+package com.example.financedataservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void reservePermit_allowsBurstThenSpacesCallers() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofMillis(100), nanoTime::get);
+
+        assertThat(limiter.reservePermit()).isZero();
+        assertThat(limiter.reservePermit()).isZero();
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void reservePermits_chargesEveryPermitOfAMultiCreditRequest() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofMillis(100), nanoTime::get);
+
+        assertThat(limiter.reservePermits(3)).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void reservePermit_refillsOverTimeUpToCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(100), nanoTime::get);
+
+        assertThat(limiter.reservePermit()).isZero();
+        nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(limiter.reservePermit()).isZero();
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void reservePermit_neverWaitsWhenUnlimited() {
+        TokenBucketRateLimiter limiter = TokenBucketRateLimiter.unlimited();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reservePermit()).isZero();
+        }
+        assertThat(limiter.isUnlimited()).isTrue();
+    }
+
+    @Test
+    void recordRateLimited_pausesBucketAndDoublesInterval() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(500), nanoTime::get);
+        assertThat(limiter.reservePermit()).isZero();
+
+        limiter.recordRateLimited(Duration.ofSeconds(3));
+
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofSeconds(3).toNanos());
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofSeconds(4).toNanos());
+    }
+
+    @Test
+    void recordSuccess_shrinksPenaltyBackToConfiguredInterval() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(500), nanoTime::get);
+        limiter.recordRateLimited(Duration.ZERO);
+        limiter.recordRateLimited(Duration.ZERO);
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofSeconds(2));
+
+        limiter.recordSuccess();
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofMillis(1500));
+        for (int i = 0; i < 5; i++) {
+            limiter.recordSuccess();
+        }
+
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void recordQuota_spreadsRemainingRequestsAndPausesWhenExhausted() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(500), nanoTime::get);
+
+        limiter.recordQuota(4, Duration.ofSeconds(40));
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofSeconds(10));
+
+        limiter.recordQuota(0, Duration.ofSeconds(20));
+        assertThat(limiter.currentInterval()).isEqualTo(Duration.ofMillis(500));
+        assertThat(limiter.reservePermit()).isEqualTo(Duration.ofSeconds(20).toNanos());
+        assertThat(limiter.isUnlimited()).isFalse();
+    }
+}
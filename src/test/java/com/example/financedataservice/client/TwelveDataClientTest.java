@@ -3,15 +3,24 @@ package com.example.financedataservice.client;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.example.financedataservice.config.InMemoryTracing;
 import com.example.financedataservice.model.PriceData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.client.match.MockRestRequestMatchers;
@@ -25,12 +34,15 @@ class TwelveDataClientTest {
 
     private MockRestServiceServer mockServer;
     private TwelveDataClient client;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryTracing tracing = new InMemoryTracing();
 
     @BeforeEach
     void setUp() {
         RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
         mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
-        client = new TwelveDataClient(restTemplate, new ObjectMapper(), Clock.fixed(FIXED_INSTANT, ZoneOffset.UTC), "test-key", "1day");
+        client = new TwelveDataClient(restTemplate, new ObjectMapper(), Clock.fixed(FIXED_INSTANT, ZoneOffset.UTC), "test-key", "1day",
+            meterRegistry, tracing.tracer());
     }
 
     @Test
@@ -108,14 +120,23 @@ class TwelveDataClientTest {
         mockServer.verify();
         assertThat(data).hasSize(1);
         assertThat(data.get(0).getSymbol()).isEqualTo("MSFT");
+        assertThat(meterRegistry.get(ProviderMetrics.REQUEST_TIMER)
+            .tags("provider", "twelve-data", "symbol", "MSFT", "status", "ok", "retries", "1")
+            .timer().count()).isEqualTo(1);
+        SpanData fetch = tracing.span("twelve-data.fetch");
+        assertThat(fetch.getAttributes().get(AttributeKey.stringKey("symbol"))).isEqualTo("MSFT");
+        assertThat(fetch.getAttributes().get(AttributeKey.longKey("retries"))).isEqualTo(1L);
+        assertThat(fetch.getEvents()).extracting(EventData::getName).containsExactly("rate-limited");
+        assertThat(tracing.span("twelve-data.parse").getParentSpanId()).isEqualTo(fetch.getSpanId());
     }
 
     @Test
     void fetchHistoricalPrices_throwsWhenStatusError() {
         String body = """
             {
+              \"code\": 400,
               \"status\": \"error\",
-              \"message\": \"Rate limit exceeded\"
+              \"message\": \"**symbol** not found: TSLAX\"
             }
             """;
 
@@ -127,4 +148,189 @@ class TwelveDataClientTest {
             .isInstanceOf(FinanceDataClientException.class)
             .hasMessageContaining("Twelve Data reported error");
     }
+
+    @Test
+    void fetchHistoricalPrices_startsFromLatestStoredDate() {
+        String body = """
+            {
+              \"status\": \"ok\",
+              \"values\": [
+                {
+                  \"datetime\": \"2024-05-20\",
+                  \"open\": \"190.0\",
+                  \"high\": \"192.0\",
+                  \"low\": \"189.5\",
+                  \"close\": \"191.0\",
+                  \"volume\": \"1000000\"
+                }
+              ]
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL&interval=1day&start_date=2024-05-19&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<PriceData> data = client.fetchHistoricalPrices("AAPL", 300, LocalDate.of(2024, 5, 19));
+
+        mockServer.verify();
+        assertThat(data).hasSize(1);
+    }
+
+    @Test
+    void fetchHistoricalPrices_spreadsRemainingCreditsOverTheMinute() {
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        Clock clock = Clock.fixed(FIXED_INSTANT, ZoneOffset.UTC);
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, Duration.ofMillis(500));
+        ProviderGuard guard = new ProviderGuard(DataProvider.TWELVE_DATA, rateLimiter,
+            CircuitBreaker.disabled("twelve-data"), new RetryBackoff(Duration.ZERO, Duration.ZERO), 1, clock);
+        TwelveDataClient guarded = new TwelveDataClient(restTemplate, new ObjectMapper(), clock, "test-key", "1day",
+            meterRegistry, tracing.tracer(), guard);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(TwelveDataClient.CREDITS_LEFT_HEADER, "2");
+
+        server.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL&interval=1day&start_date=2024-05-15&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess("{\"status\": \"ok\", \"values\": []}", MediaType.APPLICATION_JSON)
+                .headers(headers));
+
+        guarded.fetchHistoricalPrices("AAPL", 5);
+
+        server.verify();
+        assertThat(rateLimiter.currentInterval()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void fetchHistoricalPrices_readsStatusAfterValues() {
+        String body = """
+            {
+              \"meta\": {\"symbol\": \"AAPL\", \"interval\": \"1day\"},
+              \"values\": [
+                {
+                  \"datetime\": \"2024-05-20\",
+                  \"open\": \"190.0\",
+                  \"high\": \"192.0\",
+                  \"low\": \"189.5\",
+                  \"close\": \"191.0\",
+                  \"volume\": null
+                }
+              ],
+              \"status\": \"ok\"
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL&interval=1day&start_date=2024-05-19&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        List<PriceData> data = client.fetchHistoricalPrices("AAPL", 300, LocalDate.of(2024, 5, 19));
+
+        mockServer.verify();
+        assertThat(data).hasSize(1);
+        assertThat(data.get(0).getSymbol()).isEqualTo("AAPL");
+        assertThat(data.get(0).getClose()).isEqualByComparingTo("191.0");
+        assertThat(data.get(0).getVolume()).isNull();
+    }
+
+    @Test
+    void fetchHistoricalPrices_batchParsesEachSymbolAndSkipsErroredOnes() {
+        String body = """
+            {
+              "AAPL": {
+                "meta": {"symbol": "AAPL", "interval": "1day"},
+                "values": [
+                  {"datetime": "2024-05-20", "open": "190.0", "high": "192.0", "low": "189.5", "close": "191.0", "volume": "1000000"}
+                ],
+                "status": "ok"
+              },
+              "MSFT": {
+                "meta": {"symbol": "MSFT", "interval": "1day"},
+                "values": [
+                  {"datetime": "2024-05-20", "open": "420.0", "high": "422.0", "low": "418.5", "close": "421.0", "volume": "900000"},
+                  {"datetime": "2024-05-17", "open": "418.0", "high": "421.0", "low": "417.0", "close": "420.0", "volume": "800000"}
+                ],
+                "status": "ok"
+              },
+              "XXXX": {"code": 400, "message": "symbol not found", "status": "error"}
+            }
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL,MSFT,XXXX&interval=1day&start_date=2024-05-15&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        Map<String, List<PriceData>> data = client.fetchHistoricalPrices(List.of("AAPL", "MSFT", "XXXX"), 5, null);
+
+        mockServer.verify();
+        assertThat(data).containsOnlyKeys("AAPL", "MSFT");
+        assertThat(data.get("AAPL")).singleElement().satisfies(price -> assertThat(price.getSymbol()).isEqualTo("AAPL"));
+        assertThat(data.get("MSFT")).hasSize(2);
+        assertThat(data.get("MSFT").get(1).getDate()).hasToString("2024-05-17");
+        assertThat(meterRegistry.get(ProviderMetrics.REQUEST_TIMER)
+            .tags("symbol", ProviderMetrics.BATCH_SYMBOL, "status", "ok", "retries", "0")
+            .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchHistoricalPrices_batchThrowsWhenWholeRequestFails() {
+        String body = """
+            {"code": 401, "message": "**apikey** parameter is incorrect", "status": "error"}
+            """;
+
+        mockServer.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL,MSFT&interval=1day&start_date=2024-05-15&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> client.fetchHistoricalPrices(List.of("AAPL", "MSFT"), 5, null))
+            .isInstanceOf(FinanceDataClientException.class)
+            .isNotInstanceOf(RateLimitedException.class)
+            .hasMessageContaining("apikey");
+    }
+
+    @Test
+    void fetchHistoricalPrices_batchOutOfCreditsIsRateLimitedUntilTheNextMinute() {
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        Clock clock = Clock.fixed(FIXED_INSTANT.plusSeconds(45), ZoneOffset.UTC);
+        TwelveDataClient guarded = new TwelveDataClient(restTemplate, new ObjectMapper(), clock, "test-key", "1day",
+            meterRegistry, tracing.tracer(), singleAttemptGuard(TokenBucketRateLimiter.unlimited(), clock));
+        String body = """
+            {"code": 429, "message": "You have run out of API credits for the current minute.", "status": "error"}
+            """;
+
+        server.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL,MSFT&interval=1day&start_date=2024-05-15&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess(body, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> guarded.fetchHistoricalPrices(List.of("AAPL", "MSFT"), 5, null))
+            .isInstanceOfSatisfying(RateLimitedException.class,
+                rateLimited -> assertThat(rateLimited.getRetryAfter()).isEqualTo(Duration.ofSeconds(15)))
+            .hasMessageContaining("run out of API credits");
+        server.verify();
+    }
+
+    @Test
+    void fetchHistoricalPrices_batchTakesOnePermitPerSymbol() {
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        Clock clock = Clock.fixed(FIXED_INSTANT, ZoneOffset.UTC);
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(3, Duration.ofSeconds(1), () -> 0L);
+        TwelveDataClient guarded = new TwelveDataClient(restTemplate, new ObjectMapper(), clock, "test-key", "1day",
+            meterRegistry, tracing.tracer(), singleAttemptGuard(rateLimiter, clock));
+
+        server.expect(MockRestRequestMatchers.requestTo(
+                BASE_URL + "/time_series?symbol=AAPL,MSFT,TSLA&interval=1day&start_date=2024-05-15&end_date=2024-05-20&apikey=test-key"))
+            .andRespond(MockRestResponseCreators.withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        guarded.fetchHistoricalPrices(List.of("AAPL", "MSFT", "TSLA"), 5, null);
+
+        server.verify();
+        assertThat(rateLimiter.reservePermit()).isEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    private ProviderGuard singleAttemptGuard(TokenBucketRateLimiter rateLimiter, Clock clock) {
+        return new ProviderGuard(DataProvider.TWELVE_DATA, rateLimiter, CircuitBreaker.disabled("twelve-data"),
+            new RetryBackoff(Duration.ZERO, Duration.ZERO), 1, clock);
+    }
 }
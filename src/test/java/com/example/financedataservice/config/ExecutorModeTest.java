@@ -0,0 +1,35 @@
+package com.example.financedataservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ExecutorModeTest {
+
+    @Test
+    void from_parsesCaseInsensitiveValuesAndDefaultsToPlatform() {
+        assertThat(ExecutorMode.from("virtual")).isEqualTo(ExecutorMode.VIRTUAL);
+        assertThat(ExecutorMode.from(" Platform ")).isEqualTo(ExecutorMode.PLATFORM);
+        assertThat(ExecutorMode.from(null)).isEqualTo(ExecutorMode.PLATFORM);
+        assertThatThrownBy(() -> ExecutorMode.from("green"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void newExecutor_runsTasksInVirtualModeOnAnyJdk() throws Exception {
+        ExecutorService executor = ExecutorMode.VIRTUAL.newExecutor("test-io", 1);
+        try {
+            Boolean virtual = executor.submit(() -> Thread.currentThread().toString().contains("Virtual"))
+                .get(5, TimeUnit.SECONDS);
+
+            assertThat(virtual).isEqualTo(ExecutorMode.virtualThreadsSupported());
+            assertThat(ExecutorMode.VIRTUAL.effective() == ExecutorMode.VIRTUAL)
+                .isEqualTo(ExecutorMode.virtualThreadsSupported());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.financedataservice.config;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.util.List;
+
+/**
+ * OpenTelemetry backed {@link Tracer} that keeps finished spans in memory, for asserting span trees in tests.
+ */
+public final class InMemoryTracing {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final Tracer tracer;
+
+    public InMemoryTracing() {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+        tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> {
+        });
+    }
+
+    public Tracer tracer() {
+        return tracer;
+    }
+
+    public List<SpanData> finishedSpans() {
+        return exporter.getFinishedSpanItems();
+    }
+
+    public SpanData span(String name) {
+        return finishedSpans().stream()
+            .filter(span -> span.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No finished span named " + name + " in " + finishedSpans()));
+    }
+}
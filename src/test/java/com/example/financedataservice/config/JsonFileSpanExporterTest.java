@@ -0,0 +1,60 @@
+package com.example.financedataservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JsonFileSpanExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void export_appendsOneJsonLinePerFinishedSpan() throws Exception {
+        Path file = tempDir.resolve("traces/spans.jsonl");
+        JsonFileSpanExporter exporter = new JsonFileSpanExporter(file);
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+        Tracer tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> {
+        });
+
+        Spans.trace(tracer, "refresh", refresh -> Spans.trace(tracer, "refresh.merge", merge -> {
+            merge.tag("symbol", "AAPL").tag("data.points", 3).event("merged");
+            return null;
+        }));
+        Span failed = tracer.nextSpan().name("twelve-data.fetch").start();
+        failed.error(new IllegalStateException("boom"));
+        failed.end();
+        tracerProvider.close();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        JsonNode merge = objectMapper.readTree(lines.get(0));
+        JsonNode refresh = objectMapper.readTree(lines.get(1));
+        JsonNode fetch = objectMapper.readTree(lines.get(2));
+
+        assertThat(merge.get("name").asText()).isEqualTo("refresh.merge");
+        assertThat(merge.get("traceId").asText()).isEqualTo(refresh.get("traceId").asText());
+        assertThat(merge.get("parentSpanId").asText()).isEqualTo(refresh.get("spanId").asText());
+        assertThat(merge.get("attributes").get("symbol").asText()).isEqualTo("AAPL");
+        assertThat(merge.get("attributes").get("data.points").asLong()).isEqualTo(3);
+        assertThat(merge.get("events").get(0).get("name").asText()).isEqualTo("merged");
+        assertThat(merge.get("durationMicros").asLong()).isNotNegative();
+        assertThat(refresh.has("parentSpanId")).isFalse();
+        assertThat(fetch.get("status").asText()).isEqualTo("ERROR");
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.financedataservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+class ProviderHttpTransportTest {
+
+    private static final ProviderHttpSettings SETTINGS = ProviderHttpSettings.ofMillis(1_000, 2_000, 5_000);
+    private static final int DEADLINE_MILLIS = 100;
+    private static final int STALL_MILLIS = 300;
+
+    private HttpServer server;
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private final Set<Object> remoteAddresses = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ping", exchange -> {
+            remoteAddresses.add(exchange.getRemoteAddress());
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            exchange.getResponseBody().write(compressed.toByteArray());
+            exchange.close();
+        });
+        server.createContext("/slow-headers", exchange -> {
+            pause(STALL_MILLIS);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/stalled-body", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("{\"values\":[".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            pause(STALL_MILLIS);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void jdkTransport_reusesPooledConnectionsAndRequestsGzip() {
+        try (ProviderHttpTransport transport = new ProviderHttpTransport("jdk", "virtual", true, true)) {
+            RestTemplate restTemplate = restTemplate(transport, SETTINGS);
+
+            assertThat(restTemplate.getForObject("/ping", String.class)).isEqualTo("pong");
+            assertThat(restTemplate.getForObject("/ping", String.class)).isEqualTo("pong");
+            assertThat(acceptEncoding.get()).isEqualTo("gzip");
+            assertThat(remoteAddresses).hasSize(1);
+        }
+    }
+
+    @Test
+    void gzipResponses_areDecompressed() {
+        try (ProviderHttpTransport transport = new ProviderHttpTransport("jdk", "platform", true, true)) {
+            assertThat(restTemplate(transport, SETTINGS).getForObject("/gzip", String.class))
+                .isEqualTo("{\"status\":\"ok\"}");
+        }
+    }
+
+    @Test
+    void gzipDisabled_doesNotAdvertiseEncoding() {
+        try (ProviderHttpTransport transport = new ProviderHttpTransport("jdk", "platform", false, false)) {
+            assertThat(restTemplate(transport, SETTINGS).getForObject("/ping", String.class)).isEqualTo("pong");
+            assertThat(acceptEncoding.get()).isNull();
+        }
+    }
+
+    @Test
+    void readTimeout_abortsWhenHeadersDoNotArrive() {
+        ProviderHttpSettings settings = ProviderHttpSettings.ofMillis(DEADLINE_MILLIS, DEADLINE_MILLIS, 5_000);
+        for (String mode : new String[] {"jdk", "default"}) {
+            try (ProviderHttpTransport transport = new ProviderHttpTransport(mode, "platform", true, true)) {
+                RestTemplate restTemplate = restTemplate(transport, settings);
+                long startedAt = System.nanoTime();
+
+                assertThatThrownBy(() -> restTemplate.getForObject("/slow-headers", String.class))
+                    .isInstanceOf(ResourceAccessException.class);
+                assertThat(elapsedMillis(startedAt)).isLessThan(STALL_MILLIS);
+            }
+        }
+    }
+
+    @Test
+    void totalTimeout_abortsStalledBody() {
+        ProviderHttpSettings settings = ProviderHttpSettings.ofMillis(DEADLINE_MILLIS, 10_000, DEADLINE_MILLIS);
+        try (ProviderHttpTransport transport = new ProviderHttpTransport("jdk", "platform", true, true)) {
+            RestTemplate restTemplate = restTemplate(transport, settings);
+            long startedAt = System.nanoTime();
+
+            assertThatThrownBy(() -> restTemplate.getForObject("/stalled-body", String.class))
+                .isInstanceOf(RestClientException.class)
+                .hasCauseInstanceOf(SocketTimeoutException.class);
+            assertThat(elapsedMillis(startedAt)).isLessThan(STALL_MILLIS);
+        }
+    }
+
+    @Test
+    void defaultTransport_appliesSettingsToDetectedRequestFactory() {
+        try (ProviderHttpTransport transport = new ProviderHttpTransport("default", "platform", true, true)) {
+            RestTemplate restTemplate = restTemplate(transport, SETTINGS);
+
+            assertThat(transport.getTransport()).isEqualTo(ProviderHttpTransport.Transport.DEFAULT);
+            assertThat(restTemplate.getForObject("/ping", String.class)).isEqualTo("pong");
+        }
+    }
+
+    private RestTemplate restTemplate(ProviderHttpTransport transport, ProviderHttpSettings settings) {
+        return transport.configure(new RestTemplateBuilder(), settings)
+            .rootUri("http://127.0.0.1:" + server.getAddress().getPort())
+            .build();
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private static void pause(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.financedataservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.financedataservice.controller.PriceDataController;
+import com.example.financedataservice.service.FinanceDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class ResponseSizeMetricsFilterTest {
+
+    @Test
+    void recordsResponseBytesPerUriPattern() throws Exception {
+        FinanceDataService financeDataService = Mockito.mock(FinanceDataService.class);
+        when(financeDataService.getAvailableSymbols()).thenReturn(List.of("AAPL", "MSFT"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new PriceDataController(financeDataService, new ObjectMapper()))
+            .addFilters(new ResponseSizeMetricsFilter(registry))
+            .build();
+
+        byte[] body = mockMvc.perform(get("/symbols"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+
+        DistributionSummary summary = registry.get(ResponseSizeMetricsFilter.METRIC_NAME)
+            .tags("uri", "/symbols", "method", "GET", "status", "200")
+            .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(body.length).isPositive();
+    }
+}
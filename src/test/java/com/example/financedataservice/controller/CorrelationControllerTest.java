@@ -0,0 +1,59 @@
+package com.example.financedataservice.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.financedataservice.model.CorrelationMatrix;
+import com.example.financedataservice.service.CorrelationService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class CorrelationControllerTest {
+
+    private CorrelationService correlationService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        correlationService = Mockito.mock(CorrelationService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new CorrelationController(correlationService)).build();
+    }
+
+    @Test
+    void getCorrelations_returnsMatrices() throws Exception {
+        CorrelationMatrix matrix = new CorrelationMatrix(List.of("AAPL", "XAUUSD"), List.of("NOPE"),
+            LocalDate.of(2024, 1, 2), LocalDate.of(2024, 6, 28), 120, new double[] {0.001, 0.0004},
+            new double[] {0.02, 0.01}, new double[][] {{0.0004, 0.00006}, {0.00006, 0.0001}},
+            new double[][] {{1, 0.3}, {0.3, 1}});
+        when(correlationService.getCorrelations(List.of("AAPL", "XAUUSD", "NOPE"), LocalDate.of(2024, 1, 1), null))
+            .thenReturn(matrix);
+
+        mockMvc.perform(get("/correlations").queryParam("symbols", "AAPL,XAUUSD,NOPE").queryParam("from", "2024-01-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.symbols[1]").value("XAUUSD"))
+            .andExpect(jsonPath("$.missingSymbols[0]").value("NOPE"))
+            .andExpect(jsonPath("$.observations").value(120))
+            .andExpect(jsonPath("$.correlation[0][1]").value(0.3));
+    }
+
+    @Test
+    void getCorrelations_mapsInvalidRequestsAndMissingOverlap() throws Exception {
+        when(correlationService.getCorrelations(null, null, null))
+            .thenThrow(new IllegalArgumentException("At least one symbol must be provided"));
+        when(correlationService.getCorrelations(List.of("AAPL", "MSFT"), null, null))
+            .thenReturn(new CorrelationMatrix(List.of("AAPL", "MSFT"), List.of(), null, null, 0, new double[2],
+                new double[2], new double[2][2], new double[2][2]));
+
+        mockMvc.perform(get("/correlations"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/correlations").queryParam("symbols", "AAPL,MSFT"))
+            .andExpect(status().isNotFound());
+    }
+}
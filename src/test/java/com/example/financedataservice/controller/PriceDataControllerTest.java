@@ -1,32 +1,63 @@
 package com.example.financedataservice.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.financedataservice.config.InMemoryTracing;
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.IndicatorType;
+import com.example.financedataservice.model.PriceCacheStats;
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.SerializedPriceHistory;
 import com.example.financedataservice.service.FinanceDataService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
 
 class PriceDataControllerTest {
 
     private FinanceDataService financeDataService;
+    private PriceDataController controller;
     private MockMvc mockMvc;
+    private final InMemoryTracing tracing = new InMemoryTracing();
 
     @BeforeEach
     void setUp() {
         financeDataService = Mockito.mock(FinanceDataService.class);
-        PriceDataController controller = new PriceDataController(financeDataService);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        controller = new PriceDataController(financeDataService, objectMapper, tracing.tracer());
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
@@ -43,7 +74,7 @@ class PriceDataControllerTest {
             PriceDataSource.TWELVE_DATA
         );
 
-        when(financeDataService.getPriceDataForSymbol("AAPL"))
+        when(financeDataService.getPriceDataForSymbol("AAPL", null, null, null))
             .thenReturn(List.of(priceData));
 
         mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL")
@@ -52,9 +83,29 @@ class PriceDataControllerTest {
             .andExpect(jsonPath("$[0].symbol").value("AAPL"));
     }
 
+    @Test
+    void getPriceData_tagsRequestSpanWithSymbolAndReadPath() throws Exception {
+        when(financeDataService.getPriceDataForSymbol("AAPL", LocalDate.of(2024, 5, 1), null, null))
+            .thenReturn(List.of(new PriceData("AAPL", LocalDate.of(2024, 5, 16), BigDecimal.ONE, BigDecimal.ONE,
+                BigDecimal.ONE, BigDecimal.ONE, 1000L, PriceDataSource.TWELVE_DATA)));
+
+        Tracer tracer = tracing.tracer();
+        Span request = tracer.nextSpan().name("http get").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL").queryParam("from", "2024-05-01"))
+                .andExpect(status().isOk());
+        } finally {
+            request.end();
+        }
+
+        SpanData span = tracing.span("http get");
+        assertThat(span.getAttributes().get(AttributeKey.stringKey("finance.symbol"))).isEqualTo("AAPL");
+        assertThat(span.getAttributes().get(AttributeKey.stringKey("finance.read"))).isEqualTo("window");
+    }
+
     @Test
     void getPriceData_returns404WhenEmpty() throws Exception {
-        when(financeDataService.getPriceDataForSymbol("AAPL")).thenReturn(List.of());
+        when(financeDataService.getPriceDataForSymbol("AAPL", null, null, null)).thenReturn(List.of());
 
         mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL"))
             .andExpect(status().isNotFound());
@@ -66,6 +117,210 @@ class PriceDataControllerTest {
             .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getPriceData_passesRangeAndLimitToService() throws Exception {
+        PriceData priceData = new PriceData(
+            "AAPL",
+            LocalDate.of(2024, 5, 16),
+            new BigDecimal("180.00"),
+            new BigDecimal("181.00"),
+            new BigDecimal("179.00"),
+            new BigDecimal("180.50"),
+            1000L,
+            PriceDataSource.TWELVE_DATA
+        );
+
+        when(financeDataService.getPriceDataForSymbol("AAPL", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), 10))
+            .thenReturn(List.of(priceData));
+
+        mockMvc.perform(get("/getPriceData")
+                .queryParam("symbol", "AAPL")
+                .queryParam("from", "2024-05-01")
+                .queryParam("to", "2024-05-31")
+                .queryParam("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].date").value("2024-05-16"));
+    }
+
+    @Test
+    void getPriceData_returns400WhenRangeInverted() throws Exception {
+        mockMvc.perform(get("/getPriceData")
+                .queryParam("symbol", "AAPL")
+                .queryParam("from", "2024-06-01")
+                .queryParam("to", "2024-05-01"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPrices_streamsEverySymbolInOneDocument() throws Exception {
+        PriceData apple = new PriceData(
+            "AAPL",
+            LocalDate.of(2024, 5, 16),
+            new BigDecimal("180.00"),
+            new BigDecimal("181.00"),
+            new BigDecimal("179.00"),
+            new BigDecimal("180.50"),
+            1000L,
+            PriceDataSource.TWELVE_DATA
+        );
+        LocalDate from = LocalDate.of(2024, 5, 1);
+
+        when(financeDataService.getPriceWindow("AAPL", from, null)).thenReturn(List.of(apple));
+        when(financeDataService.getPriceWindow("XAUUSD", from, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/prices")
+                .queryParam("symbols", "aapl, XAUUSD")
+                .queryParam("from", "2024-05-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].symbol").value("AAPL"))
+            .andExpect(jsonPath("$[0].prices[0].date").value("2024-05-16"))
+            .andExpect(jsonPath("$[0].prices[0].close").value(180.50))
+            .andExpect(jsonPath("$[1].symbol").value("XAUUSD"))
+            .andExpect(jsonPath("$[1].prices").isEmpty());
+    }
+
+    @Test
+    void getPrices_leavesBodyUnterminatedWhenStreamingFailsMidway() throws Exception {
+        PriceData apple = new PriceData("AAPL", LocalDate.of(2024, 5, 16), new BigDecimal("180.00"),
+            new BigDecimal("181.00"), new BigDecimal("179.00"), new BigDecimal("180.50"), 1000L,
+            PriceDataSource.TWELVE_DATA);
+        when(financeDataService.getPriceWindow("AAPL", null, null)).thenReturn(List.of(apple));
+        when(financeDataService.getPriceWindow("MSFT", null, null)).thenReturn(new AbstractList<>() {
+            @Override
+            public PriceData get(int index) {
+                throw new IllegalStateException("Failed to read mapped data for symbol MSFT");
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/prices");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> controller.getPrices(List.of("AAPL", "MSFT"), null, null, null, null,
+            new ServletWebRequest(request, response), response))
+            .isInstanceOf(IllegalStateException.class);
+
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).startsWith("[{\"symbol\":\"AAPL\"").contains("\"symbol\":\"MSFT\"").doesNotEndWith("]");
+        assertThatThrownBy(() -> new ObjectMapper().readTree(body)).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void getPrices_failsBeforeWritingWhenASeriesCannotBeResolved() {
+        when(financeDataService.getPriceWindow("AAPL", null, null)).thenReturn(List.of());
+        when(financeDataService.getPriceWindow("MSFT", null, null))
+            .thenThrow(new IllegalStateException("Failed to read mapped data for symbol MSFT"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/prices");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> controller.getPrices(List.of("AAPL", "MSFT"), null, null, null, null,
+            new ServletWebRequest(request, response), response))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void getPriceData_returns304WhenETagMatches() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 3, LocalDate.of(2024, 5, 16), 0x3fL);
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version);
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL")
+                .header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()));
+
+        verify(financeDataService, never()).getPriceDataForSymbol("AAPL", null, null, null);
+    }
+
+    @Test
+    void getPriceData_returnsValidatorsWhenETagIsStale() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 4, LocalDate.of(2024, 5, 16), 0x4fL);
+        PriceData priceData = new PriceData("AAPL", LocalDate.of(2024, 5, 16), new BigDecimal("180.00"),
+            new BigDecimal("181.00"), new BigDecimal("179.00"), new BigDecimal("180.50"), 1000L,
+            PriceDataSource.TWELVE_DATA);
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version);
+        when(financeDataService.getPriceDataForSymbol("AAPL", null, null, null)).thenReturn(List.of(priceData));
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"AAPL-1-3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+            .andExpect(jsonPath("$[0].symbol").value("AAPL"));
+    }
+
+    @Test
+    void getPriceData_ignoresIfModifiedSinceWithoutAnETag() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 3, LocalDate.of(2024, 5, 16), 0x3fL);
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version);
+        when(financeDataService.getPriceDataForSymbol("AAPL", null, null, null)).thenReturn(List.of(
+            new PriceData("AAPL", LocalDate.of(2024, 5, 16), new BigDecimal("180.00"), new BigDecimal("181.00"),
+                new BigDecimal("179.00"), new BigDecimal("180.50"), 1000L, PriceDataSource.TWELVE_DATA)));
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 17 May 2024 00:00:00 GMT"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()));
+    }
+
+    @Test
+    void getPrices_returns304UntilAnySymbolChanges() throws Exception {
+        DataVersion apple = new DataVersion("AAPL", 3, LocalDate.of(2024, 5, 16), 0x3fL);
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(apple);
+        when(financeDataService.getPriceWindow("AAPL", null, null)).thenReturn(List.of());
+        when(financeDataService.getPriceWindow("MSFT", null, null)).thenReturn(List.of());
+
+        String etag = mockMvc.perform(get("/prices").queryParam("symbols", "AAPL,MSFT"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/prices").queryParam("symbols", "AAPL,MSFT").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        when(financeDataService.getDataVersion("AAPL"))
+            .thenReturn(new DataVersion("AAPL", 4, LocalDate.of(2024, 5, 17), 0x4fL));
+        mockMvc.perform(get("/prices").queryParam("symbols", "AAPL,MSFT").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getPriceData_writesPreSerializedHistory() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 2, LocalDate.of(2024, 5, 16), 0x2fL);
+        byte[] json = "[{\"symbol\":\"AAPL\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = {0x1f, (byte) 0x8b, 1, 2, 3};
+        when(financeDataService.getSerializedHistory("AAPL"))
+            .thenReturn(new SerializedPriceHistory(version, json, gzip));
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(content().bytes(json));
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"AAPL-2-2024-05-16-2f-gzip\""))
+            .andExpect(content().bytes(gzip));
+
+        verify(financeDataService, never()).getPriceDataForSymbol("AAPL", null, null, null);
+    }
+
+    @Test
+    void getPrices_returns400WhenSymbolsBlank() throws Exception {
+        mockMvc.perform(get("/prices").queryParam("symbols", " , "))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(financeDataService);
+    }
+
     @Test
     void getAvailableSymbols_returnsConfiguredSymbols() throws Exception {
         when(financeDataService.getAvailableSymbols()).thenReturn(List.of("AAPL", "TSLA"));
@@ -75,4 +330,111 @@ class PriceDataControllerTest {
             .andExpect(jsonPath("$[0]").value("AAPL"))
             .andExpect(jsonPath("$[1]").value("TSLA"));
     }
+
+    @Test
+    void getCacheStats_returnsCounters() throws Exception {
+        when(financeDataService.getCacheStats())
+            .thenReturn(new PriceCacheStats(2, 4096, 268435456, 9, 1, 0.9, 0, 3, 5));
+
+        mockMvc.perform(get("/cache/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.entries").value(2))
+            .andExpect(jsonPath("$.residentBytes").value(4096))
+            .andExpect(jsonPath("$.hitRate").value(0.9))
+            .andExpect(jsonPath("$.negativeEntries").value(3));
+    }
+
+    @Test
+    void getIndicator_returnsRequestedRangeOfBands() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 2, LocalDate.of(2024, 5, 17), 0x2fL);
+        IndicatorSpec spec = new IndicatorSpec(IndicatorType.BOLLINGER, 20, 2.5);
+        int firstDay = (int) LocalDate.of(2024, 5, 15).toEpochDay();
+        IndicatorSeries bands = new IndicatorSeries(version, spec, new int[] {firstDay, firstDay + 1, firstDay + 2},
+            new double[] {180, 181, 182}, new double[] {185, 186, 187}, new double[] {175, 176, 177});
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version);
+        when(financeDataService.getIndicator("AAPL", spec)).thenReturn(bands);
+
+        mockMvc.perform(get("/indicators").queryParam("symbol", "AAPL").queryParam("type", "Bollinger")
+                .queryParam("multiplier", "2.5").queryParam("from", "2024-05-16"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+            .andExpect(jsonPath("$.type").value("bollinger"))
+            .andExpect(jsonPath("$.window").value(20))
+            .andExpect(jsonPath("$.multiplier").value(2.5))
+            .andExpect(jsonPath("$.values.length()").value(2))
+            .andExpect(jsonPath("$.values[0].date").value("2024-05-16"))
+            .andExpect(jsonPath("$.values[0].upper").value(186.0));
+    }
+
+    @Test
+    void getIndicator_returns304WhenVersionUnchanged() throws Exception {
+        DataVersion version = new DataVersion("AAPL", 2, LocalDate.of(2024, 5, 17), 0x2fL);
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version);
+
+        mockMvc.perform(get("/indicators").queryParam("symbol", "AAPL").queryParam("type", "sma")
+                .header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+            .andExpect(status().isNotModified());
+
+        verify(financeDataService, never()).getIndicator(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void getIndicator_rejectsUnknownTypeAndInvalidWindow() throws Exception {
+        mockMvc.perform(get("/indicators").queryParam("symbol", "AAPL").queryParam("type", "macd"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/indicators").queryParam("symbol", "AAPL").queryParam("type", "bollinger")
+                .queryParam("window", "1"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(financeDataService);
+    }
+
+    @Test
+    void getIndicator_returns404WithoutData() throws Exception {
+        mockMvc.perform(get("/indicators").queryParam("symbol", "NOPE").queryParam("type", "rsi"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPriceData_resamplesWhenIntervalOrMaxPointsGiven() throws Exception {
+        PriceData bar = new PriceData("AAPL", LocalDate.of(2024, 5, 13), new BigDecimal("180"),
+            new BigDecimal("185"), new BigDecimal("178"), new BigDecimal("184"), 5000L, PriceDataSource.TWELVE_DATA);
+        when(financeDataService.getResampledPrices("AAPL", PriceInterval.WEEKLY, null, null, null, 500))
+            .thenReturn(List.of(bar));
+
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL").queryParam("interval", "weekly")
+                .queryParam("maxPoints", "500"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].date").value("2024-05-13"))
+            .andExpect(jsonPath("$[0].volume").value(5000));
+
+        verify(financeDataService, never()).getSerializedHistory("AAPL");
+    }
+
+    @Test
+    void getPrices_resamplesEverySymbol() throws Exception {
+        PriceData point = new PriceData("AAPL", LocalDate.of(2024, 5, 1), new BigDecimal("180"),
+            new BigDecimal("185"), new BigDecimal("178"), new BigDecimal("184"), 5000L, PriceDataSource.TWELVE_DATA);
+        when(financeDataService.getResampledPrices("AAPL", PriceInterval.MONTHLY, null, null, null, null))
+            .thenReturn(List.of(point));
+        when(financeDataService.getResampledPrices("MSFT", PriceInterval.MONTHLY, null, null, null, null))
+            .thenReturn(List.of());
+
+        mockMvc.perform(get("/prices").queryParam("symbols", "AAPL,MSFT").queryParam("interval", "monthly"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].prices[0].date").value("2024-05-01"))
+            .andExpect(jsonPath("$[1].prices.length()").value(0));
+
+        verify(financeDataService, never()).getPriceWindow("AAPL", null, null);
+    }
+
+    @Test
+    void getPriceData_rejectsUnknownIntervalAndTooFewPoints() throws Exception {
+        mockMvc.perform(get("/getPriceData").queryParam("symbol", "AAPL").queryParam("interval", "hourly"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/prices").queryParam("symbols", "AAPL").queryParam("maxPoints", "2"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(financeDataService);
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.financedataservice.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PriceSeriesTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    @Test
+    void of_sortsEntriesAndKeepsLastDuplicate() {
+        PriceSeries series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            price(TODAY, "3"),
+            price(TODAY.minusDays(2), "1"),
+            price(TODAY.minusDays(1), "2"),
+            price(TODAY, "4")
+        ));
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.firstDate()).isEqualTo(TODAY.minusDays(2));
+        assertThat(series.lastDate()).isEqualTo(TODAY);
+        assertThat(series.toPriceData(2).getClose()).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void window_appliesBoundsAndLimit() {
+        PriceSeries series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            price(TODAY.minusDays(4), "1"),
+            price(TODAY.minusDays(2), "2"),
+            price(TODAY, "3")
+        ));
+
+        assertThat(series.window(TODAY.minusDays(3), TODAY.minusDays(1), null))
+            .extracting(PriceData::getDate)
+            .containsExactly(TODAY.minusDays(2));
+        assertThat(series.window(null, null, 2))
+            .extracting(PriceData::getDate)
+            .containsExactly(TODAY.minusDays(2), TODAY);
+        assertThat(series.window(TODAY.plusDays(1), null, null)).isEmpty();
+    }
+
+    @Test
+    void merge_copiesOnWriteAndReportsChanges() {
+        PriceSeries original = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            price(TODAY.minusDays(2), "1"),
+            price(TODAY.minusDays(1), "2")
+        ));
+
+        PriceSeries.Merge merge = original.merge(List.of(
+            price(TODAY.minusDays(2), "1.000"),
+            price(TODAY.minusDays(1), "2.5"),
+            price(TODAY, "3")
+        ));
+
+        assertThat(merge.changedCount()).isEqualTo(2);
+        assertThat(merge.firstChangedIndex()).isEqualTo(1);
+        assertThat(merge.series().size()).isEqualTo(3);
+        assertThat(merge.series().toPriceData(1).getClose()).isEqualByComparingTo("2.5");
+        assertThat(original.size()).isEqualTo(2);
+        assertThat(original.toPriceData(1).getClose()).isEqualByComparingTo("2");
+
+        assertThat(merge.series().merge(List.of(price(TODAY, "3.0"))).changed()).isFalse();
+    }
+
+    @Test
+    void toPriceData_preservesMissingValues() {
+        PriceData partial = new PriceData("XAUUSD", TODAY, new BigDecimal("2315.1234"), null, null,
+            new BigDecimal("2325.0000"), null, PriceDataSource.GOLD);
+
+        PriceData decoded = PriceSeries.of("XAUUSD", null, List.of(partial)).toPriceData(0);
+
+        assertThat(decoded.getOpen()).isEqualByComparingTo("2315.1234");
+        assertThat(decoded.getHigh()).isNull();
+        assertThat(decoded.getClose()).hasToString("2325.0000");
+        assertThat(decoded.getVolume()).isNull();
+        assertThat(decoded.getSource()).isEqualTo(PriceDataSource.GOLD);
+    }
+
+    @Test
+    void toPriceData_keepsDecimalPlacesUpToPriceScale() {
+        PriceData price = new PriceData("AAPL", TODAY, new BigDecimal("180.50"), new BigDecimal("181"),
+            new BigDecimal("2.5E+2"), new BigDecimal("180.123456789"), 1000L, PriceDataSource.TWELVE_DATA);
+
+        PriceData decoded = PriceSeries.of("AAPL", null, List.of(price)).toPriceData(0);
+
+        assertThat(decoded.getOpen()).hasToString("180.50");
+        assertThat(decoded.getHigh()).hasToString("181");
+        assertThat(decoded.getLow()).hasToString("250");
+        assertThat(decoded.getClose()).hasToString("180.123457");
+    }
+
+    private PriceData price(LocalDate date, String close) {
+        BigDecimal value = new BigDecimal(close);
+        return new PriceData("AAPL", date, value, value, value, value, 1000L, PriceDataSource.TWELVE_DATA);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.financedataservice.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.RefreshResult.SymbolRefresh;
+import com.example.financedataservice.model.RefreshScheduleStatus;
+import com.example.financedataservice.service.FinanceDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshSchedulerTest {
+
+    private static final Map<DataProvider, String> CRONS = Map.of(
+        DataProvider.ALPHA_VANTAGE, "0 0 23 * * MON-FRI",
+        DataProvider.TWELVE_DATA, "0 */30 13-21 * * MON-FRI");
+
+    @Mock
+    private FinanceDataService financeDataService;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-20T14:05:00Z"));
+
+    @Test
+    void providersDueAtStartup_catchesUpOnlyAfterMissedRuns() {
+        when(financeDataService.refreshProviders(any())).thenReturn(result());
+        assertThat(scheduler(true).providersDueAtStartup()).containsExactlyInAnyOrder(DataProvider.values());
+
+        scheduler(true).refreshNow(EnumSet.allOf(DataProvider.class));
+
+        // Restart before the next Twelve Data slot (14:30): nothing was missed.
+        clock.set(Instant.parse("2024-05-20T14:20:00Z"));
+        assertThat(scheduler(true).providersDueAtStartup()).isEmpty();
+
+        // Restart after 14:30 but before the 23:00 gold run: only Twelve Data has to catch up.
+        clock.set(Instant.parse("2024-05-20T15:10:00Z"));
+        assertThat(scheduler(true).providersDueAtStartup()).containsExactly(DataProvider.TWELVE_DATA);
+    }
+
+    @Test
+    void providersDueAtStartup_coversEverythingWhenSchedulingDisabled() {
+        when(financeDataService.refreshProviders(any())).thenReturn(result());
+        RefreshScheduler scheduler = scheduler(true);
+        scheduler.refreshNow(EnumSet.allOf(DataProvider.class));
+
+        assertThat(scheduler(false).providersDueAtStartup()).containsExactlyInAnyOrder(DataProvider.values());
+    }
+
+    @Test
+    void runScheduled_skipsRunWhilePreviousRefreshIsInProgress() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(financeDataService.refreshProviders(any())).thenAnswer(invocation -> {
+            started.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return result();
+        });
+        RefreshScheduler scheduler = scheduler(true);
+
+        CompletableFuture<RefreshResult> slowRun = CompletableFuture.supplyAsync(
+            () -> scheduler.refreshNow(EnumSet.of(DataProvider.TWELVE_DATA)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.runScheduled(DataProvider.TWELVE_DATA);
+        release.countDown();
+        slowRun.get(5, TimeUnit.SECONDS);
+
+        verify(financeDataService, times(1)).refreshProviders(Set.of(DataProvider.TWELVE_DATA));
+        RefreshScheduleStatus status = status(scheduler, DataProvider.TWELVE_DATA);
+        assertThat(status.skippedOverlaps()).isEqualTo(1);
+        assertThat(status.running()).isFalse();
+        assertThat(status.lastSucceeded()).isEqualTo(clock.instant());
+    }
+
+    @Test
+    void refreshNow_recordsFailures() {
+        when(financeDataService.refreshProviders(any())).thenThrow(new IllegalStateException("provider down"));
+        RefreshScheduler scheduler = scheduler(true);
+
+        scheduler.runScheduled(DataProvider.ALPHA_VANTAGE);
+
+        RefreshScheduleStatus status = status(scheduler, DataProvider.ALPHA_VANTAGE);
+        assertThat(status.lastFailed()).isEqualTo(clock.instant());
+        assertThat(status.lastError()).isEqualTo("provider down");
+        assertThat(status.lastSucceeded()).isNull();
+    }
+
+    @Test
+    void refreshNow_countsPartialFailuresAsSuccessAndListsFailedSymbols() {
+        when(financeDataService.refreshProviders(any())).thenReturn(result(
+            new SymbolRefresh("XAUUSD", "alpha-vantage", 2, 40, 0, "Alpha Vantage rate limit reached"),
+            new SymbolRefresh("AAPL", "twelve-data", 1, 25, 3, null),
+            new SymbolRefresh("BROKEN", "twelve-data", 2, 30, 0, "symbol not found")));
+        RefreshScheduler scheduler = scheduler(true);
+
+        RefreshResult result = scheduler.refreshNow(EnumSet.allOf(DataProvider.class));
+
+        assertThat(result.failed()).isEqualTo(2);
+        RefreshScheduleStatus twelveData = status(scheduler, DataProvider.TWELVE_DATA);
+        assertThat(twelveData.lastSucceeded()).isEqualTo(clock.instant());
+        assertThat(twelveData.lastFailed()).isNull();
+        assertThat(twelveData.failedSymbols()).containsExactly("BROKEN");
+        RefreshScheduleStatus gold = status(scheduler, DataProvider.ALPHA_VANTAGE);
+        assertThat(gold.lastSucceeded()).isNull();
+        assertThat(gold.lastFailed()).isEqualTo(clock.instant());
+        assertThat(gold.lastError()).isEqualTo("All 1 symbols failed; XAUUSD: Alpha Vantage rate limit reached");
+        assertThat(scheduler(true).providersDueAtStartup()).contains(DataProvider.ALPHA_VANTAGE);
+    }
+
+    @Test
+    void start_schedulesNextRunWithinJitter() {
+        RefreshScheduler scheduler = new RefreshScheduler(financeDataService, objectMapper, true,
+            Map.of(DataProvider.TWELVE_DATA, "0 */30 13-21 * * MON-FRI"), ZoneId.of("UTC"), Duration.ofSeconds(30),
+            tempDir.resolve(".refresh-schedule.json"), clock);
+        try {
+            scheduler.start();
+
+            assertThat(status(scheduler, DataProvider.TWELVE_DATA).nextRun())
+                .isBetween(Instant.parse("2024-05-20T14:30:00Z"), Instant.parse("2024-05-20T14:30:30Z"));
+            assertThat(status(scheduler, DataProvider.ALPHA_VANTAGE).cron()).isEqualTo("-");
+            assertThat(status(scheduler, DataProvider.ALPHA_VANTAGE).nextRun()).isNull();
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    private RefreshScheduler scheduler(boolean enabled) {
+        return new RefreshScheduler(financeDataService, objectMapper, enabled, CRONS, ZoneId.of("UTC"), Duration.ZERO,
+            tempDir.resolve(".refresh-schedule.json"), clock);
+    }
+
+    private RefreshResult result(SymbolRefresh... symbols) {
+        return new RefreshResult(tempDir, clock.instant(), 0, 0, List.of(symbols));
+    }
+
+    private static RefreshScheduleStatus status(RefreshScheduler scheduler, DataProvider provider) {
+        return scheduler.getStatus().stream()
+            .filter(status -> status.provider().equals(provider.getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
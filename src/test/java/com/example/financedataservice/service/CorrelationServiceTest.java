@@ -0,0 +1,204 @@
+package com.example.financedataservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.financedataservice.model.CorrelationMatrix;
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CorrelationServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private FinanceDataService financeDataService;
+
+    private CorrelationService correlationService;
+
+    @BeforeEach
+    void setUp() {
+        correlationService = new CorrelationService(financeDataService, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        correlationService.close();
+    }
+
+    @Test
+    void getCorrelations_alignsOnCommonDatesAndComputesLogReturnStatistics() {
+        // AAPL lacks day 2 and GOLD lacks day 4, so only days 0, 1, 3 and 5 are common.
+        stub("AAPL", 1, series("AAPL", new double[] {100, 110, 999, 121, 1, 110}, 2));
+        stub("XAUUSD", 1, series("XAUUSD", new double[] {50, 55, 1, 60.5, 999, 55}, 4));
+        stub("MSFT", 1, series("MSFT", new double[] {121, 110, 1, 100, 1, 110}));
+
+        CorrelationMatrix matrix = correlationService.getCorrelations(List.of("aapl", "XAUUSD", "MSFT", "NOPE"),
+            null, null);
+
+        assertThat(matrix.symbols()).containsExactly("AAPL", "XAUUSD", "MSFT");
+        assertThat(matrix.missingSymbols()).containsExactly("NOPE");
+        assertThat(matrix.from()).isEqualTo(START);
+        assertThat(matrix.to()).isEqualTo(START.plusDays(5));
+        assertThat(matrix.observations()).isEqualTo(3);
+        // AAPL and gold move by the same ratios, MSFT by exactly the opposite log returns.
+        assertThat(matrix.correlation()[0][1]).isCloseTo(1.0, within(1e-12));
+        assertThat(matrix.correlation()[0][2]).isCloseTo(-1.0, within(1e-12));
+        assertThat(matrix.correlation()[2][0]).isEqualTo(matrix.correlation()[0][2]);
+        assertThat(matrix.correlation()[1][1]).isEqualTo(1.0);
+        double ln11 = Math.log(1.1);
+        double mean = ln11 / 3;
+        double variance = (2 * Math.pow(ln11 - mean, 2) + Math.pow(-ln11 - mean, 2)) / 2;
+        assertThat(matrix.meanReturns()[0]).isCloseTo(mean, within(1e-12));
+        assertThat(matrix.covariance()[0][0]).isCloseTo(variance, within(1e-12));
+        assertThat(matrix.volatilities()[2]).isCloseTo(Math.sqrt(variance), within(1e-12));
+    }
+
+    @Test
+    void getCorrelations_matchesNaivePearsonForManySymbols() {
+        Random random = new Random(7);
+        List<String> symbols = new ArrayList<>();
+        List<double[]> closes = new ArrayList<>();
+        for (int s = 0; s < 40; s++) {
+            String symbol = "S" + s;
+            double[] values = new double[250];
+            values[0] = 100;
+            for (int t = 1; t < values.length; t++) {
+                values[t] = values[t - 1] * Math.exp(random.nextGaussian() * 0.01);
+            }
+            symbols.add(symbol);
+            closes.add(values);
+            stub(symbol, 1, series(symbol, values));
+        }
+
+        CorrelationMatrix matrix = correlationService.getCorrelations(symbols, null, null);
+
+        double[][] returns = new double[symbols.size()][];
+        for (int s = 0; s < symbols.size(); s++) {
+            PriceSeries stored = series(symbols.get(s), closes.get(s));
+            returns[s] = new double[stored.size() - 1];
+            for (int t = 1; t < stored.size(); t++) {
+                returns[s][t - 1] = Math.log((double) stored.closeAt(t) / stored.closeAt(t - 1));
+            }
+        }
+        for (int i = 0; i < symbols.size(); i += 7) {
+            for (int j = 0; j < symbols.size(); j += 3) {
+                assertThat(matrix.correlation()[i][j]).isCloseTo(pearson(returns[i], returns[j]), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void getCorrelations_memoizesUntilAVersionChanges() {
+        PriceSeries aapl = series("AAPL", new double[] {100, 101, 99, 103});
+        PriceSeries msft = series("MSFT", new double[] {200, 199, 204, 202});
+        when(financeDataService.getDataVersion("AAPL")).thenReturn(version("AAPL", 1), version("AAPL", 1),
+            version("AAPL", 2));
+        when(financeDataService.getDataVersion("MSFT")).thenReturn(version("MSFT", 1));
+        when(financeDataService.getPriceSeries("AAPL")).thenReturn(aapl);
+        when(financeDataService.getPriceSeries("MSFT")).thenReturn(msft);
+
+        CorrelationMatrix first = correlationService.getCorrelations(List.of("AAPL", "MSFT"), null, null);
+        assertThat(correlationService.getCorrelations(List.of("AAPL", "MSFT"), null, null)).isSameAs(first);
+        CorrelationMatrix refreshed = correlationService.getCorrelations(List.of("AAPL", "MSFT"), null, null);
+
+        assertThat(refreshed).isNotSameAs(first);
+        verify(financeDataService, times(2)).getPriceSeries("AAPL");
+    }
+
+    @Test
+    void getCorrelations_defaultsToManagedSymbolsAndRejectsTooMany() {
+        when(financeDataService.getManagedSymbols()).thenReturn(new LinkedHashSet<>(List.of("XAUUSD", "AAPL")));
+        stub("XAUUSD", 1, series("XAUUSD", new double[] {1, 2, 3}));
+        stub("AAPL", 1, series("AAPL", new double[] {3, 2, 1}));
+
+        assertThat(correlationService.getCorrelations(List.of(), null, null).symbols())
+            .containsExactly("XAUUSD", "AAPL");
+
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= CorrelationService.MAX_SYMBOLS; i++) {
+            tooMany.add("S" + i);
+        }
+        assertThatThrownBy(() -> correlationService.getCorrelations(tooMany, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void commonDays_respectsDateRange() {
+        PriceSeries a = series("A", new double[] {1, 2, 3, 4, 5});
+        PriceSeries b = series("B", new double[] {1, 2, 3, 4, 5}, 3);
+
+        int[] days = CorrelationCalculator.commonDays(List.of(a, b), START.plusDays(1), START.plusDays(4));
+
+        assertThat(days).containsExactly((int) START.plusDays(1).toEpochDay(), (int) START.plusDays(2).toEpochDay(),
+            (int) START.plusDays(4).toEpochDay());
+        assertThat(CorrelationCalculator.compute(List.of(a, b), List.of(), START.plusDays(4), null,
+            ForkJoinPool.commonPool()).observations()).isZero();
+    }
+
+    private void stub(String symbol, long version, PriceSeries series) {
+        when(financeDataService.getDataVersion(symbol)).thenReturn(version(symbol, version));
+        when(financeDataService.getPriceSeries(symbol)).thenReturn(series);
+    }
+
+    private static DataVersion version(String symbol, long version) {
+        return new DataVersion(symbol, 1, LocalDate.of(2024, 5, 16), version);
+    }
+
+    /**
+     * Daily closes from {@link #START}, leaving out the entries at {@code skippedDays}.
+     */
+    private static PriceSeries series(String symbol, double[] closes, int... skippedDays) {
+        List<PriceData> prices = new ArrayList<>();
+        outer:
+        for (int i = 0; i < closes.length; i++) {
+            for (int skipped : skippedDays) {
+                if (skipped == i) {
+                    continue outer;
+                }
+            }
+            BigDecimal close = BigDecimal.valueOf(closes[i]);
+            prices.add(new PriceData(symbol, START.plusDays(i), close, close, close, close, 1L,
+                PriceDataSource.TWELVE_DATA));
+        }
+        return PriceSeries.of(symbol, PriceDataSource.TWELVE_DATA, prices);
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int t = 0; t < x.length; t++) {
+            meanX += x[t] / x.length;
+            meanY += y[t] / y.length;
+        }
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int t = 0; t < x.length; t++) {
+            covariance += (x[t] - meanX) * (y[t] - meanY);
+            varianceX += (x[t] - meanX) * (x[t] - meanX);
+            varianceY += (y[t] - meanY) * (y[t] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
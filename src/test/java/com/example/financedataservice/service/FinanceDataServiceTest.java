@@ -1,25 +1,56 @@
 package com.example.financedataservice.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.example.financedataservice.client.AlphaVantageClient;
+import com.example.financedataservice.client.DataProvider;
+import com.example.financedataservice.client.FinanceDataClientException;
+import com.example.financedataservice.client.RateLimitedException;
 import com.example.financedataservice.client.TwelveDataClient;
+import com.example.financedataservice.config.InMemoryTracing;
 import com.example.financedataservice.config.StockConfig;
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorPoint;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.IndicatorType;
+import com.example.financedataservice.model.PriceCacheStats;
 import com.example.financedataservice.model.PriceData;
 import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.RefreshResult;
+import com.example.financedataservice.model.RefreshResult.SymbolRefresh;
+import com.example.financedataservice.model.SerializedPriceHistory;
 import com.example.financedataservice.model.SymbolPriceHistory;
+import com.example.financedataservice.store.BinaryPriceStore;
+import com.example.financedataservice.store.JsonPriceStore;
+import com.example.financedataservice.store.MappedPriceReader;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +75,8 @@ class FinanceDataServiceTest {
     private FinanceDataService financeDataService;
 
     private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryTracing tracing = new InMemoryTracing();
 
     @TempDir
     Path tempDir;
@@ -56,7 +89,6 @@ class FinanceDataServiceTest {
             stockConfig,
             objectMapper,
             tempDir.toString(),
-            Duration.ZERO,
             true
         );
     }
@@ -73,7 +105,7 @@ class FinanceDataServiceTest {
             new PriceData("XAUUSD", TODAY, new BigDecimal("2315"), new BigDecimal("2330"),
                 new BigDecimal("2305"), new BigDecimal("2325"), null, PriceDataSource.GOLD)
         );
-        when(alphaVantageClient.fetchGoldPriceHistory(3)).thenReturn(goldPrices);
+        when(alphaVantageClient.fetchGoldPriceHistory(3, null)).thenReturn(goldPrices);
 
         List<PriceData> stockPrices = List.of(
             new PriceData("AAPL", TODAY.minusDays(1), new BigDecimal("180"), new BigDecimal("181"),
@@ -81,11 +113,14 @@ class FinanceDataServiceTest {
             new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
                 new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA)
         );
-        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30)).thenReturn(stockPrices);
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(stockPrices);
 
-        Path resultPath = financeDataService.refreshDailyData();
+        RefreshResult result = financeDataService.refreshDailyData();
 
-        assertThat(resultPath).isEqualTo(tempDir);
+        assertThat(result.directory()).isEqualTo(tempDir);
+        assertThat(result.newDataPoints()).isEqualTo(4);
+        assertThat(result.failures()).isEmpty();
+        assertThat(result.symbols()).extracting(SymbolRefresh::symbol).containsExactly("XAUUSD", "AAPL");
         Path goldFile = tempDir.resolve("XAUUSD.json");
         Path stockFile = tempDir.resolve("AAPL.json");
         assertThat(goldFile).exists();
@@ -101,8 +136,8 @@ class FinanceDataServiceTest {
         assertThat(stockHistory.getPrices()).hasSize(2);
         assertThat(stockHistory.getPrices().get(0).getOpen()).isEqualTo(new BigDecimal("180"));
 
-        verify(alphaVantageClient, times(1)).fetchGoldPriceHistory(3);
-        verify(twelveDataClient, times(1)).fetchHistoricalPrices("AAPL", 30);
+        verify(alphaVantageClient, times(1)).fetchGoldPriceHistory(3, null);
+        verify(twelveDataClient, times(1)).fetchHistoricalPrices("AAPL", 30, null);
     }
 
     @Test
@@ -122,11 +157,11 @@ class FinanceDataServiceTest {
             new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("183"),
                 new BigDecimal("180.5"), new BigDecimal("182.5"), 1100L, PriceDataSource.TWELVE_DATA)
         );
-        when(alphaVantageClient.fetchGoldPriceHistory(2)).thenReturn(List.of(
+        when(alphaVantageClient.fetchGoldPriceHistory(2, null)).thenReturn(List.of(
             new PriceData("XAUUSD", TODAY.minusDays(1), new BigDecimal("2300"), new BigDecimal("2310"),
                 new BigDecimal("2290"), new BigDecimal("2305"), null, PriceDataSource.GOLD)
         ));
-        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30)).thenReturn(fresh);
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, TODAY.minusDays(1))).thenReturn(fresh);
 
         financeDataService.refreshDailyData();
 
@@ -143,19 +178,18 @@ class FinanceDataServiceTest {
             stockConfig,
             objectMapper,
             tempDir.toString(),
-            Duration.ZERO,
             false
         );
 
         when(stockConfig.getGoldDays()).thenReturn(1);
-        when(alphaVantageClient.fetchGoldPriceHistory(1)).thenReturn(List.of(
+        when(alphaVantageClient.fetchGoldPriceHistory(1, null)).thenReturn(List.of(
             new PriceData("XAUUSD", TODAY, new BigDecimal("2300"), new BigDecimal("2310"),
                 new BigDecimal("2290"), new BigDecimal("2305"), null, PriceDataSource.GOLD)
         ));
 
         disabledService.refreshDailyData();
 
-        verify(alphaVantageClient, times(1)).fetchGoldPriceHistory(1);
+        verify(alphaVantageClient, times(1)).fetchGoldPriceHistory(1, null);
         verifyNoInteractions(twelveDataClient);
         assertThat(Files.exists(tempDir.resolve("XAUUSD.json"))).isTrue();
     }
@@ -176,4 +210,405 @@ class FinanceDataServiceTest {
         assertThat(result.get(0).getDate()).isEqualTo(TODAY.minusDays(1));
         assertThat(result.get(1).getDate()).isEqualTo(TODAY);
     }
+
+    @Test
+    void getPriceDataForSymbol_slicesRequestedRangeAndLimit() throws Exception {
+        List<PriceData> prices = List.of(
+            new PriceData("AAPL", TODAY.minusDays(3), new BigDecimal("178"), new BigDecimal("179"),
+                new BigDecimal("177"), new BigDecimal("178.5"), 900L, PriceDataSource.TWELVE_DATA),
+            new PriceData("AAPL", TODAY.minusDays(2), new BigDecimal("179"), new BigDecimal("180"),
+                new BigDecimal("178"), new BigDecimal("179.5"), 950L, PriceDataSource.TWELVE_DATA),
+            new PriceData("AAPL", TODAY.minusDays(1), new BigDecimal("180"), new BigDecimal("181"),
+                new BigDecimal("179"), new BigDecimal("180.5"), 1000L, PriceDataSource.TWELVE_DATA),
+            new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+                new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA)
+        );
+        objectMapper.writerWithDefaultPrettyPrinter()
+            .writeValue(tempDir.resolve("AAPL.json").toFile(), new SymbolPriceHistory("AAPL", prices));
+
+        List<PriceData> window = financeDataService.getPriceDataForSymbol("AAPL", TODAY.minusDays(2), TODAY.minusDays(1), null);
+        assertThat(window).extracting(PriceData::getDate).containsExactly(TODAY.minusDays(2), TODAY.minusDays(1));
+
+        List<PriceData> latest = financeDataService.getPriceDataForSymbol("AAPL", TODAY.minusDays(2), null, 2);
+        assertThat(latest).extracting(PriceData::getDate).containsExactly(TODAY.minusDays(1), TODAY);
+
+        List<PriceData> upTo = financeDataService.getPriceDataForSymbol("AAPL", null, TODAY.minusDays(3), null);
+        assertThat(upTo).extracting(PriceData::getDate).containsExactly(TODAY.minusDays(3));
+    }
+
+    @Test
+    void getPriceWindow_returnsViewOfRequestedRange() throws Exception {
+        PriceData first = new PriceData("AAPL", TODAY.minusDays(1), new BigDecimal("180"), new BigDecimal("181"),
+            new BigDecimal("179"), new BigDecimal("180.5"), 1000L, PriceDataSource.TWELVE_DATA);
+        PriceData second = new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+            new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA);
+        objectMapper.writerWithDefaultPrettyPrinter()
+            .writeValue(tempDir.resolve("AAPL.json").toFile(), new SymbolPriceHistory("AAPL", List.of(first, second)));
+
+        assertThat(financeDataService.getPriceWindow("aapl", TODAY, null))
+            .extracting(PriceData::getDate)
+            .containsExactly(TODAY);
+        assertThat(financeDataService.getPriceWindow("MSFT", null, null)).isEmpty();
+    }
+
+    @Test
+    void getDataVersion_advancesOnlyWhenRefreshChangesData() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        PriceData price = new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+            new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA);
+        when(twelveDataClient.fetchHistoricalPrices(eq("AAPL"), eq(30), any())).thenReturn(List.of(price));
+
+        assertThat(financeDataService.getDataVersion("AAPL")).isNull();
+
+        financeDataService.refreshDailyData();
+        DataVersion afterFirstRefresh = financeDataService.getDataVersion("aapl");
+        financeDataService.refreshDailyData();
+
+        assertThat(afterFirstRefresh.count()).isEqualTo(1);
+        assertThat(afterFirstRefresh.lastDate()).isEqualTo(TODAY);
+        assertThat(financeDataService.getDataVersion("AAPL")).isEqualTo(afterFirstRefresh);
+        assertThat(batchingService(1).getDataVersion("AAPL")).isEqualTo(afterFirstRefresh);
+
+        when(twelveDataClient.fetchHistoricalPrices(eq("AAPL"), eq(30), any())).thenReturn(List.of(
+            new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"), new BigDecimal("180"),
+                new BigDecimal("181.7"), 1200L, PriceDataSource.TWELVE_DATA)));
+        financeDataService.refreshDailyData();
+
+        DataVersion afterRevision = financeDataService.getDataVersion("AAPL");
+        assertThat(afterRevision.count()).isEqualTo(1);
+        assertThat(afterRevision.etag()).isNotEqualTo(afterFirstRefresh.etag());
+    }
+
+    @Test
+    void getSerializedHistory_reusesBytesUntilDataChanges() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        PriceData first = new PriceData("AAPL", TODAY.minusDays(1), new BigDecimal("180"), new BigDecimal("181"),
+            new BigDecimal("179"), new BigDecimal("180.5"), 1000L, PriceDataSource.TWELVE_DATA);
+        PriceData second = new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+            new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA);
+        when(twelveDataClient.fetchHistoricalPrices(eq("AAPL"), eq(30), any()))
+            .thenReturn(List.of(first))
+            .thenReturn(List.of(second));
+
+        assertThat(financeDataService.getSerializedHistory("AAPL")).isNull();
+        financeDataService.refreshDailyData();
+
+        SerializedPriceHistory initial = financeDataService.getSerializedHistory("AAPL");
+        assertThat(financeDataService.getSerializedHistory("aapl")).isSameAs(initial);
+        List<PriceData> decoded = objectMapper.readValue(
+            new GZIPInputStream(new ByteArrayInputStream(initial.gzip())), new TypeReference<List<PriceData>>() { });
+        assertThat(decoded).extracting(PriceData::getDate).containsExactly(TODAY.minusDays(1));
+
+        financeDataService.refreshDailyData();
+
+        SerializedPriceHistory refreshed = financeDataService.getSerializedHistory("AAPL");
+        assertThat(refreshed).isNotSameAs(initial);
+        assertThat(objectMapper.readValue(refreshed.json(), new TypeReference<List<PriceData>>() { }))
+            .extracting(PriceData::getDate)
+            .containsExactly(TODAY.minusDays(1), TODAY);
+    }
+
+    @Test
+    void getIndicator_reusesValuesUntilDataChanges() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        PriceData first = new PriceData("AAPL", TODAY.minusDays(1), new BigDecimal("180"), new BigDecimal("181"),
+            new BigDecimal("179"), new BigDecimal("180.5"), 1000L, PriceDataSource.TWELVE_DATA);
+        PriceData second = new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+            new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA);
+        when(twelveDataClient.fetchHistoricalPrices(eq("AAPL"), eq(30), any()))
+            .thenReturn(List.of(first))
+            .thenReturn(List.of(second));
+        IndicatorSpec sma = new IndicatorSpec(IndicatorType.SMA, 1, 0);
+
+        assertThat(financeDataService.getIndicator("AAPL", sma)).isNull();
+        financeDataService.refreshDailyData();
+
+        IndicatorSeries initial = financeDataService.getIndicator("AAPL", sma);
+        assertThat(financeDataService.getIndicator("aapl", sma)).isSameAs(initial);
+        assertThat(financeDataService.getIndicator("AAPL", new IndicatorSpec(IndicatorType.EMA, 1, 0)))
+            .isNotSameAs(initial);
+
+        financeDataService.refreshDailyData();
+
+        IndicatorSeries refreshed = financeDataService.getIndicator("AAPL", sma);
+        assertThat(refreshed).isNotSameAs(initial);
+        assertThat(refreshed.window(null, null)).extracting(IndicatorPoint::value).containsExactly(180.5, 181.5);
+    }
+
+    @Test
+    void getResampledPrices_aggregatesWeeklyAndPicksUpRefreshedData() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        LocalDate monday = LocalDate.of(2024, 5, 13);
+        when(twelveDataClient.fetchHistoricalPrices(eq("AAPL"), eq(30), any()))
+            .thenReturn(List.of(
+                new PriceData("AAPL", monday, new BigDecimal("10"), new BigDecimal("12"), new BigDecimal("9"),
+                    new BigDecimal("11"), 100L, PriceDataSource.TWELVE_DATA),
+                new PriceData("AAPL", monday.plusDays(1), new BigDecimal("11"), new BigDecimal("13"),
+                    new BigDecimal("10"), new BigDecimal("12"), 100L, PriceDataSource.TWELVE_DATA)))
+            .thenReturn(List.of(
+                new PriceData("AAPL", monday.plusDays(7), new BigDecimal("12"), new BigDecimal("14"),
+                    new BigDecimal("11"), new BigDecimal("13"), 100L, PriceDataSource.TWELVE_DATA)));
+
+        assertThat(financeDataService.getResampledPrices("AAPL", PriceInterval.WEEKLY, null, null, null, null))
+            .isEmpty();
+        financeDataService.refreshDailyData();
+
+        List<PriceData> weekly = financeDataService.getResampledPrices("aapl", PriceInterval.WEEKLY,
+            monday.plusDays(3), null, null, null);
+        assertThat(weekly).singleElement().satisfies(bar -> {
+            assertThat(bar.getDate()).isEqualTo(monday);
+            assertThat(bar.getClose()).isEqualByComparingTo("12");
+            assertThat(bar.getVolume()).isEqualTo(200L);
+        });
+
+        financeDataService.refreshDailyData();
+
+        assertThat(financeDataService.getResampledPrices("AAPL", PriceInterval.WEEKLY, null, null, null, null))
+            .extracting(PriceData::getDate)
+            .containsExactly(monday, monday.plusDays(7));
+        assertThat(financeDataService.getResampledPrices("AAPL", PriceInterval.DAILY, null, null, null, 3))
+            .extracting(PriceData::getDate)
+            .containsExactly(monday, monday.plusDays(1), monday.plusDays(7));
+    }
+
+    @Test
+    void getPriceDataForSymbol_doesNotCacheUnknownSymbols() {
+        assertThat(financeDataService.getPriceDataForSymbol("UNKNOWN")).isEmpty();
+        assertThat(financeDataService.getPriceDataForSymbol("unknown")).isEmpty();
+
+        PriceCacheStats stats = financeDataService.getCacheStats();
+        assertThat(stats.entries()).isZero();
+        assertThat(stats.negativeEntries()).isEqualTo(1);
+        assertThat(stats.negativeHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshDailyData_fetchesProvidersConcurrently() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(1);
+
+        CountDownLatch stockFetched = new CountDownLatch(1);
+        when(alphaVantageClient.fetchGoldPriceHistory(1, null)).thenAnswer(invocation -> {
+            // Only completes if the Twelve Data fetch is able to run while this call is still in flight.
+            assertThat(stockFetched.await(5, TimeUnit.SECONDS)).isTrue();
+            return List.of(new PriceData("XAUUSD", TODAY, new BigDecimal("2300"), new BigDecimal("2310"),
+                new BigDecimal("2290"), new BigDecimal("2305"), null, PriceDataSource.GOLD));
+        });
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenAnswer(invocation -> {
+            stockFetched.countDown();
+            return List.of(new PriceData("AAPL", TODAY, new BigDecimal("181"), new BigDecimal("182"),
+                new BigDecimal("180"), new BigDecimal("181.5"), 1200L, PriceDataSource.TWELVE_DATA));
+        });
+
+        financeDataService.refreshDailyData();
+
+        assertThat(tempDir.resolve("XAUUSD.json")).exists();
+        assertThat(tempDir.resolve("AAPL.json")).exists();
+    }
+
+    @Test
+    void refreshDailyData_batchesTwelveDataSymbolsAndRetriesMissingOnesSingly() throws Exception {
+        FinanceDataService batchingService = batchingService(3);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL", "MSFT", "TSLA"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        when(twelveDataClient.fetchHistoricalPrices(List.of("AAPL", "MSFT", "TSLA"), 30, null)).thenReturn(Map.of(
+            "AAPL", List.of(stockPrice("AAPL", "181.5")),
+            "MSFT", List.of(stockPrice("MSFT", "420.1"))));
+        when(twelveDataClient.fetchHistoricalPrices("TSLA", 30, null)).thenReturn(List.of(stockPrice("TSLA", "177.2")));
+
+        batchingService.refreshDailyData();
+
+        assertThat(tempDir.resolve("AAPL.json")).exists();
+        assertThat(tempDir.resolve("MSFT.json")).exists();
+        assertThat(tempDir.resolve("TSLA.json")).exists();
+        verify(twelveDataClient, never()).fetchHistoricalPrices("AAPL", 30, null);
+        verify(twelveDataClient, never()).fetchHistoricalPrices("MSFT", 30, null);
+    }
+
+    @Test
+    void refreshDailyData_fallsBackToSingleSymbolRequestsWhenBatchFails() throws Exception {
+        FinanceDataService batchingService = batchingService(2);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL", "MSFT"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        when(twelveDataClient.fetchHistoricalPrices(List.of("AAPL", "MSFT"), 30, null))
+            .thenThrow(new IllegalStateException("Twelve Data reported error: batch rejected"));
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(List.of(stockPrice("AAPL", "181.5")));
+        when(twelveDataClient.fetchHistoricalPrices("MSFT", 30, null)).thenReturn(List.of(stockPrice("MSFT", "420.1")));
+
+        batchingService.refreshDailyData();
+
+        assertThat(batchingService.getPriceDataForSymbol("AAPL")).hasSize(1);
+        assertThat(batchingService.getPriceDataForSymbol("MSFT")).hasSize(1);
+    }
+
+    @Test
+    void refreshDailyData_leavesRateLimitedBatchToTheRetryPass() {
+        FinanceDataService batchingService = batchingService(2);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL", "MSFT"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        when(twelveDataClient.fetchHistoricalPrices(List.of("AAPL", "MSFT"), 30, null))
+            .thenThrow(new RateLimitedException("Twelve Data reported error: out of API credits", Duration.ofSeconds(30)));
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(List.of(stockPrice("AAPL", "181.5")));
+        when(twelveDataClient.fetchHistoricalPrices("MSFT", 30, null)).thenReturn(List.of(stockPrice("MSFT", "420.1")));
+
+        RefreshResult result = batchingService.refreshDailyData();
+
+        assertThat(result.symbols())
+            .extracting(SymbolRefresh::symbol, SymbolRefresh::attempts, SymbolRefresh::succeeded)
+            .containsExactly(tuple("AAPL", 2, true), tuple("MSFT", 2, true));
+        verify(twelveDataClient, times(1)).fetchHistoricalPrices(List.of("AAPL", "MSFT"), 30, null);
+        verify(twelveDataClient, times(1)).fetchHistoricalPrices("AAPL", 30, null);
+        verify(twelveDataClient, times(1)).fetchHistoricalPrices("MSFT", 30, null);
+    }
+
+    @Test
+    void refreshProviders_recordsDurationLockWaitAndPersistedDataPoints() {
+        FinanceDataService batchingService = batchingService(8);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(5);
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(List.of(stockPrice("AAPL", "181.5")));
+
+        batchingService.refreshProviders(Set.of(DataProvider.TWELVE_DATA));
+
+        assertThat(meterRegistry.get(FinanceDataService.REFRESH_TIMER)
+            .tags("providers", "twelve-data", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(FinanceDataService.REFRESH_LOCK_WAIT_TIMER)
+            .tag("providers", "twelve-data").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(FinanceDataService.REFRESH_DATA_POINTS).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void refreshProviders_tracesEachSymbolFromFetchToStoreUpdate() {
+        FinanceDataService batchingService = batchingService(8);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL", "MSFT"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(5);
+        when(twelveDataClient.fetchHistoricalPrices(List.of("AAPL", "MSFT"), 30, null))
+            .thenReturn(Map.of("AAPL", List.of(stockPrice("AAPL", "181.5")), "MSFT", List.of(stockPrice("MSFT", "420.1"))));
+
+        batchingService.refreshProviders(Set.of(DataProvider.TWELVE_DATA));
+
+        SpanData refresh = tracing.span("refresh");
+        SpanData batch = tracing.span("refresh.batch");
+        assertThat(refresh.getAttributes().get(AttributeKey.stringKey("providers"))).isEqualTo("twelve-data");
+        assertThat(batch.getParentSpanId()).isEqualTo(refresh.getSpanId());
+        assertThat(batch.getAttributes().get(AttributeKey.stringKey("symbols"))).isEqualTo("AAPL,MSFT");
+        assertThat(tracing.finishedSpans())
+            .filteredOn(span -> span.getName().equals("refresh.merge"))
+            .hasSize(2)
+            .allSatisfy(merge -> assertThat(merge.getParentSpanId()).isEqualTo(batch.getSpanId()))
+            .extracting(merge -> merge.getAttributes().get(AttributeKey.stringKey("symbol")))
+            .containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(tracing.finishedSpans())
+            .filteredOn(span -> span.getName().equals("price-store.update"))
+            .hasSize(2)
+            .allSatisfy(update -> assertThat(update.getTraceId()).isEqualTo(refresh.getTraceId()));
+    }
+
+    @Test
+    void refreshDailyData_continuesPastFailingSymbolsAndRetriesThemInALaterPass() {
+        FinanceDataService service = batchingService(1);
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL", "BROKEN", "MSFT"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(5);
+        when(alphaVantageClient.fetchGoldPriceHistory(5, null))
+            .thenThrow(new FinanceDataClientException("Alpha Vantage unavailable"))
+            .thenReturn(List.of(new PriceData("XAUUSD", TODAY, new BigDecimal("2315"), new BigDecimal("2330"),
+                new BigDecimal("2305"), new BigDecimal("2325"), null, PriceDataSource.GOLD)));
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(List.of(stockPrice("AAPL", "181.5")));
+        when(twelveDataClient.fetchHistoricalPrices("BROKEN", 30, null))
+            .thenThrow(new FinanceDataClientException("Twelve Data reported error: symbol not found"));
+        when(twelveDataClient.fetchHistoricalPrices("MSFT", 30, null)).thenReturn(List.of(stockPrice("MSFT", "420.1")));
+
+        RefreshResult result = service.refreshDailyData();
+
+        assertThat(result.newDataPoints()).isEqualTo(3);
+        assertThat(result.succeeded()).isEqualTo(3);
+        assertThat(result.symbols())
+            .extracting(SymbolRefresh::symbol, SymbolRefresh::attempts, SymbolRefresh::newDataPoints)
+            .containsExactly(
+                tuple("XAUUSD", 2, 1),
+                tuple("AAPL", 1, 1),
+                tuple("BROKEN", 2, 0),
+                tuple("MSFT", 1, 1));
+        assertThat(result.failures()).singleElement().satisfies(failure -> {
+            assertThat(failure.provider()).isEqualTo("twelve-data");
+            assertThat(failure.error()).isEqualTo("Twelve Data reported error: symbol not found");
+            assertThat(failure.latencyMillis()).isNotNegative();
+        });
+        assertThat(service.getPriceDataForSymbol("XAUUSD")).hasSize(1);
+        assertThat(service.getPriceDataForSymbol("MSFT")).hasSize(1);
+        verify(twelveDataClient, times(2)).fetchHistoricalPrices("BROKEN", 30, null);
+        verify(twelveDataClient, times(1)).fetchHistoricalPrices("AAPL", 30, null);
+        assertThat(meterRegistry.get(FinanceDataService.REFRESH_TIMER).tag("outcome", "partial").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(FinanceDataService.REFRESH_SYMBOL_FAILURES).tag("provider", "twelve-data")
+            .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void refreshDailyData_inMmapModeMergesFromTheMappedFileAndKeepsItOffTheHeapCache() throws Exception {
+        JsonPriceStore jsonStore = new JsonPriceStore(tempDir, objectMapper);
+        PriceCache priceCache = PriceCache.withDefaults();
+        FinanceDataService mappedService = new FinanceDataService(alphaVantageClient, twelveDataClient, stockConfig,
+            new BinaryPriceStore(tempDir, jsonStore, false), tempDir.toString(), new RefreshPipeline(1), true,
+            new MappedPriceReader(tempDir), priceCache, new SerializedPriceCache(objectMapper, 1_048_576L, true),
+            new IndicatorCache(1_048_576L), new ResampledPriceCache(1_048_576L), meterRegistry, tracing.tracer());
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(stockConfig.getGoldDays()).thenReturn(0);
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null))
+            .thenReturn(List.of(stockPrice("AAPL", "181.5")));
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, TODAY)).thenReturn(List.of(
+            stockPrice("AAPL", "181.7"),
+            new PriceData("AAPL", TODAY.plusDays(1), new BigDecimal("182"), new BigDecimal("183"),
+                new BigDecimal("181"), new BigDecimal("182.5"), 900L, PriceDataSource.TWELVE_DATA)));
+
+        mappedService.refreshDailyData();
+        mappedService.refreshDailyData();
+
+        assertThat(mappedService.getPriceSeries("AAPL").size()).isEqualTo(2);
+        assertThat(mappedService.getPriceDataForSymbol("AAPL")).extracting(PriceData::getClose)
+            .containsExactly(new BigDecimal("181.7"), new BigDecimal("182.5"));
+        assertThat(mappedService.getDataVersion("AAPL").lastDate()).isEqualTo(TODAY.plusDays(1));
+        assertThat(priceCache.stats().entries()).isZero();
+    }
+
+    private FinanceDataService batchingService(int batchSize) {
+        return new FinanceDataService(alphaVantageClient, twelveDataClient, stockConfig,
+            new JsonPriceStore(tempDir, objectMapper), tempDir.toString(), new RefreshPipeline(batchSize),
+            true, (MappedPriceReader) null, PriceCache.withDefaults(), new SerializedPriceCache(objectMapper, 1_048_576L, true),
+            new IndicatorCache(1_048_576L), new ResampledPriceCache(1_048_576L), meterRegistry,
+            tracing.tracer());
+    }
+
+    private static PriceData stockPrice(String symbol, String close) {
+        BigDecimal value = new BigDecimal(close);
+        return new PriceData(symbol, TODAY, value, value, value, value, 1000L, PriceDataSource.TWELVE_DATA);
+    }
+
+    @Test
+    void refreshProviders_onlyFetchesRequestedProviders() throws Exception {
+        when(stockConfig.getSymbols()).thenReturn(List.of("AAPL"));
+        when(stockConfig.getDays()).thenReturn(30);
+        when(twelveDataClient.fetchHistoricalPrices("AAPL", 30, null)).thenReturn(List.of(stockPrice("AAPL", "181.5")));
+
+        financeDataService.refreshProviders(Set.of(DataProvider.TWELVE_DATA));
+
+        assertThat(tempDir.resolve("AAPL.json")).exists();
+        verifyNoInteractions(alphaVantageClient);
+    }
 }
@@ -0,0 +1,128 @@
+package com.example.financedataservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.financedataservice.model.PriceCacheStats;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PriceCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void get_loadsOnceAndCountsHits() {
+        PriceCache cache = new PriceCache(1_000_000, Duration.ofMinutes(10), 100, nanos::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("AAPL", symbol -> {
+            loads.incrementAndGet();
+            return series(symbol, 3);
+        });
+        PriceSeries cached = cache.get("AAPL", symbol -> {
+            loads.incrementAndGet();
+            return series(symbol, 3);
+        });
+
+        assertThat(cached.size()).isEqualTo(3);
+        assertThat(loads).hasValue(1);
+        PriceCacheStats stats = cache.stats();
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.residentBytes()).isEqualTo(series("AAPL", 3).residentBytes() + PriceCache.ENTRY_OVERHEAD_BYTES);
+    }
+
+    @Test
+    void bindTo_publishesHitsMissesAndResidentBytes() {
+        PriceCache cache = new PriceCache(1_000_000, Duration.ofMinutes(10), 100, nanos::get);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("AAPL", symbol -> series(symbol, 3));
+        cache.get("AAPL", symbol -> series(symbol, 3));
+        cache.get("MSFT", symbol -> series(symbol, 2));
+
+        assertThat(registry.get("cache.gets").tags("cache", "prices", "result", "hit").functionCounter().count())
+            .isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tags("cache", "prices", "result", "miss").functionCounter().count())
+            .isEqualTo(2.0);
+        assertThat(registry.get("cache.size").tag("cache", "prices").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("finance.cache.resident.bytes").gauge().value())
+            .isEqualTo((double) cache.stats().residentBytes());
+    }
+
+    @Test
+    void get_evictsOnceWeightBoundIsExceeded() {
+        long perSeries = series("S0", 100).residentBytes() + PriceCache.ENTRY_OVERHEAD_BYTES;
+        PriceCache cache = new PriceCache(perSeries * 3, Duration.ofMinutes(10), 100, nanos::get);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("S" + i, symbol -> series(symbol, 100));
+        }
+
+        PriceCacheStats stats = cache.stats();
+        assertThat(stats.entries()).isLessThanOrEqualTo(3);
+        assertThat(stats.residentBytes()).isLessThanOrEqualTo(perSeries * 3);
+        assertThat(stats.evictionCount()).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    void get_remembersMissingSymbolsUntilTtlExpires() {
+        PriceCache cache = new PriceCache(1_000_000, Duration.ofMinutes(10), 100, nanos::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            PriceSeries result = cache.get("NOPE", symbol -> {
+                loads.incrementAndGet();
+                return PriceSeries.empty(symbol, null);
+            });
+            assertThat(result.isEmpty()).isTrue();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().entries()).isZero();
+        assertThat(cache.stats().negativeEntries()).isEqualTo(1);
+        assertThat(cache.stats().negativeHitCount()).isEqualTo(2);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        cache.get("NOPE", symbol -> {
+            loads.incrementAndGet();
+            return PriceSeries.empty(symbol, null);
+        });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void put_replacesNegativeEntry() {
+        PriceCache cache = new PriceCache(1_000_000, Duration.ofMinutes(10), 100, nanos::get);
+        cache.get("MSFT", symbol -> PriceSeries.empty(symbol, null));
+
+        cache.put(series("MSFT", 2));
+
+        assertThat(cache.get("MSFT", symbol -> PriceSeries.empty(symbol, null)).size()).isEqualTo(2);
+        assertThat(cache.stats().negativeEntries()).isZero();
+    }
+
+    private PriceSeries series(String symbol, int days) {
+        List<PriceData> prices = new ArrayList<>();
+        for (int i = days - 1; i >= 0; i--) {
+            BigDecimal value = BigDecimal.valueOf(100 + i);
+            prices.add(new PriceData(symbol, TODAY.minusDays(i), value, value, value, value, 1000L,
+                PriceDataSource.TWELVE_DATA));
+        }
+        return PriceSeries.of(symbol, PriceDataSource.TWELVE_DATA, prices);
+    }
+}
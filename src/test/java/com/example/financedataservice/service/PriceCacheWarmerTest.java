@@ -0,0 +1,102 @@
+package com.example.financedataservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.financedataservice.model.CacheWarmupReport;
+import com.example.financedataservice.model.CacheWarmupReport.SymbolLoad;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PriceCacheWarmerTest {
+
+    @Mock
+    private FinanceDataService financeDataService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void scanSymbols_findsPriceFilesAndIgnoresTemporaryAndHiddenFiles() throws Exception {
+        Files.writeString(tempDir.resolve("AAPL.bin"), "x");
+        Files.writeString(tempDir.resolve("AAPL.json"), "x");
+        Files.writeString(tempDir.resolve("XAUUSD.json"), "x");
+        Files.writeString(tempDir.resolve("MSFT-4829384756123.bin"), "x");
+        Files.writeString(tempDir.resolve(".refresh-schedule.json"), "{}");
+        Files.writeString(tempDir.resolve("notes.txt"), "x");
+
+        PriceCacheWarmer warmer = new PriceCacheWarmer(financeDataService, 2, tempDir, PriceCacheWarmer.Mode.DIRECTORY);
+
+        assertThat(warmer.scanSymbols()).containsExactly("AAPL", "XAUUSD");
+    }
+
+    @Test
+    void warm_loadsSymbolsInParallelAndReportsBytesAndTimings() throws Exception {
+        Files.write(tempDir.resolve("AAPL.bin"), new byte[320]);
+        Files.write(tempDir.resolve("MSFT.bin"), new byte[176]);
+        Files.write(tempDir.resolve("TSLA.json"), new byte[50]);
+        CountDownLatch concurrent = new CountDownLatch(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(financeDataService.preload("AAPL")).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            concurrent.countDown();
+            // Only returns if another load runs at the same time.
+            assertThat(concurrent.await(5, TimeUnit.SECONDS)).isTrue();
+            return 7;
+        });
+        when(financeDataService.preload("MSFT")).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            concurrent.countDown();
+            assertThat(concurrent.await(5, TimeUnit.SECONDS)).isTrue();
+            return 4;
+        });
+        when(financeDataService.preload("TSLA")).thenThrow(new IllegalStateException("corrupt file"));
+
+        CacheWarmupReport report = new PriceCacheWarmer(financeDataService, 2, tempDir, PriceCacheWarmer.Mode.DIRECTORY)
+            .warm();
+
+        assertThat(report.symbols()).isEqualTo(3);
+        assertThat(report.entries()).isEqualTo(11);
+        assertThat(report.bytes()).isEqualTo(546);
+        assertThat(report.failures()).isEqualTo(1);
+        assertThat(report.loads()).extracting(SymbolLoad::symbol).containsExactlyInAnyOrder("AAPL", "MSFT", "TSLA");
+        assertThat(report.loads()).filteredOn(load -> load.symbol().equals("TSLA"))
+            .singleElement()
+            .satisfies(load -> assertThat(load.error()).isEqualTo("corrupt file"));
+        assertThat(threads).hasSize(2).allMatch(name -> name.startsWith("cache-warmup"));
+    }
+
+    @Test
+    void managedMode_loadsConfiguredSymbolsOnly() {
+        when(financeDataService.getManagedSymbols()).thenReturn(Set.of("XAUUSD"));
+        when(financeDataService.preload("XAUUSD")).thenReturn(3);
+
+        CacheWarmupReport report = new PriceCacheWarmer(financeDataService, 4, tempDir, PriceCacheWarmer.Mode.MANAGED)
+            .warm();
+
+        assertThat(report.symbols()).isEqualTo(1);
+        assertThat(report.entries()).isEqualTo(3);
+        assertThat(report.bytes()).isZero();
+    }
+
+    @Test
+    void offMode_loadsNothing() {
+        PriceCacheWarmer warmer = new PriceCacheWarmer(financeDataService, 4, tempDir, PriceCacheWarmer.Mode.OFF);
+
+        assertThat(warmer.isEnabled()).isFalse();
+        assertThat(warmer.warm().symbols()).isZero();
+        verify(financeDataService, never()).getManagedSymbols();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.financedataservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceInterval;
+import com.example.financedataservice.model.PriceSeries;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PriceResamplerTest {
+
+    @Test
+    void aggregate_buildsWeeklyOhlcvBarsDatedByMonday() {
+        // Wednesday 2024-05-15 to Tuesday 2024-05-21
+        PriceSeries daily = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            price(LocalDate.of(2024, 5, 15), "10", "12", "9", "11", 100L),
+            price(LocalDate.of(2024, 5, 16), "11", "15", "10", "14", 200L),
+            price(LocalDate.of(2024, 5, 17), "14", "14", "8", "9", null),
+            price(LocalDate.of(2024, 5, 20), "9", "10", "7", "8", 50L),
+            price(LocalDate.of(2024, 5, 21), "8", "11", "8", "10", 70L)));
+
+        PriceSeries weekly = PriceResampler.aggregate(daily, PriceInterval.WEEKLY);
+
+        assertThat(weekly.toPriceData())
+            .extracting(PriceData::getDate, PriceData::getOpen, PriceData::getHigh, PriceData::getLow,
+                PriceData::getClose, PriceData::getVolume)
+            .containsExactly(
+                tuple(LocalDate.of(2024, 5, 13), new BigDecimal("10"), new BigDecimal("15"), new BigDecimal("8"),
+                    new BigDecimal("9"), 300L),
+                tuple(LocalDate.of(2024, 5, 20), new BigDecimal("9"), new BigDecimal("11"), new BigDecimal("7"),
+                    new BigDecimal("10"), 120L));
+    }
+
+    @Test
+    void aggregate_buildsMonthlyBarsAcrossYears() {
+        List<PriceData> prices = new ArrayList<>();
+        LocalDate day = LocalDate.of(2023, 11, 20);
+        for (int i = 0; i < 120; i++) {
+            prices.add(price(day.plusDays(i), "1", "2", "1", String.valueOf(i + 1), 1L));
+        }
+
+        PriceSeries monthly = PriceResampler.aggregate(
+            PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices), PriceInterval.MONTHLY);
+
+        assertThat(monthly.toPriceData()).extracting(PriceData::getDate).containsExactly(
+            LocalDate.of(2023, 11, 1), LocalDate.of(2023, 12, 1), LocalDate.of(2024, 1, 1),
+            LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        assertThat(monthly.toPriceData(0).getVolume()).isEqualTo(11L);
+        assertThat(monthly.toPriceData(0).getClose()).isEqualByComparingTo("11");
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_keepsEndpointsAndPeaks() {
+        List<PriceData> prices = new ArrayList<>();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 100; i++) {
+            String close = i == 37 ? "500" : i == 71 ? "1" : "100";
+            prices.add(price(start.plusDays(i), close, close, close, close, 1L));
+        }
+        PriceSeries series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices);
+
+        int[] selected = PriceResampler.largestTriangleThreeBuckets(series, 0, 100, 10);
+
+        assertThat(selected).hasSize(10).startsWith(0).endsWith(99).contains(37, 71);
+        for (int i = 1; i < selected.length; i++) {
+            assertThat(selected[i]).isGreaterThan(selected[i - 1]);
+        }
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_returnsRangeWhenItFits() {
+        PriceSeries series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            price(LocalDate.of(2024, 1, 1), "1", "1", "1", "1", 1L),
+            price(LocalDate.of(2024, 1, 2), "2", "2", "2", "2", 1L),
+            price(LocalDate.of(2024, 1, 3), "3", "3", "3", "3", 1L)));
+
+        assertThat(PriceResampler.largestTriangleThreeBuckets(series, 1, 3, 5)).containsExactly(1, 2);
+    }
+
+    private static PriceData price(LocalDate date, String open, String high, String low, String close, Long volume) {
+        return new PriceData("AAPL", date, new BigDecimal(open), new BigDecimal(high), new BigDecimal(low),
+            new BigDecimal(close), volume, PriceDataSource.TWELVE_DATA);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.financedataservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.example.financedataservice.model.DataVersion;
+import com.example.financedataservice.model.IndicatorPoint;
+import com.example.financedataservice.model.IndicatorSeries;
+import com.example.financedataservice.model.IndicatorSpec;
+import com.example.financedataservice.model.IndicatorType;
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TechnicalIndicatorsTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final DataVersion VERSION = new DataVersion("AAPL", 3, LocalDate.of(2024, 5, 16), 3L);
+
+    @Test
+    void sma_averagesTrailingWindow() {
+        IndicatorSeries sma = compute(series(1, 2, 3, 4, 5), new IndicatorSpec(IndicatorType.SMA, 3, 0));
+
+        assertThat(sma.window(null, null)).extracting(IndicatorPoint::value).containsExactly(2.0, 3.0, 4.0);
+        assertThat(sma.dateAt(0)).isEqualTo(START.plusDays(2));
+        assertThat(sma.version()).isEqualTo(VERSION);
+    }
+
+    @Test
+    void sma_matchesNaiveAverageOverLongSeries() {
+        double[] closes = new double[500];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = 100 + 10 * Math.sin(i / 7.0) + i * 0.013;
+        }
+        IndicatorSeries sma = compute(series(closes), new IndicatorSpec(IndicatorType.SMA, 20, 0));
+
+        assertThat(sma.size()).isEqualTo(481);
+        for (int i = 0; i < sma.size(); i++) {
+            double expected = 0;
+            for (int j = i; j < i + 20; j++) {
+                expected += Math.round(closes[j] * 1_000_000) / 1_000_000d;
+            }
+            assertThat(sma.valueAt(i)).isCloseTo(expected / 20, within(1e-9));
+        }
+    }
+
+    @Test
+    void ema_isSeededWithSimpleAverage() {
+        IndicatorSeries ema = compute(series(1, 2, 3, 4, 5), new IndicatorSpec(IndicatorType.EMA, 3, 0));
+
+        // alpha = 0.5: seed 2, then 2 + 0.5 * (4 - 2) = 3, then 3 + 0.5 * (5 - 3) = 4
+        assertThat(ema.window(null, null)).extracting(IndicatorPoint::value).containsExactly(2.0, 3.0, 4.0);
+    }
+
+    @Test
+    void rsi_usesWilderSmoothing() {
+        IndicatorSeries rsi = compute(series(10, 11, 10, 12, 13), new IndicatorSpec(IndicatorType.RSI, 2, 0));
+
+        // changes +1, -1, +2, +1; first averages 0.5/0.5, then gains (0.5 + 2) / 2 = 1.25, losses 0.25, ...
+        assertThat(rsi.size()).isEqualTo(3);
+        assertThat(rsi.valueAt(0)).isEqualTo(50.0);
+        assertThat(rsi.valueAt(1)).isCloseTo(100 - 100 / (1 + 1.25 / 0.25), within(1e-9));
+        assertThat(rsi.valueAt(2)).isCloseTo(100 - 100 / (1 + 1.125 / 0.125), within(1e-9));
+        assertThat(rsi.dateAt(0)).isEqualTo(START.plusDays(2));
+    }
+
+    @Test
+    void rsi_scoresOnlyGainsAsHundred() {
+        IndicatorSeries rsi = compute(series(1, 2, 3, 4), new IndicatorSpec(IndicatorType.RSI, 2, 0));
+
+        assertThat(rsi.window(null, null)).extracting(IndicatorPoint::value).containsExactly(100.0, 100.0);
+    }
+
+    @Test
+    void bollinger_addsPopulationStandardDeviationBands() {
+        IndicatorSeries bands = compute(series(2, 4, 4, 4, 5, 5, 7, 9), new IndicatorSpec(IndicatorType.BOLLINGER, 8, 2));
+
+        IndicatorPoint point = bands.window(null, null).get(0);
+        // mean 5, population standard deviation 2
+        assertThat(point.value()).isEqualTo(5.0);
+        assertThat(point.upper()).isEqualTo(9.0);
+        assertThat(point.lower()).isEqualTo(1.0);
+    }
+
+    @Test
+    void window_slicesByDateAndSkipsMissingCloses() {
+        List<PriceData> prices = new ArrayList<>(series(1, 2, 3, 4, 5).toPriceData());
+        prices.set(1, new PriceData("AAPL", START.plusDays(1), null, null, null, null, null,
+            PriceDataSource.TWELVE_DATA));
+        IndicatorSeries sma = compute(PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices),
+            new IndicatorSpec(IndicatorType.SMA, 2, 0));
+
+        assertThat(sma.window(null, null)).extracting(IndicatorPoint::value).containsExactly(2.0, 3.5, 4.5);
+        assertThat(sma.window(START.plusDays(3), START.plusDays(3)))
+            .extracting(IndicatorPoint::date)
+            .containsExactly(START.plusDays(3));
+        assertThat(sma.window(START.plusDays(10), null)).isEmpty();
+    }
+
+    @Test
+    void shortSeries_yieldsNoValues() {
+        assertThat(compute(series(1, 2), new IndicatorSpec(IndicatorType.SMA, 3, 0)).size()).isZero();
+        assertThat(compute(series(1, 2), new IndicatorSpec(IndicatorType.RSI, 2, 0)).size()).isZero();
+        assertThat(compute(series(), new IndicatorSpec(IndicatorType.BOLLINGER, 2, 2)).size()).isZero();
+    }
+
+    private static IndicatorSeries compute(PriceSeries series, IndicatorSpec spec) {
+        return TechnicalIndicators.compute(series, spec, VERSION);
+    }
+
+    private static PriceSeries series(double... closes) {
+        List<PriceData> prices = new ArrayList<>();
+        for (int i = 0; i < closes.length; i++) {
+            BigDecimal close = BigDecimal.valueOf(closes[i]);
+            prices.add(new PriceData("AAPL", START.plusDays(i), close, close, close, close, 100L,
+                PriceDataSource.TWELVE_DATA));
+        }
+        return PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices);
+    }
+}
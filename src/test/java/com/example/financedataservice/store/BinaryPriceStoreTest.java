@@ -0,0 +1,148 @@
+package com.example.financedataservice.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryPriceStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    @TempDir
+    Path tempDir;
+
+    private JsonPriceStore jsonStore;
+    private BinaryPriceStore store;
+
+    @BeforeEach
+    void setUp() {
+        jsonStore = new JsonPriceStore(tempDir, new ObjectMapper());
+        store = new BinaryPriceStore(tempDir, jsonStore, false);
+    }
+
+    @Test
+    void write_roundTripsValuesAndMissingFields() throws Exception {
+        List<PriceData> prices = List.of(
+            stock(TODAY.minusDays(1), "180.25", 1000L),
+            new PriceData("XAUUSD", TODAY, new BigDecimal("2315.1234"), null, new BigDecimal("2305"),
+                new BigDecimal("2325.0000"), null, PriceDataSource.GOLD)
+        );
+
+        store.write(PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices));
+        List<PriceData> loaded = store.load("AAPL").toPriceData();
+
+        assertThat(loaded).hasSize(2);
+        assertThat(loaded.get(0).getDate()).isEqualTo(TODAY.minusDays(1));
+        assertThat(loaded.get(0).getClose()).isEqualByComparingTo("180.25");
+        assertThat(loaded.get(0).getVolume()).isEqualTo(1000L);
+        assertThat(loaded.get(1).getOpen()).isEqualByComparingTo("2315.1234");
+        assertThat(loaded.get(1).getHigh()).isNull();
+        assertThat(loaded.get(1).getClose()).hasToString("2325.0000");
+        assertThat(loaded.get(1).getVolume()).isNull();
+        assertThat(Files.size(tempDir.resolve("AAPL.bin")))
+            .isEqualTo(BinaryPriceFormat.HEADER_SIZE + 2L * BinaryPriceFormat.RECORD_SIZE);
+    }
+
+    @Test
+    void update_appendsNewRecordsAndRevisesTheTail() throws Exception {
+        List<PriceData> initial = new ArrayList<>();
+        for (int i = 5; i >= 1; i--) {
+            initial.add(stock(TODAY.minusDays(i), "100", 10L));
+        }
+        PriceSeries history = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, initial);
+        store.write(history);
+
+        PriceSeries.Merge merge = history.merge(List.of(stock(TODAY.minusDays(1), "101.5", 11L),
+            stock(TODAY, "102", 12L)));
+        assertThat(merge.firstChangedIndex()).isEqualTo(4);
+        store.update(merge.series(), merge.firstChangedIndex());
+
+        List<PriceData> loaded = store.load("AAPL").toPriceData();
+        assertThat(loaded).extracting(PriceData::getDate)
+            .containsExactlyElementsOf(merge.series().toPriceData().stream().map(PriceData::getDate).toList());
+        assertThat(loaded.get(4).getClose()).isEqualByComparingTo("101.5");
+        assertThat(loaded.get(5).getVolume()).isEqualTo(12L);
+        assertThat(Files.size(tempDir.resolve("AAPL.bin")))
+            .isEqualTo(BinaryPriceFormat.HEADER_SIZE + 6L * BinaryPriceFormat.RECORD_SIZE);
+    }
+
+    @Test
+    void update_appendsInPlaceButReplacesTheFileWhenStoredRecordsAreRevised() throws Exception {
+        PriceSeries history = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA,
+            List.of(stock(TODAY.minusDays(2), "100", 10L), stock(TODAY.minusDays(1), "100", 10L)));
+        store.write(history);
+        Object originalFile = fileKey();
+
+        PriceSeries.Merge append = history.merge(List.of(stock(TODAY, "102", 12L)));
+        store.update(append.series(), append.firstChangedIndex());
+        assertThat(fileKey()).isEqualTo(originalFile);
+
+        PriceSeries.Merge revision = append.series().merge(List.of(stock(TODAY.minusDays(2), "99", 9L)));
+        assertThat(revision.firstChangedIndex()).isZero();
+        store.update(revision.series(), revision.firstChangedIndex());
+
+        assertThat(fileKey()).isNotEqualTo(originalFile);
+        assertThat(store.load("AAPL").toPriceData()).extracting(PriceData::getClose)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("99"), new BigDecimal("100"), new BigDecimal("102"));
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).extracting(path -> path.getFileName().toString()).containsExactly("AAPL.bin");
+        }
+    }
+
+    @Test
+    void write_storesAStableSourceCodeInTheHeader() throws Exception {
+        store.write(PriceSeries.of("XAUUSD", PriceDataSource.GOLD, List.of(stock(TODAY, "2325", null))));
+        store.write(PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(stock(TODAY, "180", 1000L))));
+
+        assertThat(Files.readAllBytes(tempDir.resolve("XAUUSD.bin"))[9]).isEqualTo((byte) 0);
+        assertThat(Files.readAllBytes(tempDir.resolve("AAPL.bin"))[9]).isEqualTo((byte) 1);
+        assertThat(store.load("XAUUSD").getSource()).isEqualTo(PriceDataSource.GOLD);
+        assertThat(store.load("AAPL").getSource()).isEqualTo(PriceDataSource.TWELVE_DATA);
+    }
+
+    @Test
+    void load_importsLegacyJsonFile() throws Exception {
+        jsonStore.write(PriceSeries.of("AAPL", null, List.of(stock(TODAY, "180", 1000L))));
+
+        PriceSeries loaded = store.load("AAPL");
+
+        assertThat(loaded.size()).isEqualTo(1);
+        assertThat(loaded.getSource()).isEqualTo(PriceDataSource.TWELVE_DATA);
+        assertThat(tempDir.resolve("AAPL.bin")).exists();
+        assertThat(store.load("AAPL").toPriceData(0).getClose()).isEqualByComparingTo("180");
+    }
+
+    @Test
+    void update_exportsJsonWhenEnabled() throws Exception {
+        BinaryPriceStore exportingStore = new BinaryPriceStore(tempDir, jsonStore, true);
+        PriceSeries history = PriceSeries.of("MSFT", PriceDataSource.TWELVE_DATA,
+            List.of(stock(TODAY, "180", 1000L)));
+
+        exportingStore.update(history, 0);
+
+        assertThat(jsonStore.load("MSFT").size()).isEqualTo(1);
+    }
+
+    private Object fileKey() throws Exception {
+        return Files.readAttributes(tempDir.resolve("AAPL.bin"), BasicFileAttributes.class).fileKey();
+    }
+
+    private PriceData stock(LocalDate date, String close, Long volume) {
+        BigDecimal value = new BigDecimal(close);
+        return new PriceData("AAPL", date, value, value, value, value, volume, PriceDataSource.TWELVE_DATA);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.financedataservice.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.SymbolPriceHistory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JsonPriceStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private String fixture;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Prices as the providers deliver them, trailing zeros included.
+        fixture = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(new SymbolPriceHistory("XAUUSD",
+            List.of(
+                new PriceData("XAUUSD", TODAY.minusDays(1), new BigDecimal("2300.00"), new BigDecimal("2310.5000"),
+                    new BigDecimal("2290"), new BigDecimal("2305.12345"), null, PriceDataSource.GOLD),
+                new PriceData("XAUUSD", TODAY, new BigDecimal("2315.0000"), null, new BigDecimal("2305.10"),
+                    new BigDecimal("2325.00"), 1200L, PriceDataSource.GOLD))));
+        Files.writeString(tempDir.resolve("XAUUSD.json"), fixture);
+    }
+
+    @Test
+    void loadAndWrite_reproduceTheStoredDocument() throws Exception {
+        JsonPriceStore store = new JsonPriceStore(tempDir, objectMapper);
+
+        store.write(store.load("XAUUSD"));
+
+        assertThat(Files.readString(tempDir.resolve("XAUUSD.json"))).isEqualTo(fixture);
+    }
+
+    @Test
+    void binaryStore_servesImportedPricesWithTheirOriginalDecimalPlaces() throws Exception {
+        BinaryPriceStore store = new BinaryPriceStore(tempDir, new JsonPriceStore(tempDir, objectMapper), false);
+        store.load("XAUUSD");
+
+        List<PriceData> reloaded = new ArrayList<>(store.load("XAUUSD").toPriceData());
+
+        assertThat(objectMapper.writerWithDefaultPrettyPrinter()
+            .writeValueAsString(new SymbolPriceHistory("XAUUSD", reloaded))).isEqualTo(fixture);
+        assertThat(reloaded.get(1).getClose()).hasToString("2325.00");
+    }
+}
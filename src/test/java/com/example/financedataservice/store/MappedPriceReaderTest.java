@@ -0,0 +1,93 @@
+package com.example.financedataservice.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedPriceReaderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    @TempDir
+    Path tempDir;
+
+    private BinaryPriceStore store;
+    private MappedPriceReader reader;
+    private PriceSeries history;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new BinaryPriceStore(tempDir, new JsonPriceStore(tempDir, new ObjectMapper()), false);
+        reader = new MappedPriceReader(tempDir);
+        List<PriceData> prices = new ArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            prices.add(price(TODAY.minusDays(i), 100 - i));
+        }
+        history = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, prices);
+        store.write(history);
+    }
+
+    @Test
+    void read_returnsRequestedWindowAndLimit() throws Exception {
+        List<PriceData> window = reader.read("AAPL", TODAY.minusDays(3), TODAY.minusDays(1), null);
+        assertThat(window).extracting(PriceData::getDate)
+            .containsExactly(TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1));
+        assertThat(window.get(0).getSymbol()).isEqualTo("AAPL");
+        assertThat(window.get(0).getSource()).isEqualTo(PriceDataSource.TWELVE_DATA);
+
+        assertThat(reader.read("AAPL", null, null, 2)).extracting(PriceData::getDate)
+            .containsExactly(TODAY.minusDays(1), TODAY);
+        assertThat(reader.read("AAPL", TODAY.plusDays(1), null, null)).isEmpty();
+        assertThat(reader.read("MSFT", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void read_seesAppendsAndReplacedFiles() throws Exception {
+        assertThat(reader.read("AAPL", null, null, null)).hasSize(10);
+
+        PriceSeries.Merge merge = history.merge(List.of(price(TODAY.plusDays(1), 101)));
+        store.update(merge.series(), merge.firstChangedIndex());
+        assertThat(reader.read("AAPL", null, null, null)).hasSize(11);
+
+        store.write(PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(price(TODAY, 50))));
+        List<PriceData> replaced = reader.read("AAPL", null, null, null);
+        assertThat(replaced).hasSize(1);
+        assertThat(replaced.get(0).getClose()).isEqualByComparingTo("50");
+        assertThat(reader.mappedFileCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readSeries_copiesColumnsFromTheMappingAndReusesThemUntilTheFileChanges() throws Exception {
+        PriceSeries series = reader.readSeries("AAPL");
+
+        assertThat(series.size()).isEqualTo(10);
+        assertThat(series.contentHash()).isEqualTo(history.contentHash());
+        assertThat(series.getSource()).isEqualTo(PriceDataSource.TWELVE_DATA);
+        assertThat(reader.readSeries("AAPL")).isSameAs(series);
+        assertThat(reader.lastDate("AAPL")).isEqualTo(TODAY);
+
+        PriceSeries.Merge merge = history.merge(List.of(price(TODAY.plusDays(1), 101)));
+        store.update(merge.series(), merge.firstChangedIndex());
+
+        assertThat(reader.readSeries("AAPL").contentHash()).isEqualTo(merge.series().contentHash());
+        assertThat(reader.lastDate("AAPL")).isEqualTo(TODAY.plusDays(1));
+        assertThat(reader.readSeries("MSFT").isEmpty()).isTrue();
+        assertThat(reader.lastDate("MSFT")).isNull();
+    }
+
+    private PriceData price(LocalDate date, int close) {
+        BigDecimal value = BigDecimal.valueOf(close);
+        return new PriceData("AAPL", date, value, value, value, value, 1000L, PriceDataSource.TWELVE_DATA);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.financedataservice.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.financedataservice.model.PriceData;
+import com.example.financedataservice.model.PriceDataSource;
+import com.example.financedataservice.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MeteredPriceStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 16);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsLatencyAndFileSizeWithoutSymbolTags() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredPriceStore store = new MeteredPriceStore(
+            new BinaryPriceStore(tempDir, new JsonPriceStore(tempDir, new ObjectMapper()), false), registry);
+        PriceSeries series = PriceSeries.of("AAPL", PriceDataSource.TWELVE_DATA, List.of(
+            new PriceData("AAPL", TODAY, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, 10L,
+                PriceDataSource.TWELVE_DATA)));
+        long fileSize = BinaryPriceFormat.HEADER_SIZE + BinaryPriceFormat.RECORD_SIZE;
+
+        store.write(series);
+        store.load("AAPL");
+        store.load("MSFT");
+        store.load("NO-SUCH-SYMBOL");
+
+        assertThat(registry.get(MeteredPriceStore.PERSIST_TIMER)
+            .tags("operation", "write", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get(MeteredPriceStore.PERSIST_TIMER + ".bytes").summary().totalAmount())
+            .isEqualTo(fileSize);
+        assertThat(registry.get(MeteredPriceStore.LOAD_TIMER).tag("outcome", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get(MeteredPriceStore.LOAD_TIMER + ".bytes").summary().totalAmount()).isEqualTo(fileSize);
+        assertThat(registry.getMeters())
+            .allSatisfy(meter -> assertThat(meter.getId().getTag("symbol")).isNull());
+    }
+}